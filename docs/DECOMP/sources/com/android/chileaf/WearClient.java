@@ -0,0 +1,162 @@
+package com.android.chileaf;
+
+import com.android.chileaf.fitness.request.ResponseRouter;
+import com.android.chileaf.model.HeartRateStatus;
+import com.android.chileaf.model.HistoryOfHeartRate;
+import com.android.chileaf.model.HistoryOfRecord;
+import com.android.chileaf.model.HistoryOfRespiratoryRate;
+import com.android.chileaf.model.HistoryOfSport;
+import com.android.chileaf.model.HistoryOfStep;
+import com.android.chileaf.model.HistorySleep;
+import com.android.chileaf.model.IntervalStep;
+import com.android.chileaf.model.UserInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToLongFunction;
+
+public final class WearClient {
+    private volatile long mHistoryTimeout;
+    private final WearManager mManager;
+    private volatile long mTimeout;
+
+    public WearClient(final WearManager manager) {
+        this.mManager = manager;
+        this.mTimeout = ResponseRouter.DEFAULT_TIMEOUT;
+        this.mHistoryTimeout = WearManager.HISTORY_TIMEOUT;
+    }
+
+    public WearManager getManager() {
+        return this.mManager;
+    }
+
+    public void setTimeout(final long timeout) {
+        this.mTimeout = timeout;
+    }
+
+    public void setHistoryTimeout(final long historyTimeout) {
+        this.mHistoryTimeout = historyTimeout;
+    }
+
+    public UserInfo userInfo() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestUserInfo(this.mTimeout));
+    }
+
+    public HeartRateStatus heartRateStatus() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHeartRateStatus(this.mTimeout));
+    }
+
+    public int heartRateMax() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHeartRateMax(this.mTimeout)).intValue();
+    }
+
+    public boolean heartRateAlarm() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHeartRateAlarm(this.mTimeout)).booleanValue();
+    }
+
+    public int sensor3DFrequency() throws InterruptedException, TimeoutException {
+        return await(this.mManager.request3DFrequency(this.mTimeout)).intValue();
+    }
+
+    public boolean sensor3DEnabled() throws InterruptedException, TimeoutException {
+        return await(this.mManager.request3DStatus(this.mTimeout)).booleanValue();
+    }
+
+    public int sensor6DFrequency() throws InterruptedException, TimeoutException {
+        return await(this.mManager.request6DFrequency(this.mTimeout)).intValue();
+    }
+
+    public List<HistoryOfSport> sportHistory() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHistoryOfSport(this.mHistoryTimeout));
+    }
+
+    public List<HistorySleep> sleepHistory() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHistoryOfSleep(this.mHistoryTimeout));
+    }
+
+    public List<HistoryOfRecord> hrRecords() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHistoryOfHRRecord(this.mHistoryTimeout));
+    }
+
+    public List<HistoryOfHeartRate> hrHistory(final long recordStamp) throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHistoryOfHRData(recordStamp, this.mHistoryTimeout));
+    }
+
+    public List<HistoryOfHeartRate> hrHistorySince(final long since) throws InterruptedException, TimeoutException {
+        return since(hrRecords(), since, this::hrHistory, sample -> sample.stamp);
+    }
+
+    public List<HistoryOfRecord> rrRecords() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHistoryOfRRRecord(this.mHistoryTimeout));
+    }
+
+    public List<HistoryOfRespiratoryRate> rrHistory(final long recordStamp) throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHistoryOfRRData(recordStamp, this.mHistoryTimeout));
+    }
+
+    public List<HistoryOfRespiratoryRate> rrHistorySince(final long since) throws InterruptedException, TimeoutException {
+        return since(rrRecords(), since, this::rrHistory, sample -> sample.stamp);
+    }
+
+    public List<HistoryOfRecord> stepRecords() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHistoryOfStepRecord(this.mHistoryTimeout));
+    }
+
+    public List<HistoryOfStep> stepHistory(final long recordStamp) throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestHistoryOfStepData(recordStamp, this.mHistoryTimeout));
+    }
+
+    public List<HistoryOfStep> stepHistorySince(final long since) throws InterruptedException, TimeoutException {
+        return since(stepRecords(), since, this::stepHistory, sample -> sample.stamp);
+    }
+
+    public List<IntervalStep> intervalSteps() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestIntervalSteps(this.mHistoryTimeout));
+    }
+
+    public List<HistoryOfRecord> singleTapRecords() throws InterruptedException, TimeoutException {
+        return await(this.mManager.requestSingleTapRecords(this.mHistoryTimeout));
+    }
+
+    private static <T> List<T> since(final List<HistoryOfRecord> records, final long since, final HistoryRequest<T> request, final ToLongFunction<T> stampOf) throws InterruptedException, TimeoutException {
+        List<HistoryOfRecord> sorted = new ArrayList<>(records);
+        sorted.sort((a, b) -> Long.compare(a.record, b.record));
+        int first = 0;
+        for (int i = 0; i < sorted.size() && sorted.get(i).record <= since; i++) {
+            first = i;
+        }
+        List<T> samples = new ArrayList<>();
+        for (int i = first; i < sorted.size(); i++) {
+            for (T sample : request.fetch(sorted.get(i).stamp)) {
+                if (stampOf.applyAsLong(sample) >= since) {
+                    samples.add(sample);
+                }
+            }
+        }
+        return samples;
+    }
+
+    private interface HistoryRequest<T> {
+        List<T> fetch(long recordStamp) throws InterruptedException, TimeoutException;
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) throws InterruptedException, TimeoutException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw (TimeoutException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -5,9 +5,14 @@ import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattService;
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.ParcelUuid;
 import android.text.TextUtils;
 import com.android.chileaf.fitness.FitnessManager;
+import com.android.chileaf.fitness.NotificationDispatcher;
+import com.android.chileaf.fitness.bus.CallbackBus;
+import com.android.chileaf.fitness.callback.AccelerometerBatchCallback;
 import com.android.chileaf.fitness.callback.AccelerometerCallback;
 import com.android.chileaf.fitness.callback.BloodOxygenCallback;
 import com.android.chileaf.fitness.callback.BluetoothStatusCallback;
@@ -18,19 +23,25 @@ import com.android.chileaf.fitness.callback.CustomDataReceivedCallback;
 import com.android.chileaf.fitness.callback.HeartRateAlarmCallback;
 import com.android.chileaf.fitness.callback.HeartRateMaxCallback;
 import com.android.chileaf.fitness.callback.HeartRateStatusCallback;
+import com.android.chileaf.fitness.callback.HistoryOf3DBatchCallback;
 import com.android.chileaf.fitness.callback.HistoryOf3DDataCallback;
 import com.android.chileaf.fitness.callback.HistoryOfHRDataCallback;
+import com.android.chileaf.fitness.callback.HistoryOfHRDataChunkCallback;
 import com.android.chileaf.fitness.callback.HistoryOfHRRecordCallback;
 import com.android.chileaf.fitness.callback.HistoryOfRRDataCallback;
+import com.android.chileaf.fitness.callback.HistoryOfRRDataChunkCallback;
 import com.android.chileaf.fitness.callback.HistoryOfRRRecordCallback;
 import com.android.chileaf.fitness.callback.HistoryOfSingleRecordCallback;
 import com.android.chileaf.fitness.callback.HistoryOfSleepCallback;
 import com.android.chileaf.fitness.callback.HistoryOfSportCallback;
 import com.android.chileaf.fitness.callback.HistoryOfStepDataCallback;
+import com.android.chileaf.fitness.callback.HistoryOfStepDataChunkCallback;
 import com.android.chileaf.fitness.callback.HistoryOfStepRecordCallback;
+import com.android.chileaf.fitness.callback.HistorySeriesCallback;
 import com.android.chileaf.fitness.callback.IntervalStepCallback;
 import com.android.chileaf.fitness.callback.Sensor3DFrequencyCallback;
 import com.android.chileaf.fitness.callback.Sensor3DStatusCallback;
+import com.android.chileaf.fitness.callback.Sensor6DBatchCallback;
 import com.android.chileaf.fitness.callback.Sensor6DFrequencyCallback;
 import com.android.chileaf.fitness.callback.Sensor6DRawDataCallback;
 import com.android.chileaf.fitness.callback.SingleTapRecordCallback;
@@ -40,24 +51,43 @@ import com.android.chileaf.fitness.callback.WearManagerCallbacks;
 import com.android.chileaf.fitness.callback.WearReceivedDataCallback;
 import com.android.chileaf.fitness.common.FilterScanCallback;
 import com.android.chileaf.fitness.common.heart.BodySensorLocationDataCallback;
+import com.android.chileaf.fitness.common.heart.HeartRateCallback;
 import com.android.chileaf.fitness.common.heart.HeartRateMeasurementCallback;
 import com.android.chileaf.fitness.common.heart.HeartRateMeasurementDataCallback;
 import com.android.chileaf.fitness.common.parser.BodySensorLocationParser;
 import com.android.chileaf.fitness.common.parser.HeartRateMeasurementParser;
+import com.android.chileaf.fitness.decoder.FrameDecoder;
+import com.android.chileaf.fitness.encoder.CommandEncoder;
+import com.android.chileaf.fitness.flow.WearPublishers;
+import com.android.chileaf.fitness.request.ResponseRouter;
+import com.android.chileaf.fitness.stream.StreamChannel;
+import com.android.chileaf.fitness.stream.StreamPolicy;
+import com.android.chileaf.model.HeartRateStatus;
 import com.android.chileaf.model.HistoryOf3D;
 import com.android.chileaf.model.HistoryOfHeartRate;
 import com.android.chileaf.model.HistoryOfRecord;
 import com.android.chileaf.model.HistoryOfRespiratoryRate;
 import com.android.chileaf.model.HistoryOfSport;
 import com.android.chileaf.model.HistoryOfStep;
+import com.android.chileaf.model.HistorySeries;
 import com.android.chileaf.model.HistorySleep;
 import com.android.chileaf.model.IntervalStep;
+import com.android.chileaf.model.Sensor3DBatch;
+import com.android.chileaf.model.Sensor6DBatch;
+import com.android.chileaf.model.UserInfo;
 import com.android.chileaf.util.DateUtil;
-import com.android.chileaf.util.HexUtil;
+import com.android.chileaf.util.LogUtil;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.concurrent.Executor;
 import no.nordicsemi.android.ble.BleManager;
 import no.nordicsemi.android.ble.callback.DataReceivedCallback;
 import no.nordicsemi.android.ble.callback.FailCallback;
@@ -71,42 +101,103 @@ import no.nordicsemi.android.support.v18.scanner.ScanSettings;
 
 /* loaded from: C:\Users\UserDemo\Downloads\New folder\CHILEAF\classes.dex */
 public class WearManager extends FitnessManager<WearManagerCallbacks> {
-    private AccelerometerCallback mAccelerometerCallback;
-    private BloodOxygenCallback mBloodOxygenCallback;
-    private BluetoothStatusCallback mBluetoothStatusCallback;
-    private BodyHealthCallback mBodyHealthCallback;
+    public static final int STREAM_HEART_RATE = 0;
+    public static final int STREAM_TEMPERATURE = 1;
+    public static final int STREAM_ACCELEROMETER = 2;
+    public static final int STREAM_SENSOR_6D = 3;
+    public static final int STREAM_HISTORY = 4;
+    private static final String[] STREAM_NAMES = {"HeartRate", "Temperature", "Accelerometer", "Sensor6D", "History"};
+    public static final long HISTORY_TIMEOUT = 60000;
+    private static final int RESPONSE_3D_FREQUENCY = ResponseRouter.key(117, 11);
+    private static final int RESPONSE_3D_STATUS = ResponseRouter.key(117, 12);
+    private static final int RESPONSE_6D_FREQUENCY = ResponseRouter.key(97);
+    private static final int RESPONSE_HEART_RATE_ALARM = ResponseRouter.key(91);
+    private static final int RESPONSE_HEART_RATE_MAX = ResponseRouter.key(117, 6);
+    private static final int RESPONSE_HEART_RATE_STATUS = ResponseRouter.key(70);
+    private static final int RESPONSE_HISTORY_OF_HR_DATA = ResponseRouter.key(34);
+    private static final int RESPONSE_HISTORY_OF_HR_RECORD = ResponseRouter.key(33);
+    private static final int RESPONSE_HISTORY_OF_RR_DATA = ResponseRouter.key(37);
+    private static final int RESPONSE_HISTORY_OF_RR_RECORD = ResponseRouter.key(36);
+    private static final int RESPONSE_HISTORY_OF_SLEEP = ResponseRouter.key(5);
+    private static final int RESPONSE_HISTORY_OF_SPORT = ResponseRouter.key(22);
+    private static final int RESPONSE_HISTORY_OF_STEP_DATA = ResponseRouter.key(145);
+    private static final int RESPONSE_HISTORY_OF_STEP_RECORD = ResponseRouter.key(144);
+    private static final int RESPONSE_INTERVAL_STEPS = ResponseRouter.key(64);
+    private static final int RESPONSE_SINGLE_TAP_RECORDS = ResponseRouter.key(66);
+    private static final int RESPONSE_USER_INFO = ResponseRouter.key(3);
+    private static final int LINK_READY = ResponseRouter.key(0);
+    private final CallbackBus<AccelerometerBatchCallback> mAccelerometerBatchCallbacks;
+    private final CallbackBus<AccelerometerCallback> mAccelerometerCallbacks;
+    private final CallbackBus<BloodOxygenCallback> mBloodOxygenCallbacks;
+    private final CallbackBus<BluetoothStatusCallback> mBluetoothStatusCallbacks;
+    private final CallbackBus<BodyHealthCallback> mBodyHealthCallbacks;
     private BluetoothGattCharacteristic mBodySensorLocationCharacteristic;
     private final BodySensorLocationDataCallback mBodySensorLocationDataCallback;
-    private BodySportCallback mBodySportCallback;
-    private BodySportHealthCallback mBodySportHealthCallback;
-    private CustomDataReceivedCallback mCustomDataReceivedCallback;
+    private final CallbackBus<BodySportCallback> mBodySportCallbacks;
+    private final CallbackBus<BodySportHealthCallback> mBodySportHealthCallbacks;
+    private final CallbackBus<CustomDataReceivedCallback> mCustomDataReceivedCallbacks;
     private String[] mFilterNames;
-    private HeartRateAlarmCallback mHeartRateAlarmCallback;
+    private final CallbackBus<HeartRateAlarmCallback> mHeartRateAlarmCallbacks;
     private BluetoothGattCharacteristic mHeartRateCharacteristic;
-    private HeartRateMaxCallback mHeartRateMaxCallback;
+    private final CallbackBus<HeartRateCallback> mHeartRateCallbacks;
+    private final CallbackBus<HeartRateMaxCallback> mHeartRateMaxCallbacks;
     private final HeartRateMeasurementDataCallback mHeartRateMeasureDataCallback;
-    private HeartRateMeasurementCallback mHeartRateMeasurementCallback;
-    private HeartRateStatusCallback mHeartRateStatusCallback;
-    private HistoryOf3DDataCallback mHistoryOf3DDataCallback;
-    private HistoryOfHRDataCallback mHistoryOfHRDataCallback;
-    private HistoryOfHRRecordCallback mHistoryOfHRRecordCallback;
-    private HistoryOfRRDataCallback mHistoryOfRRDataCallback;
-    private HistoryOfRRRecordCallback mHistoryOfRRRecordCallback;
-    private HistoryOfSingleRecordCallback mHistoryOfSingleRecordCallback;
-    private HistoryOfSleepCallback mHistoryOfSleepCallback;
-    private HistoryOfSportCallback mHistoryOfSportCallback;
-    private HistoryOfStepDataCallback mHistoryOfStepDataCallback;
-    private HistoryOfStepRecordCallback mHistoryOfStepRecordCallback;
-    private IntervalStepCallback mIntervalStepsCallback;
+    private final CallbackBus<HeartRateMeasurementCallback> mHeartRateMeasurementCallbacks;
+    private final CallbackBus<HeartRateStatusCallback> mHeartRateStatusCallbacks;
+    private final CallbackBus<HistoryOf3DBatchCallback> mHistoryOf3DBatchCallbacks;
+    private final CallbackBus<HistoryOf3DDataCallback> mHistoryOf3DDataCallbacks;
+    private final CallbackBus<HistoryOfHRDataCallback> mHistoryOfHRDataCallbacks;
+    private final CallbackBus<HistoryOfHRDataChunkCallback> mHistoryOfHRDataChunkCallbacks;
+    private final CallbackBus<HistoryOfHRRecordCallback> mHistoryOfHRRecordCallbacks;
+    private final CallbackBus<HistoryOfRRDataCallback> mHistoryOfRRDataCallbacks;
+    private final CallbackBus<HistoryOfRRDataChunkCallback> mHistoryOfRRDataChunkCallbacks;
+    private final CallbackBus<HistoryOfRRRecordCallback> mHistoryOfRRRecordCallbacks;
+    private final CallbackBus<HistoryOfSingleRecordCallback> mHistoryOfSingleRecordCallbacks;
+    private final CallbackBus<HistoryOfSleepCallback> mHistoryOfSleepCallbacks;
+    private final CallbackBus<HistoryOfSportCallback> mHistoryOfSportCallbacks;
+    private final CallbackBus<HistoryOfStepDataCallback> mHistoryOfStepDataCallbacks;
+    private final CallbackBus<HistoryOfStepDataChunkCallback> mHistoryOfStepDataChunkCallbacks;
+    private final CallbackBus<HistoryOfStepRecordCallback> mHistoryOfStepRecordCallbacks;
+    private final CallbackBus<HistorySeriesCallback> mHistorySeriesCallbacks;
+    private final CallbackBus<IntervalStepCallback> mIntervalStepsCallbacks;
     private final WearReceivedDataCallback mReceivedDataCallback;
     private WearScanCallback mScanCallback;
-    private Sensor3DFrequencyCallback mSensor3DFrequencyCallback;
-    private Sensor3DStatusCallback mSensor3DStatusCallback;
-    private Sensor6DFrequencyCallback mSensor6DFrequencyCallback;
-    private Sensor6DRawDataCallback mSensor6DRawDataCallback;
-    private SingleTapRecordCallback mSingleTapRecordCallback;
-    private TemperatureCallback mTemperatureCallback;
-    private UserInfoCallback mUserInfoCallback;
+    private final CallbackBus<Sensor3DFrequencyCallback> mSensor3DFrequencyCallbacks;
+    private final CallbackBus<Sensor3DStatusCallback> mSensor3DStatusCallbacks;
+    private final CallbackBus<Sensor6DBatchCallback> mSensor6DBatchCallbacks;
+    private final CallbackBus<Sensor6DFrequencyCallback> mSensor6DFrequencyCallbacks;
+    private final CallbackBus<Sensor6DRawDataCallback> mSensor6DRawDataCallbacks;
+    private final StreamChannel[] mStreamChannels;
+    private final WearPublishers mPublishers;
+    private final ResponseRouter mResponses;
+    private final ResponseRouter mReadyWaiters;
+    private final Map<Class<?>, CallbackBus<?>> mCallbackBuses;
+    private final CallbackBus<SingleTapRecordCallback> mSingleTapRecordCallbacks;
+    private final CallbackBus<TemperatureCallback> mTemperatureCallbacks;
+    private final CallbackBus<UserInfoCallback> mUserInfoCallbacks;
+    private static final byte[] CMD_3D_DISABLED = CommandEncoder.compile(116, 0, 12, 0);
+    private static final byte[] CMD_3D_ENABLED = CommandEncoder.compile(116, 0, 12, 1);
+    private static final byte[] CMD_3D_FREQUENCY = CommandEncoder.compile(117, 0, 11);
+    private static final byte[] CMD_3D_STATUS = CommandEncoder.compile(117, 0, 12);
+    private static final byte[] CMD_6D_FREQUENCY = CommandEncoder.compile(97, 0);
+    private static final byte[] CMD_BLUETOOTH_DISABLED = CommandEncoder.compile(63, 2);
+    private static final byte[] CMD_DFU_MODE = CommandEncoder.compile(39);
+    private static final byte[] CMD_HEART_RATE_ALARM = CommandEncoder.compile(91, 0);
+    private static final byte[] CMD_HEART_RATE_ALARM_OFF = CommandEncoder.compile(87, 0);
+    private static final byte[] CMD_HEART_RATE_ALARM_ON = CommandEncoder.compile(87, 1);
+    private static final byte[] CMD_HEART_RATE_MAX = CommandEncoder.compile(117, 0, 6);
+    private static final byte[] CMD_HEART_RATE_STATUS = CommandEncoder.compile(70, 0);
+    private static final byte[] CMD_HISTORY_OF_3D = CommandEncoder.compile(119, 0);
+    private static final byte[] CMD_HISTORY_OF_HR_RECORD = CommandEncoder.compile(33, 0);
+    private static final byte[] CMD_HISTORY_OF_RR_RECORD = CommandEncoder.compile(36);
+    private static final byte[] CMD_HISTORY_OF_SLEEP = CommandEncoder.compile(5, 2);
+    private static final byte[] CMD_HISTORY_OF_SPORT = CommandEncoder.compile(22, 0);
+    private static final byte[] CMD_HISTORY_OF_STEP_RECORD = CommandEncoder.compile(144);
+    private static final byte[] CMD_INTERVAL_STEPS = CommandEncoder.compile(64, 0);
+    private static final byte[] CMD_RESTORATION = CommandEncoder.compile(243, 0);
+    private static final byte[] CMD_SHUTDOWN = CommandEncoder.compile(241, 0);
+    private static final byte[] CMD_SINGLE_TAP_RECORDS = CommandEncoder.compile(66, 0);
+    private static final byte[] CMD_USER_INFO = CommandEncoder.compile(3, 0);
     private static final UUID HR_SERVICE_UUID = UUID.fromString("0000180D-0000-1000-8000-00805f9b34fb");
     private static final UUID BODY_SENSOR_LOCATION_CHARACTERISTIC_UUID = UUID.fromString("00002A38-0000-1000-8000-00805f9b34fb");
     private static final UUID HEART_RATE_MEASUREMENT_CHARACTERISTIC_UUID = UUID.fromString("00002A37-0000-1000-8000-00805f9b34fb");
@@ -120,9 +211,65 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
         return managerInstance;
     }
 
+    public static synchronized WearManager getInstance(final Context context, final NotificationDispatcher dispatcher) {
+        if (managerInstance == null) {
+            managerInstance = new WearManager(context, dispatcher);
+        }
+        return managerInstance;
+    }
+
     public WearManager(final Context context) {
-        super(context);
+        this(context, null);
+    }
+
+    public WearManager(final Context context, final NotificationDispatcher dispatcher) {
+        super(context, dispatcher);
         this.mFilterNames = null;
+        this.mResponses = new ResponseRouter(dispatcher != null ? dispatcher.getHandler() : new Handler(Looper.getMainLooper()));
+        this.mReadyWaiters = new ResponseRouter(dispatcher != null ? dispatcher.getHandler() : new Handler(Looper.getMainLooper()));
+        this.mCallbackBuses = new HashMap();
+        this.mAccelerometerBatchCallbacks = register(AccelerometerBatchCallback.class);
+        this.mAccelerometerCallbacks = register(AccelerometerCallback.class);
+        this.mBloodOxygenCallbacks = register(BloodOxygenCallback.class);
+        this.mBluetoothStatusCallbacks = register(BluetoothStatusCallback.class);
+        this.mBodyHealthCallbacks = register(BodyHealthCallback.class);
+        this.mBodySportCallbacks = register(BodySportCallback.class);
+        this.mBodySportHealthCallbacks = register(BodySportHealthCallback.class);
+        this.mCustomDataReceivedCallbacks = register(CustomDataReceivedCallback.class);
+        this.mHeartRateAlarmCallbacks = register(HeartRateAlarmCallback.class);
+        this.mHeartRateCallbacks = register(HeartRateCallback.class);
+        this.mHeartRateMaxCallbacks = register(HeartRateMaxCallback.class);
+        this.mHeartRateMeasurementCallbacks = register(HeartRateMeasurementCallback.class);
+        this.mHeartRateStatusCallbacks = register(HeartRateStatusCallback.class);
+        this.mHistoryOf3DBatchCallbacks = register(HistoryOf3DBatchCallback.class);
+        this.mHistoryOf3DDataCallbacks = register(HistoryOf3DDataCallback.class);
+        this.mHistoryOfHRDataCallbacks = register(HistoryOfHRDataCallback.class);
+        this.mHistoryOfHRDataChunkCallbacks = register(HistoryOfHRDataChunkCallback.class);
+        this.mHistoryOfHRRecordCallbacks = register(HistoryOfHRRecordCallback.class);
+        this.mHistoryOfRRDataCallbacks = register(HistoryOfRRDataCallback.class);
+        this.mHistoryOfRRDataChunkCallbacks = register(HistoryOfRRDataChunkCallback.class);
+        this.mHistoryOfRRRecordCallbacks = register(HistoryOfRRRecordCallback.class);
+        this.mHistoryOfSingleRecordCallbacks = register(HistoryOfSingleRecordCallback.class);
+        this.mHistoryOfSleepCallbacks = register(HistoryOfSleepCallback.class);
+        this.mHistoryOfSportCallbacks = register(HistoryOfSportCallback.class);
+        this.mHistoryOfStepDataCallbacks = register(HistoryOfStepDataCallback.class);
+        this.mHistoryOfStepDataChunkCallbacks = register(HistoryOfStepDataChunkCallback.class);
+        this.mHistoryOfStepRecordCallbacks = register(HistoryOfStepRecordCallback.class);
+        this.mHistorySeriesCallbacks = register(HistorySeriesCallback.class);
+        this.mIntervalStepsCallbacks = register(IntervalStepCallback.class);
+        this.mSensor3DFrequencyCallbacks = register(Sensor3DFrequencyCallback.class);
+        this.mSensor3DStatusCallbacks = register(Sensor3DStatusCallback.class);
+        this.mSensor6DBatchCallbacks = register(Sensor6DBatchCallback.class);
+        this.mSensor6DFrequencyCallbacks = register(Sensor6DFrequencyCallback.class);
+        this.mSensor6DRawDataCallbacks = register(Sensor6DRawDataCallback.class);
+        this.mSingleTapRecordCallbacks = register(SingleTapRecordCallback.class);
+        this.mTemperatureCallbacks = register(TemperatureCallback.class);
+        this.mUserInfoCallbacks = register(UserInfoCallback.class);
+        this.mStreamChannels = new StreamChannel[STREAM_NAMES.length];
+        for (int i = 0; i < STREAM_NAMES.length; i++) {
+            this.mStreamChannels[i] = new StreamChannel(STREAM_NAMES[i], StreamPolicy.direct());
+        }
+        this.mPublishers = new WearPublishers(this);
         this.mBodySensorLocationDataCallback = new BodySensorLocationDataCallback() { // from class: com.android.chileaf.WearManager.1
             @Override // com.android.chileaf.fitness.common.heart.BodySensorLocationCallback
             public void onBodySensorLocationReceived(final BluetoothDevice device, final int sensorLocation) {
@@ -131,214 +278,505 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
 
             @Override // com.android.chileaf.fitness.common.heart.BodySensorLocationDataCallback, no.nordicsemi.android.ble.response.ReadResponse, no.nordicsemi.android.ble.callback.DataReceivedCallback
             public void onDataReceived(final BluetoothDevice device, final Data data) {
-                WearManager.this.log(3, String.format("%s received", BodySensorLocationParser.parse(data)));
+                if (LogUtil.isDebug()) {
+                    WearManager.this.log(3, String.format("%s received", BodySensorLocationParser.parse(data)));
+                }
                 super.onDataReceived(device, data);
             }
         };
         this.mHeartRateMeasureDataCallback = new HeartRateMeasurementDataCallback() { // from class: com.android.chileaf.WearManager.2
             @Override // com.android.chileaf.fitness.common.heart.HeartRateMeasurementCallback
             public void onHeartRateMeasurementReceived(BluetoothDevice device, int heartRate, Boolean contactDetected, Integer energyExpanded, List<Integer> rrIntervals) {
-                ((WearManagerCallbacks) WearManager.this.mCallbacks).onHeartRateMeasurementReceived(device, heartRate, contactDetected, energyExpanded, rrIntervals);
-                if (WearManager.this.mHeartRateMeasurementCallback != null) {
-                    WearManager.this.mHeartRateMeasurementCallback.onHeartRateMeasurementReceived(device, heartRate, contactDetected, energyExpanded, rrIntervals);
+                Object callbacks = WearManager.this.mCallbacks;
+                if (callbacks != null && !(callbacks instanceof HeartRateCallback)) {
+                    ((WearManagerCallbacks) callbacks).onHeartRateMeasurementReceived(device, heartRate, contactDetected, energyExpanded, rrIntervals);
+                }
+                if (!WearManager.this.mHeartRateMeasurementCallbacks.isEmpty()) {
+                    WearManager.this.mHeartRateMeasurementCallbacks.post(callback -> callback.onHeartRateMeasurementReceived(device, heartRate, contactDetected, energyExpanded, rrIntervals));
                 }
             }
 
             @Override // com.android.chileaf.fitness.common.heart.HeartRateMeasurementDataCallback, no.nordicsemi.android.ble.response.ReadResponse, no.nordicsemi.android.ble.callback.DataReceivedCallback
             public void onDataReceived(final BluetoothDevice device, final Data data) {
-                WearManager.this.log(3, HeartRateMeasurementParser.parse(data) + " received");
+                if (LogUtil.isDebug()) {
+                    WearManager.this.log(3, HeartRateMeasurementParser.parse(data) + " received");
+                }
                 super.onDataReceived(device, data);
             }
+
+            @Override // com.android.chileaf.fitness.common.heart.HeartRateCallback
+            public void onHeartRate(BluetoothDevice device, int bpm, int contactState, int energy, int[] rr, int rrCount) {
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_HEART_RATE];
+                if (channel.isDirect()) {
+                    deliverHeartRate(device, bpm, contactState, energy, rr, rrCount);
+                } else {
+                    int[] rr2 = rr != null ? Arrays.copyOf(rr, rrCount) : null;
+                    channel.dispatch(() -> deliverHeartRate(device, bpm, contactState, energy, rr2, rrCount));
+                }
+            }
+
+            private void deliverHeartRate(BluetoothDevice device, int bpm, int contactState, int energy, int[] rr, int rrCount) {
+                if (!WearManager.this.mHeartRateCallbacks.isEmpty()) {
+                    int[] rr2 = WearManager.snapshot(WearManager.this.mHeartRateCallbacks, rr, rrCount);
+                    WearManager.this.mHeartRateCallbacks.post(callback -> callback.onHeartRate(device, bpm, contactState, energy, rr2, rrCount));
+                }
+                Object callbacks = WearManager.this.mCallbacks;
+                boolean primitive = callbacks instanceof HeartRateCallback;
+                if (primitive) {
+                    ((HeartRateCallback) callbacks).onHeartRate(device, bpm, contactState, energy, rr, rrCount);
+                }
+                if ((callbacks != null && !primitive) || !WearManager.this.mHeartRateMeasurementCallbacks.isEmpty()) {
+                    super.onHeartRate(device, bpm, contactState, energy, rr, rrCount);
+                }
+            }
         };
         this.mReceivedDataCallback = new WearReceivedDataCallback() { // from class: com.android.chileaf.WearManager.3
+            @Override // com.android.chileaf.fitness.callback.WearReceivedDataCallback
+            protected void onHistoryProgress(int type, List<?> items) {
+                WearManager.this.appendHistory(type, items);
+            }
+
+            @Override // com.android.chileaf.fitness.callback.WearReceivedDataCallback, no.nordicsemi.android.ble.response.ReadResponse, no.nordicsemi.android.ble.callback.DataReceivedCallback
+            public void onDataReceived(final BluetoothDevice device, final Data data) {
+                byte[] value = data.getValue();
+                if (value != null && value.length >= 3) {
+                    WearManager.this.mResponses.touch(ResponseRouter.key(value[2] & 255));
+                }
+                super.onDataReceived(device, data);
+            }
+
             @Override // com.android.chileaf.fitness.callback.BodySportCallback
             public void onSportReceived(BluetoothDevice device, int step, int distance, int calorie) {
                 ((WearManagerCallbacks) WearManager.this.mCallbacks).onSportReceived(device, step, distance, calorie);
-                if (WearManager.this.mBodySportCallback != null) {
-                    WearManager.this.mBodySportCallback.onSportReceived(device, step, distance, calorie);
+                if (!WearManager.this.mBodySportCallbacks.isEmpty()) {
+                    WearManager.this.mBodySportCallbacks.post(callback -> callback.onSportReceived(device, step, distance, calorie));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.BodyHealthCallback
             public void onHealthReceived(BluetoothDevice device, int vo2Max, int breathRate, int emotionLevel, int stressPercent, int stamina, float tp, float lf, float hf) {
-                if (WearManager.this.mBodyHealthCallback != null) {
-                    WearManager.this.mBodyHealthCallback.onHealthReceived(device, vo2Max, breathRate, emotionLevel, stressPercent, stamina, tp, lf, hf);
+                if (!WearManager.this.mBodyHealthCallbacks.isEmpty()) {
+                    WearManager.this.mBodyHealthCallbacks.post(callback -> callback.onHealthReceived(device, vo2Max, breathRate, emotionLevel, stressPercent, stamina, tp, lf, hf));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOfStepRecordCallback
             public void onHistoryOfStepRecordReceived(BluetoothDevice device, List<HistoryOfRecord> records) {
-                if (WearManager.this.mHistoryOfStepRecordCallback != null) {
-                    WearManager.this.mHistoryOfStepRecordCallback.onHistoryOfStepRecordReceived(device, records);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_STEP_RECORD, records, true);
+                WearManager.this.endBulkTransfer();
+                if (!WearManager.this.mHistoryOfStepRecordCallbacks.isEmpty()) {
+                    List<HistoryOfRecord> records2 = WearManager.snapshot(WearManager.this.mHistoryOfStepRecordCallbacks, records);
+                    WearManager.this.mHistoryOfStepRecordCallbacks.post(callback -> callback.onHistoryOfStepRecordReceived(device, records2));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOfStepDataCallback
             public void onHistoryOfStepDataReceived(BluetoothDevice device, List<HistoryOfStep> steps) {
-                if (WearManager.this.mHistoryOfStepDataCallback != null) {
-                    WearManager.this.mHistoryOfStepDataCallback.onHistoryOfStepDataReceived(device, steps);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_STEP_DATA, isChunked(TYPE_STEPS) ? Collections.emptyList() : steps, true);
+                WearManager.this.endBulkTransfer();
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_HISTORY];
+                if (channel.isDirect()) {
+                    deliverHistoryOfStepData(device, steps);
+                } else {
+                    List<HistoryOfStep> steps2 = new ArrayList<>(steps);
+                    channel.dispatch(() -> deliverHistoryOfStepData(device, steps2));
+                }
+            }
+
+            private void deliverHistoryOfStepData(BluetoothDevice device, List<HistoryOfStep> steps) {
+                if (!WearManager.this.mHistoryOfStepDataCallbacks.isEmpty()) {
+                    List<HistoryOfStep> steps2 = WearManager.snapshot(WearManager.this.mHistoryOfStepDataCallbacks, steps);
+                    WearManager.this.mHistoryOfStepDataCallbacks.post(callback -> callback.onHistoryOfStepDataReceived(device, steps2));
+                }
+            }
+
+            @Override // com.android.chileaf.fitness.callback.HistoryOfStepDataChunkCallback
+            public void onHistoryOfStepDataChunkReceived(BluetoothDevice device, List<HistoryOfStep> steps, boolean last) {
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_STEP_DATA, steps, last);
+                if (last) {
+                    WearManager.this.endBulkTransfer();
+                }
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_HISTORY];
+                if (channel.isDirect()) {
+                    deliverHistoryOfStepDataChunk(device, steps, last);
+                } else {
+                    List<HistoryOfStep> steps2 = new ArrayList<>(steps);
+                    channel.dispatch(() -> deliverHistoryOfStepDataChunk(device, steps2, last));
+                }
+            }
+
+            private void deliverHistoryOfStepDataChunk(BluetoothDevice device, List<HistoryOfStep> steps, boolean last) {
+                if (!WearManager.this.mHistoryOfStepDataChunkCallbacks.isEmpty()) {
+                    List<HistoryOfStep> steps2 = WearManager.snapshot(WearManager.this.mHistoryOfStepDataChunkCallbacks, steps);
+                    WearManager.this.mHistoryOfStepDataChunkCallbacks.post(callback -> callback.onHistoryOfStepDataChunkReceived(device, steps2, last));
+                }
+            }
+
+            @Override // com.android.chileaf.fitness.callback.HistorySeriesCallback
+            public void onHistorySeriesReceived(BluetoothDevice device, HistorySeries series, boolean last) {
+                WearManager.this.completeSeries(series, last);
+                if (last) {
+                    WearManager.this.endBulkTransfer();
+                }
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_HISTORY];
+                if (channel.isDirect()) {
+                    deliverHistorySeries(device, series, last);
+                } else {
+                    HistorySeries series2 = series.copy();
+                    channel.dispatch(() -> deliverHistorySeries(device, series2, last));
+                }
+            }
+
+            private void deliverHistorySeries(BluetoothDevice device, HistorySeries series, boolean last) {
+                if (!WearManager.this.mHistorySeriesCallbacks.isEmpty()) {
+                    HistorySeries series2 = WearManager.snapshot(WearManager.this.mHistorySeriesCallbacks, series);
+                    WearManager.this.mHistorySeriesCallbacks.post(callback -> callback.onHistorySeriesReceived(device, series2, last));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.BodySportHealthCallback
             public void onSportHealthReceived(BluetoothDevice device, int vo2Max, int breathRate, int emotion, int pressure, int stamina) {
-                if (WearManager.this.mBodySportHealthCallback != null) {
-                    WearManager.this.mBodySportHealthCallback.onSportHealthReceived(device, vo2Max, breathRate, emotion, pressure, stamina);
+                if (!WearManager.this.mBodySportHealthCallbacks.isEmpty()) {
+                    WearManager.this.mBodySportHealthCallbacks.post(callback -> callback.onSportHealthReceived(device, vo2Max, breathRate, emotion, pressure, stamina));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.BluetoothStatusCallback
             public void onBluetoothStatusReceived(BluetoothDevice device, boolean enabled) {
                 ((WearManagerCallbacks) WearManager.this.mCallbacks).onBluetoothStatusReceived(device, enabled);
-                if (WearManager.this.mBluetoothStatusCallback != null) {
-                    WearManager.this.mBluetoothStatusCallback.onBluetoothStatusReceived(device, enabled);
+                if (!WearManager.this.mBluetoothStatusCallbacks.isEmpty()) {
+                    WearManager.this.mBluetoothStatusCallbacks.post(callback -> callback.onBluetoothStatusReceived(device, enabled));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.UserInfoCallback
             public void onUserInfoReceived(BluetoothDevice device, int age, int sex, int weight, int height, long userId) {
-                if (WearManager.this.mUserInfoCallback != null) {
-                    WearManager.this.mUserInfoCallback.onUserInfoReceived(device, age, sex, weight, height, userId);
+                if (WearManager.this.mResponses.isPending(WearManager.RESPONSE_USER_INFO)) {
+                    WearManager.this.mResponses.complete(WearManager.RESPONSE_USER_INFO, new UserInfo(age, sex, weight, height, userId));
+                }
+                if (!WearManager.this.mUserInfoCallbacks.isEmpty()) {
+                    WearManager.this.mUserInfoCallbacks.post(callback -> callback.onUserInfoReceived(device, age, sex, weight, height, userId));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOfSportCallback
             public void onHistoryOfSportReceived(BluetoothDevice device, List<HistoryOfSport> sports) {
-                if (WearManager.this.mHistoryOfSportCallback != null) {
-                    WearManager.this.mHistoryOfSportCallback.onHistoryOfSportReceived(device, sports);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_SPORT, sports, true);
+                WearManager.this.endBulkTransfer();
+                if (!WearManager.this.mHistoryOfSportCallbacks.isEmpty()) {
+                    List<HistoryOfSport> sports2 = WearManager.snapshot(WearManager.this.mHistoryOfSportCallbacks, sports);
+                    WearManager.this.mHistoryOfSportCallbacks.post(callback -> callback.onHistoryOfSportReceived(device, sports2));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOfHRRecordCallback
             public void onHistoryOfHRRecordReceived(BluetoothDevice device, List<HistoryOfRecord> records) {
-                if (WearManager.this.mHistoryOfHRRecordCallback != null) {
-                    WearManager.this.mHistoryOfHRRecordCallback.onHistoryOfHRRecordReceived(device, records);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_HR_RECORD, records, true);
+                WearManager.this.endBulkTransfer();
+                if (!WearManager.this.mHistoryOfHRRecordCallbacks.isEmpty()) {
+                    List<HistoryOfRecord> records2 = WearManager.snapshot(WearManager.this.mHistoryOfHRRecordCallbacks, records);
+                    WearManager.this.mHistoryOfHRRecordCallbacks.post(callback -> callback.onHistoryOfHRRecordReceived(device, records2));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOfHRDataCallback
             public void onHistoryOfHRDataReceived(BluetoothDevice device, List<HistoryOfHeartRate> heartRates) {
-                if (WearManager.this.mHistoryOfHRDataCallback != null) {
-                    WearManager.this.mHistoryOfHRDataCallback.onHistoryOfHRDataReceived(device, heartRates);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_HR_DATA, isChunked(TYPE_HEARTS) ? Collections.emptyList() : heartRates, true);
+                WearManager.this.endBulkTransfer();
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_HISTORY];
+                if (channel.isDirect()) {
+                    deliverHistoryOfHRData(device, heartRates);
+                } else {
+                    List<HistoryOfHeartRate> heartRates2 = new ArrayList<>(heartRates);
+                    channel.dispatch(() -> deliverHistoryOfHRData(device, heartRates2));
+                }
+            }
+
+            private void deliverHistoryOfHRData(BluetoothDevice device, List<HistoryOfHeartRate> heartRates) {
+                if (!WearManager.this.mHistoryOfHRDataCallbacks.isEmpty()) {
+                    List<HistoryOfHeartRate> heartRates2 = WearManager.snapshot(WearManager.this.mHistoryOfHRDataCallbacks, heartRates);
+                    WearManager.this.mHistoryOfHRDataCallbacks.post(callback -> callback.onHistoryOfHRDataReceived(device, heartRates2));
+                }
+            }
+
+            @Override // com.android.chileaf.fitness.callback.HistoryOfHRDataChunkCallback
+            public void onHistoryOfHRDataChunkReceived(BluetoothDevice device, List<HistoryOfHeartRate> heartRates, boolean last) {
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_HR_DATA, heartRates, last);
+                if (last) {
+                    WearManager.this.endBulkTransfer();
+                }
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_HISTORY];
+                if (channel.isDirect()) {
+                    deliverHistoryOfHRDataChunk(device, heartRates, last);
+                } else {
+                    List<HistoryOfHeartRate> heartRates2 = new ArrayList<>(heartRates);
+                    channel.dispatch(() -> deliverHistoryOfHRDataChunk(device, heartRates2, last));
+                }
+            }
+
+            private void deliverHistoryOfHRDataChunk(BluetoothDevice device, List<HistoryOfHeartRate> heartRates, boolean last) {
+                if (!WearManager.this.mHistoryOfHRDataChunkCallbacks.isEmpty()) {
+                    List<HistoryOfHeartRate> heartRates2 = WearManager.snapshot(WearManager.this.mHistoryOfHRDataChunkCallbacks, heartRates);
+                    WearManager.this.mHistoryOfHRDataChunkCallbacks.post(callback -> callback.onHistoryOfHRDataChunkReceived(device, heartRates2, last));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOfRRRecordCallback
             public void onHistoryOfRRRecordReceived(BluetoothDevice device, List<HistoryOfRecord> records) {
-                if (WearManager.this.mHistoryOfRRRecordCallback != null) {
-                    WearManager.this.mHistoryOfRRRecordCallback.onHistoryOfRRRecordReceived(device, records);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_RR_RECORD, records, true);
+                WearManager.this.endBulkTransfer();
+                if (!WearManager.this.mHistoryOfRRRecordCallbacks.isEmpty()) {
+                    List<HistoryOfRecord> records2 = WearManager.snapshot(WearManager.this.mHistoryOfRRRecordCallbacks, records);
+                    WearManager.this.mHistoryOfRRRecordCallbacks.post(callback -> callback.onHistoryOfRRRecordReceived(device, records2));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOfRRDataCallback
             public void onHistoryOfRRDataReceived(BluetoothDevice device, List<HistoryOfRespiratoryRate> respiratoryRates) {
-                if (WearManager.this.mHistoryOfRRDataCallback != null) {
-                    WearManager.this.mHistoryOfRRDataCallback.onHistoryOfRRDataReceived(device, respiratoryRates);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_RR_DATA, isChunked(TYPE_HEART_RRS) ? Collections.emptyList() : respiratoryRates, true);
+                WearManager.this.endBulkTransfer();
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_HISTORY];
+                if (channel.isDirect()) {
+                    deliverHistoryOfRRData(device, respiratoryRates);
+                } else {
+                    List<HistoryOfRespiratoryRate> respiratoryRates2 = new ArrayList<>(respiratoryRates);
+                    channel.dispatch(() -> deliverHistoryOfRRData(device, respiratoryRates2));
+                }
+            }
+
+            private void deliverHistoryOfRRData(BluetoothDevice device, List<HistoryOfRespiratoryRate> respiratoryRates) {
+                if (!WearManager.this.mHistoryOfRRDataCallbacks.isEmpty()) {
+                    List<HistoryOfRespiratoryRate> respiratoryRates2 = WearManager.snapshot(WearManager.this.mHistoryOfRRDataCallbacks, respiratoryRates);
+                    WearManager.this.mHistoryOfRRDataCallbacks.post(callback -> callback.onHistoryOfRRDataReceived(device, respiratoryRates2));
+                }
+            }
+
+            @Override // com.android.chileaf.fitness.callback.HistoryOfRRDataChunkCallback
+            public void onHistoryOfRRDataChunkReceived(BluetoothDevice device, List<HistoryOfRespiratoryRate> respiratoryRates, boolean last) {
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_RR_DATA, respiratoryRates, last);
+                if (last) {
+                    WearManager.this.endBulkTransfer();
+                }
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_HISTORY];
+                if (channel.isDirect()) {
+                    deliverHistoryOfRRDataChunk(device, respiratoryRates, last);
+                } else {
+                    List<HistoryOfRespiratoryRate> respiratoryRates2 = new ArrayList<>(respiratoryRates);
+                    channel.dispatch(() -> deliverHistoryOfRRDataChunk(device, respiratoryRates2, last));
+                }
+            }
+
+            private void deliverHistoryOfRRDataChunk(BluetoothDevice device, List<HistoryOfRespiratoryRate> respiratoryRates, boolean last) {
+                if (!WearManager.this.mHistoryOfRRDataChunkCallbacks.isEmpty()) {
+                    List<HistoryOfRespiratoryRate> respiratoryRates2 = WearManager.snapshot(WearManager.this.mHistoryOfRRDataChunkCallbacks, respiratoryRates);
+                    WearManager.this.mHistoryOfRRDataChunkCallbacks.post(callback -> callback.onHistoryOfRRDataChunkReceived(device, respiratoryRates2, last));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.IntervalStepCallback
             public void onIntervalStepReceived(BluetoothDevice device, List<IntervalStep> steps) {
-                if (WearManager.this.mIntervalStepsCallback != null) {
-                    WearManager.this.mIntervalStepsCallback.onIntervalStepReceived(device, steps);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_INTERVAL_STEPS, steps, true);
+                WearManager.this.endBulkTransfer();
+                if (!WearManager.this.mIntervalStepsCallbacks.isEmpty()) {
+                    List<IntervalStep> steps2 = WearManager.snapshot(WearManager.this.mIntervalStepsCallbacks, steps);
+                    WearManager.this.mIntervalStepsCallbacks.post(callback -> callback.onIntervalStepReceived(device, steps2));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.SingleTapRecordCallback
             public void onSingleTapRecordReceived(BluetoothDevice device, List<HistoryOfRecord> records) {
-                if (WearManager.this.mSingleTapRecordCallback != null) {
-                    WearManager.this.mSingleTapRecordCallback.onSingleTapRecordReceived(device, records);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_SINGLE_TAP_RECORDS, records, true);
+                WearManager.this.endBulkTransfer();
+                if (!WearManager.this.mSingleTapRecordCallbacks.isEmpty()) {
+                    List<HistoryOfRecord> records2 = WearManager.snapshot(WearManager.this.mSingleTapRecordCallbacks, records);
+                    WearManager.this.mSingleTapRecordCallbacks.post(callback -> callback.onSingleTapRecordReceived(device, records2));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HeartRateStatusCallback
             public void onHeartRateStatusReceived(BluetoothDevice device, int min, int max, int goal) {
-                if (WearManager.this.mHeartRateStatusCallback != null) {
-                    WearManager.this.mHeartRateStatusCallback.onHeartRateStatusReceived(device, min, max, goal);
+                if (WearManager.this.mResponses.isPending(WearManager.RESPONSE_HEART_RATE_STATUS)) {
+                    WearManager.this.mResponses.complete(WearManager.RESPONSE_HEART_RATE_STATUS, new HeartRateStatus(min, max, goal));
+                }
+                if (!WearManager.this.mHeartRateStatusCallbacks.isEmpty()) {
+                    WearManager.this.mHeartRateStatusCallbacks.post(callback -> callback.onHeartRateStatusReceived(device, min, max, goal));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOf3DDataCallback
             public void onHistoryOf3DDataReceived(BluetoothDevice device, HistoryOf3D history, boolean finish) {
-                if (WearManager.this.mHistoryOf3DDataCallback != null) {
-                    WearManager.this.mHistoryOf3DDataCallback.onHistoryOf3DDataReceived(device, history, finish);
+                if (!WearManager.this.mHistoryOf3DDataCallbacks.isEmpty()) {
+                    WearManager.this.mHistoryOf3DDataCallbacks.post(callback -> callback.onHistoryOf3DDataReceived(device, history, finish));
+                }
+            }
+
+            @Override // com.android.chileaf.fitness.callback.HistoryOf3DBatchCallback
+            public void onHistoryOf3DBatchReceived(BluetoothDevice device, Sensor3DBatch batch, boolean finish) {
+                if (finish) {
+                    WearManager.this.endBulkTransfer();
+                }
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_HISTORY];
+                if (channel.isDirect()) {
+                    deliverHistoryOf3DBatch(device, batch, finish);
+                } else {
+                    Sensor3DBatch batch2 = batch.copy();
+                    channel.dispatch(() -> deliverHistoryOf3DBatch(device, batch2, finish));
+                }
+            }
+
+            private void deliverHistoryOf3DBatch(BluetoothDevice device, Sensor3DBatch batch, boolean finish) {
+                if (!WearManager.this.mHistoryOf3DBatchCallbacks.isEmpty()) {
+                    Sensor3DBatch batch2 = WearManager.snapshot(WearManager.this.mHistoryOf3DBatchCallbacks, batch);
+                    WearManager.this.mHistoryOf3DBatchCallbacks.post(callback -> callback.onHistoryOf3DBatchReceived(device, batch2, finish));
+                }
+                if (!WearManager.this.mHistoryOf3DDataCallbacks.isEmpty()) {
+                    super.onHistoryOf3DBatchReceived(device, batch, finish);
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.BloodOxygenCallback
             public void onBloodOxygenReceived(BluetoothDevice device, int bSwitch, String value, int gesture, int piValue, int onwrist) {
-                if (WearManager.this.mBloodOxygenCallback != null) {
-                    WearManager.this.mBloodOxygenCallback.onBloodOxygenReceived(device, bSwitch, value, gesture, piValue, onwrist);
+                if (!WearManager.this.mBloodOxygenCallbacks.isEmpty()) {
+                    WearManager.this.mBloodOxygenCallbacks.post(callback -> callback.onBloodOxygenReceived(device, bSwitch, value, gesture, piValue, onwrist));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.TemperatureCallback
             public void onTemperatureReceived(BluetoothDevice device, float environment, float wrist, float body) {
-                if (WearManager.this.mTemperatureCallback != null) {
-                    WearManager.this.mTemperatureCallback.onTemperatureReceived(device, environment, wrist, body);
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_TEMPERATURE];
+                if (channel.isDirect()) {
+                    deliverTemperature(device, environment, wrist, body);
+                } else {
+                    channel.dispatch(() -> deliverTemperature(device, environment, wrist, body));
+                }
+            }
+
+            private void deliverTemperature(BluetoothDevice device, float environment, float wrist, float body) {
+                if (!WearManager.this.mTemperatureCallbacks.isEmpty()) {
+                    WearManager.this.mTemperatureCallbacks.post(callback -> callback.onTemperatureReceived(device, environment, wrist, body));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOfSingleRecordCallback
             public void onHistorySingleRecordReceived(BluetoothDevice device, long stamp, long step, long distance, long calorie) {
-                if (WearManager.this.mHistoryOfSingleRecordCallback != null) {
-                    WearManager.this.mHistoryOfSingleRecordCallback.onHistorySingleRecordReceived(device, stamp, step, distance, calorie);
+                if (!WearManager.this.mHistoryOfSingleRecordCallbacks.isEmpty()) {
+                    WearManager.this.mHistoryOfSingleRecordCallbacks.post(callback -> callback.onHistorySingleRecordReceived(device, stamp, step, distance, calorie));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HeartRateAlarmCallback
             public void onHeartRateAlarmReceived(BluetoothDevice device, long stamp, boolean enabled) {
-                if (WearManager.this.mHeartRateAlarmCallback != null) {
-                    WearManager.this.mHeartRateAlarmCallback.onHeartRateAlarmReceived(device, stamp, enabled);
+                if (WearManager.this.mResponses.isPending(WearManager.RESPONSE_HEART_RATE_ALARM)) {
+                    WearManager.this.mResponses.complete(WearManager.RESPONSE_HEART_RATE_ALARM, Boolean.valueOf(enabled));
+                }
+                if (!WearManager.this.mHeartRateAlarmCallbacks.isEmpty()) {
+                    WearManager.this.mHeartRateAlarmCallbacks.post(callback -> callback.onHeartRateAlarmReceived(device, stamp, enabled));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.AccelerometerCallback
             public void onAccelerometerReceived(BluetoothDevice device, int x, int y, int z) {
-                if (WearManager.this.mAccelerometerCallback != null) {
-                    WearManager.this.mAccelerometerCallback.onAccelerometerReceived(device, x, y, z);
+                if (!WearManager.this.mAccelerometerCallbacks.isEmpty()) {
+                    WearManager.this.mAccelerometerCallbacks.post(callback -> callback.onAccelerometerReceived(device, x, y, z));
+                }
+            }
+
+            @Override // com.android.chileaf.fitness.callback.AccelerometerBatchCallback
+            public void onAccelerometerBatchReceived(BluetoothDevice device, Sensor3DBatch batch) {
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_ACCELEROMETER];
+                if (channel.isDirect()) {
+                    deliverAccelerometerBatch(device, batch);
+                } else {
+                    Sensor3DBatch batch2 = batch.copy();
+                    channel.dispatch(() -> deliverAccelerometerBatch(device, batch2));
+                }
+            }
+
+            private void deliverAccelerometerBatch(BluetoothDevice device, Sensor3DBatch batch) {
+                if (!WearManager.this.mAccelerometerBatchCallbacks.isEmpty()) {
+                    Sensor3DBatch batch2 = WearManager.snapshot(WearManager.this.mAccelerometerBatchCallbacks, batch);
+                    WearManager.this.mAccelerometerBatchCallbacks.post(callback -> callback.onAccelerometerBatchReceived(device, batch2));
+                }
+                if (!WearManager.this.mAccelerometerCallbacks.isEmpty()) {
+                    super.onAccelerometerBatchReceived(device, batch);
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HeartRateMaxCallback
             public void onHeartRateMaxReceived(BluetoothDevice device, int max) {
-                if (WearManager.this.mHeartRateMaxCallback != null) {
-                    WearManager.this.mHeartRateMaxCallback.onHeartRateMaxReceived(device, max);
+                if (WearManager.this.mResponses.isPending(WearManager.RESPONSE_HEART_RATE_MAX)) {
+                    WearManager.this.mResponses.complete(WearManager.RESPONSE_HEART_RATE_MAX, Integer.valueOf(max));
+                }
+                if (!WearManager.this.mHeartRateMaxCallbacks.isEmpty()) {
+                    WearManager.this.mHeartRateMaxCallbacks.post(callback -> callback.onHeartRateMaxReceived(device, max));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.HistoryOfSleepCallback
             public void onHistoryOfSleepReceived(BluetoothDevice device, List<HistorySleep> sleeps) {
-                if (WearManager.this.mHistoryOfSleepCallback != null) {
-                    WearManager.this.mHistoryOfSleepCallback.onHistoryOfSleepReceived(device, sleeps);
+                WearManager.this.mResponses.append(WearManager.RESPONSE_HISTORY_OF_SLEEP, sleeps, true);
+                WearManager.this.endBulkTransfer();
+                if (!WearManager.this.mHistoryOfSleepCallbacks.isEmpty()) {
+                    List<HistorySleep> sleeps2 = WearManager.snapshot(WearManager.this.mHistoryOfSleepCallbacks, sleeps);
+                    WearManager.this.mHistoryOfSleepCallbacks.post(callback -> callback.onHistoryOfSleepReceived(device, sleeps2));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.Sensor3DFrequencyCallback
             public void onSensor3DFrequencyReceived(BluetoothDevice device, int frequency) {
-                if (WearManager.this.mSensor3DFrequencyCallback != null) {
-                    WearManager.this.mSensor3DFrequencyCallback.onSensor3DFrequencyReceived(device, frequency);
+                if (WearManager.this.mResponses.isPending(WearManager.RESPONSE_3D_FREQUENCY)) {
+                    WearManager.this.mResponses.complete(WearManager.RESPONSE_3D_FREQUENCY, Integer.valueOf(frequency));
+                }
+                if (!WearManager.this.mSensor3DFrequencyCallbacks.isEmpty()) {
+                    WearManager.this.mSensor3DFrequencyCallbacks.post(callback -> callback.onSensor3DFrequencyReceived(device, frequency));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.Sensor3DStatusCallback
             public void onSensor3DStatusReceived(BluetoothDevice device, boolean enabled) {
-                if (WearManager.this.mSensor3DStatusCallback != null) {
-                    WearManager.this.mSensor3DStatusCallback.onSensor3DStatusReceived(device, enabled);
+                if (WearManager.this.mResponses.isPending(WearManager.RESPONSE_3D_STATUS)) {
+                    WearManager.this.mResponses.complete(WearManager.RESPONSE_3D_STATUS, Boolean.valueOf(enabled));
+                }
+                if (!WearManager.this.mSensor3DStatusCallbacks.isEmpty()) {
+                    WearManager.this.mSensor3DStatusCallbacks.post(callback -> callback.onSensor3DStatusReceived(device, enabled));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.Sensor6DFrequencyCallback
             public void onSensor6DFrequencyReceived(BluetoothDevice device, int sensor) {
-                if (WearManager.this.mSensor6DFrequencyCallback != null) {
-                    WearManager.this.mSensor6DFrequencyCallback.onSensor6DFrequencyReceived(device, sensor);
+                if (WearManager.this.mResponses.isPending(WearManager.RESPONSE_6D_FREQUENCY)) {
+                    WearManager.this.mResponses.complete(WearManager.RESPONSE_6D_FREQUENCY, Integer.valueOf(sensor));
+                }
+                if (!WearManager.this.mSensor6DFrequencyCallbacks.isEmpty()) {
+                    WearManager.this.mSensor6DFrequencyCallbacks.post(callback -> callback.onSensor6DFrequencyReceived(device, sensor));
                 }
             }
 
             @Override // com.android.chileaf.fitness.callback.Sensor6DRawDataCallback
             public void onSensor6DRawDataReceived(BluetoothDevice device, long utc, int sequence, int gyroscopeX, int gyroscopeY, int gyroscopeZ, int accelerometerX, int accelerometerY, int accelerometerZ) {
-                if (WearManager.this.mSensor6DRawDataCallback != null) {
-                    WearManager.this.mSensor6DRawDataCallback.onSensor6DRawDataReceived(device, utc, sequence, gyroscopeX, gyroscopeY, gyroscopeZ, accelerometerX, accelerometerY, accelerometerZ);
+                if (!WearManager.this.mSensor6DRawDataCallbacks.isEmpty()) {
+                    WearManager.this.mSensor6DRawDataCallbacks.post(callback -> callback.onSensor6DRawDataReceived(device, utc, sequence, gyroscopeX, gyroscopeY, gyroscopeZ, accelerometerX, accelerometerY, accelerometerZ));
+                }
+            }
+
+            @Override // com.android.chileaf.fitness.callback.Sensor6DBatchCallback
+            public void onSensor6DBatchReceived(BluetoothDevice device, Sensor6DBatch batch) {
+                StreamChannel channel = WearManager.this.mStreamChannels[WearManager.STREAM_SENSOR_6D];
+                if (channel.isDirect()) {
+                    deliverSensor6DBatch(device, batch);
+                } else {
+                    Sensor6DBatch batch2 = batch.copy();
+                    channel.dispatch(() -> deliverSensor6DBatch(device, batch2));
+                }
+            }
+
+            private void deliverSensor6DBatch(BluetoothDevice device, Sensor6DBatch batch) {
+                if (!WearManager.this.mSensor6DBatchCallbacks.isEmpty()) {
+                    Sensor6DBatch batch2 = WearManager.snapshot(WearManager.this.mSensor6DBatchCallbacks, batch);
+                    WearManager.this.mSensor6DBatchCallbacks.post(callback -> callback.onSensor6DBatchReceived(device, batch2));
+                }
+                if (!WearManager.this.mSensor6DRawDataCallbacks.isEmpty()) {
+                    super.onSensor6DBatchReceived(device, batch);
                 }
             }
         };
@@ -439,11 +877,11 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
                 }
             }).enqueue();
             WearManager wearManager2 = WearManager.this;
-            wearManager2.setNotificationCallback(wearManager2.mHeartRateCharacteristic).with(WearManager.this.mHeartRateMeasureDataCallback);
+            wearManager2.deliver(wearManager2.setNotificationCallback(wearManager2.mHeartRateCharacteristic)).reuseData().with(WearManager.this.mHeartRateMeasureDataCallback);
             WearManager wearManager3 = WearManager.this;
             wearManager3.enableNotifications(wearManager3.mHeartRateCharacteristic).enqueue();
             WearManager wearManager4 = WearManager.this;
-            wearManager4.setNotificationCallback(wearManager4.mRXCharacteristic).with(WearManager.this.mReceivedDataCallback);
+            wearManager4.deliver(wearManager4.setNotificationCallback(wearManager4.mRXCharacteristic)).with(WearManager.this.mReceivedDataCallback);
             WearManager wearManager5 = WearManager.this;
             wearManager5.enableNotifications(wearManager5.mRXCharacteristic).done(new SuccessCallback() { // from class: com.android.chileaf.-$$Lambda$WearManager$WearManagerGattCallback$kaQ8yCm6Xyo1TD1O7aRUtcM6XdU
                 @Override // no.nordicsemi.android.ble.callback.SuccessCallback
@@ -458,7 +896,7 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
             }).enqueue();
             if (WearManager.this.mCustomRxCharacteristic != null) {
                 WearManager wearManager6 = WearManager.this;
-                wearManager6.setNotificationCallback(wearManager6.mCustomRxCharacteristic).with(new DataReceivedCallback() { // from class: com.android.chileaf.-$$Lambda$WearManager$WearManagerGattCallback$I1gw52-6JZv6T-5oT-nJ0tOeMaQ
+                wearManager6.deliver(wearManager6.setNotificationCallback(wearManager6.mCustomRxCharacteristic)).with(new DataReceivedCallback() { // from class: com.android.chileaf.-$$Lambda$WearManager$WearManagerGattCallback$I1gw52-6JZv6T-5oT-nJ0tOeMaQ
                     @Override // no.nordicsemi.android.ble.callback.DataReceivedCallback
                     public final void onDataReceived(BluetoothDevice bluetoothDevice, Data data) {
                         this.f$0.lambda$initialize$3$WearManager$WearManagerGattCallback(bluetoothDevice, data);
@@ -482,8 +920,8 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
         }
 
         public /* synthetic */ void lambda$initialize$3$WearManager$WearManagerGattCallback(BluetoothDevice device, Data data) {
-            if (WearManager.this.mCustomDataReceivedCallback != null) {
-                WearManager.this.mCustomDataReceivedCallback.onDataReceived(device, data.getValue());
+            if (!WearManager.this.mCustomDataReceivedCallbacks.isEmpty()) {
+                WearManager.this.mCustomDataReceivedCallbacks.post(callback -> callback.onDataReceived(device, data.getValue()));
             }
         }
 
@@ -507,10 +945,11 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
             return WearManager.this.mBodySensorLocationCharacteristic != null;
         }
 
-        @Override // no.nordicsemi.android.ble.BleManagerHandler
+        @Override // com.android.chileaf.fitness.FitnessManager.FitnessManagerGattCallback, no.nordicsemi.android.ble.BleManagerHandler
         protected void onDeviceReady() {
             super.onDeviceReady();
             WearManager.this.setUTCTime();
+            WearManager.this.mReadyWaiters.completeAll(WearManager.LINK_READY, null);
         }
 
         @Override // com.android.chileaf.fitness.FitnessManager.FitnessManagerGattCallback, no.nordicsemi.android.ble.BleManagerHandler
@@ -519,6 +958,8 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
             WearManager.this.mBodySensorLocationCharacteristic = null;
             WearManager.this.mHeartRateCharacteristic = null;
             WearManager.this.mReceivedDataCallback.setCL833(false);
+            WearManager.this.mReceivedDataCallback.flush(WearManager.this.getBluetoothDevice());
+            WearManager.this.mResponses.failAll(new IllegalStateException("Device disconnected"));
         }
 
         @Override // com.android.chileaf.fitness.FitnessManager.FitnessManagerGattCallback, no.nordicsemi.android.ble.BleManagerHandler
@@ -531,115 +972,254 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
     }
 
     public void addBodySportCallback(final BodySportCallback callback) {
-        this.mBodySportCallback = callback;
+        this.mBodySportCallbacks.setPrimary(callback);
     }
 
     public void addBodyHealthCallback(final BodyHealthCallback callback) {
-        this.mBodyHealthCallback = callback;
+        this.mBodyHealthCallbacks.setPrimary(callback);
     }
 
     public void addHeartRateMeasurementCallback(final HeartRateMeasurementCallback callback) {
-        this.mHeartRateMeasurementCallback = callback;
+        this.mHeartRateMeasurementCallbacks.setPrimary(callback);
+    }
+
+    public void addHeartRateCallback(final HeartRateCallback callback) {
+        this.mHeartRateCallbacks.setPrimary(callback);
     }
 
     public void setBluetoothStatusCallback(BluetoothStatusCallback callback) {
-        this.mBluetoothStatusCallback = callback;
+        this.mBluetoothStatusCallbacks.setPrimary(callback);
     }
 
     public void addUserInfoCallback(final UserInfoCallback callback) {
-        this.mUserInfoCallback = callback;
+        this.mUserInfoCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOfSportCallback(final HistoryOfSportCallback callback) {
-        this.mHistoryOfSportCallback = callback;
+        this.mHistoryOfSportCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOfHRRecordCallback(final HistoryOfHRRecordCallback callback) {
-        this.mHistoryOfHRRecordCallback = callback;
+        this.mHistoryOfHRRecordCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOfHRDataCallback(final HistoryOfHRDataCallback callback) {
-        this.mHistoryOfHRDataCallback = callback;
+        this.mHistoryOfHRDataCallbacks.setPrimary(callback);
+    }
+
+    public void addHistoryOfHRDataChunkCallback(final HistoryOfHRDataChunkCallback callback) {
+        this.mHistoryOfHRDataChunkCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOfRRRecordCallback(final HistoryOfRRRecordCallback callback) {
-        this.mHistoryOfRRRecordCallback = callback;
+        this.mHistoryOfRRRecordCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOfRRDataCallback(final HistoryOfRRDataCallback callback) {
-        this.mHistoryOfRRDataCallback = callback;
+        this.mHistoryOfRRDataCallbacks.setPrimary(callback);
+    }
+
+    public void addHistoryOfRRDataChunkCallback(final HistoryOfRRDataChunkCallback callback) {
+        this.mHistoryOfRRDataChunkCallbacks.setPrimary(callback);
     }
 
     public void addIntervalStepCallback(final IntervalStepCallback callback) {
-        this.mIntervalStepsCallback = callback;
+        this.mIntervalStepsCallbacks.setPrimary(callback);
     }
 
     public void addSingleTapRecordCallback(final SingleTapRecordCallback callback) {
-        this.mSingleTapRecordCallback = callback;
+        this.mSingleTapRecordCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOf3DDataCallback(final HistoryOf3DDataCallback callback) {
-        this.mHistoryOf3DDataCallback = callback;
+        this.mHistoryOf3DDataCallbacks.setPrimary(callback);
+    }
+
+    public void addHistoryOf3DBatchCallback(final HistoryOf3DBatchCallback callback) {
+        this.mHistoryOf3DBatchCallbacks.setPrimary(callback);
     }
 
     public void addHeartRateStatusCallback(HeartRateStatusCallback callback) {
-        this.mHeartRateStatusCallback = callback;
+        this.mHeartRateStatusCallbacks.setPrimary(callback);
     }
 
     public void addBloodOxygenCallback(final BloodOxygenCallback callback) {
-        this.mBloodOxygenCallback = callback;
+        this.mBloodOxygenCallbacks.setPrimary(callback);
     }
 
     public void addTemperatureCallback(final TemperatureCallback callback) {
-        this.mTemperatureCallback = callback;
+        this.mTemperatureCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOfSingleRecordCallback(final HistoryOfSingleRecordCallback callback) {
-        this.mHistoryOfSingleRecordCallback = callback;
+        this.mHistoryOfSingleRecordCallbacks.setPrimary(callback);
     }
 
     public void addHeartRateAlarmCallback(HeartRateAlarmCallback callback) {
-        this.mHeartRateAlarmCallback = callback;
+        this.mHeartRateAlarmCallbacks.setPrimary(callback);
     }
 
     public void addAccelerometerCallback(final AccelerometerCallback callback) {
-        this.mAccelerometerCallback = callback;
+        this.mAccelerometerCallbacks.setPrimary(callback);
+    }
+
+    public void addAccelerometerBatchCallback(final AccelerometerBatchCallback callback) {
+        this.mAccelerometerBatchCallbacks.setPrimary(callback);
     }
 
     public void addHeartRateMaxCallback(HeartRateMaxCallback callback) {
-        this.mHeartRateMaxCallback = callback;
+        this.mHeartRateMaxCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOfSleepCallback(HistoryOfSleepCallback callback) {
-        this.mHistoryOfSleepCallback = callback;
+        this.mHistoryOfSleepCallbacks.setPrimary(callback);
     }
 
     public void addSensor3DFrequencyCallback(Sensor3DFrequencyCallback callback) {
-        this.mSensor3DFrequencyCallback = callback;
+        this.mSensor3DFrequencyCallbacks.setPrimary(callback);
     }
 
     public void addSensor3DStatusCallback(Sensor3DStatusCallback callback) {
-        this.mSensor3DStatusCallback = callback;
+        this.mSensor3DStatusCallbacks.setPrimary(callback);
     }
 
     public void addSensor6DFrequencyCallback(final Sensor6DFrequencyCallback callback) {
-        this.mSensor6DFrequencyCallback = callback;
+        this.mSensor6DFrequencyCallbacks.setPrimary(callback);
     }
 
     public void addSensor6DRawDataCallback(final Sensor6DRawDataCallback callback) {
-        this.mSensor6DRawDataCallback = callback;
+        this.mSensor6DRawDataCallbacks.setPrimary(callback);
+    }
+
+    public void addSensor6DBatchCallback(final Sensor6DBatchCallback callback) {
+        this.mSensor6DBatchCallbacks.setPrimary(callback);
     }
 
     public void addBodySportHealthCallback(final BodySportHealthCallback callback) {
-        this.mBodySportHealthCallback = callback;
+        this.mBodySportHealthCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOfStepRecordCallback(final HistoryOfStepRecordCallback callback) {
-        this.mHistoryOfStepRecordCallback = callback;
+        this.mHistoryOfStepRecordCallbacks.setPrimary(callback);
     }
 
     public void addHistoryOfStepDataCallback(final HistoryOfStepDataCallback callback) {
-        this.mHistoryOfStepDataCallback = callback;
+        this.mHistoryOfStepDataCallbacks.setPrimary(callback);
+    }
+
+    public void addHistoryOfStepDataChunkCallback(final HistoryOfStepDataChunkCallback callback) {
+        this.mHistoryOfStepDataChunkCallbacks.setPrimary(callback);
+    }
+
+    public void addHistorySeriesCallback(final HistorySeriesCallback callback) {
+        this.mHistorySeriesCallbacks.setPrimary(callback);
+    }
+
+    public FrameDecoder registerDecoder(final int opcode, final FrameDecoder decoder) {
+        return this.mReceivedDataCallback.registerDecoder(opcode, decoder);
+    }
+
+    public FrameDecoder unregisterDecoder(final int opcode) {
+        return this.mReceivedDataCallback.unregisterDecoder(opcode);
+    }
+
+    public void setHistoryStreaming(final boolean streaming) {
+        this.mReceivedDataCallback.setStreaming(streaming);
+    }
+
+    public boolean isHistoryStreaming() {
+        return this.mReceivedDataCallback.isStreaming();
+    }
+
+    public void setHistoryColumnar(final boolean columnar) {
+        this.mReceivedDataCallback.setColumnar(columnar);
+    }
+
+    public void setHistoryChunkSize(final int chunkSize) {
+        this.mReceivedDataCallback.setChunkSize(chunkSize);
+    }
+
+    public <C> CallbackBus<C> getCallbackBus(final Class<C> type) {
+        CallbackBus<C> bus = (CallbackBus) this.mCallbackBuses.get(type);
+        if (bus == null) {
+            throw new IllegalArgumentException("No callback bus for " + type.getName());
+        }
+        return bus;
+    }
+
+    public <C> CallbackBus.Subscription<C> subscribe(final Class<C> type, final C callback) {
+        return getCallbackBus(type).subscribe(callback);
+    }
+
+    public <C> CallbackBus.Subscription<C> subscribe(final Class<C> type, final C callback, final Executor executor, final StreamPolicy policy) {
+        return getCallbackBus(type).subscribe(callback, executor, policy);
+    }
+
+    public <C> boolean unsubscribe(final Class<C> type, final C callback) {
+        return getCallbackBus(type).unsubscribe(callback);
+    }
+
+    public WearPublishers getPublishers() {
+        return this.mPublishers;
+    }
+
+    private <C> CallbackBus<C> register(final Class<C> type) {
+        CallbackBus<C> bus = new CallbackBus<>(type.getSimpleName());
+        this.mCallbackBuses.put(type, bus);
+        return bus;
+    }
+
+    private void appendHistory(final int type, final List<?> items) {
+        if (type == WearReceivedDataCallback.TYPE_HEARTS) {
+            this.mResponses.append(RESPONSE_HISTORY_OF_HR_DATA, items, false);
+        } else if (type == WearReceivedDataCallback.TYPE_HEART_RRS) {
+            this.mResponses.append(RESPONSE_HISTORY_OF_RR_DATA, items, false);
+        } else if (type == WearReceivedDataCallback.TYPE_STEPS) {
+            this.mResponses.append(RESPONSE_HISTORY_OF_STEP_DATA, items, false);
+        }
+    }
+
+    private void completeSeries(final HistorySeries series, final boolean last) {
+        int type = series.getType();
+        if (type == WearReceivedDataCallback.TYPE_HEARTS && this.mResponses.isPending(RESPONSE_HISTORY_OF_HR_DATA)) {
+            this.mResponses.append(RESPONSE_HISTORY_OF_HR_DATA, series.toHeartRates(), last);
+        } else if (type == WearReceivedDataCallback.TYPE_HEART_RRS && this.mResponses.isPending(RESPONSE_HISTORY_OF_RR_DATA)) {
+            this.mResponses.append(RESPONSE_HISTORY_OF_RR_DATA, series.toRespiratoryRates(), last);
+        } else if (type == WearReceivedDataCallback.TYPE_STEPS && this.mResponses.isPending(RESPONSE_HISTORY_OF_STEP_DATA)) {
+            this.mResponses.append(RESPONSE_HISTORY_OF_STEP_DATA, series.toSteps(), last);
+        }
+    }
+
+    static <E> List<E> snapshot(final CallbackBus<?> bus, final List<E> list) {
+        return (list == null || bus.isDirect()) ? list : new ArrayList<>(list);
+    }
+
+    static HistorySeries snapshot(final CallbackBus<?> bus, final HistorySeries series) {
+        return bus.isDirect() ? series : series.copy();
+    }
+
+    static Sensor3DBatch snapshot(final CallbackBus<?> bus, final Sensor3DBatch batch) {
+        return bus.isDirect() ? batch : batch.copy();
+    }
+
+    static Sensor6DBatch snapshot(final CallbackBus<?> bus, final Sensor6DBatch batch) {
+        return bus.isDirect() ? batch : batch.copy();
+    }
+
+    static int[] snapshot(final CallbackBus<?> bus, final int[] values, final int count) {
+        return (values == null || bus.isDirect()) ? values : Arrays.copyOf(values, count);
+    }
+
+    public void setStreamPolicy(final int stream, final StreamPolicy policy) {
+        setStreamPolicy(stream, policy, null);
+    }
+
+    public void setStreamPolicy(final int stream, final StreamPolicy policy, final Handler handler) {
+        this.mStreamChannels[stream] = new StreamChannel(STREAM_NAMES[stream], policy, handler);
+    }
+
+    public StreamChannel getStreamChannel(final int stream) {
+        return this.mStreamChannels[stream];
     }
 
     public void setFilterNames(String... filterNames) {
@@ -663,21 +1243,6 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
         }
     }
 
-    private void sendCommand(final byte cmd, final int... values) {
-        byte[] header;
-        if (values != null) {
-            int len = values.length + 4;
-            byte[] header2 = HexUtil.compose(255, len, cmd);
-            byte[] bytes = HexUtil.compose(values);
-            header = HexUtil.append(header2, bytes);
-        } else {
-            header = HexUtil.compose(255, 4, cmd);
-        }
-        byte check = checkSum(header);
-        byte[] command = HexUtil.append(header, check);
-        writeTxCharacteristic(command);
-    }
-
     protected int[] utc2Bytes(final long stamp) {
         int[] utcArray = {(int) (stamp >> 24), (int) (stamp >> 16), (int) (stamp >> 8), (int) stamp};
         return utcArray;
@@ -688,153 +1253,364 @@ public class WearManager extends FitnessManager<WearManagerCallbacks> {
     }
 
     public void setUTCTime(final long stamp) {
-        sendCommand((byte) 8, utc2Bytes(stamp));
+        sendCommand(obtainCommand(8).putUInt32BE(stamp));
     }
 
     public void shutdown() {
-        sendCommand((byte) -15, 0);
+        writeTxCharacteristic(CMD_SHUTDOWN);
     }
 
     public void restoration() {
-        sendCommand((byte) -13, 0);
+        writeTxCharacteristic(CMD_RESTORATION);
     }
 
     public void setBluetoothDisabled() {
-        sendCommand((byte) 63, 2);
+        writeTxCharacteristic(CMD_BLUETOOTH_DISABLED);
     }
 
     public void getHistoryOfSport() {
         this.mReceivedDataCallback.clearType(2);
-        sendCommand((byte) 22, 0);
+        beginBulkTransfer();
+        writeTxCharacteristic(CMD_HISTORY_OF_SPORT);
     }
 
     public void getHistoryOfHRRecord() {
         this.mReceivedDataCallback.clearType(4);
-        sendCommand((byte) 33, 0);
+        beginBulkTransfer();
+        writeTxCharacteristic(CMD_HISTORY_OF_HR_RECORD);
     }
 
     public void getHistoryOfHRData(final long stamp) {
-        this.mReceivedDataCallback.clearType(6);
-        sendCommand((byte) 34, HexUtil.append(1, utc2Bytes(stamp)));
+        getHistoryOfHRData(stamp, false);
+    }
+
+    private void getHistoryOfHRData(final long stamp, final boolean chunked) {
+        this.mReceivedDataCallback.clearType(6, chunked);
+        beginBulkTransfer();
+        sendCommand(obtainCommand(34).put(1).putUInt32BE(stamp));
     }
 
     public void getHistoryOfRRRecord() {
         this.mReceivedDataCallback.clearType(8);
-        sendCommand((byte) 36, new int[0]);
+        beginBulkTransfer();
+        writeTxCharacteristic(CMD_HISTORY_OF_RR_RECORD);
     }
 
     public void getHistoryOfRRData(final long stamp) {
-        this.mReceivedDataCallback.clearType(16);
-        sendCommand((byte) 37, HexUtil.append(1, utc2Bytes(stamp)));
+        getHistoryOfRRData(stamp, false);
+    }
+
+    private void getHistoryOfRRData(final long stamp, final boolean chunked) {
+        this.mReceivedDataCallback.clearType(16, chunked);
+        beginBulkTransfer();
+        sendCommand(obtainCommand(37).put(1).putUInt32BE(stamp));
     }
 
     public void getHistoryOfStepRecord() {
         this.mReceivedDataCallback.clearType(32);
-        sendCommand((byte) -112, new int[0]);
+        beginBulkTransfer();
+        writeTxCharacteristic(CMD_HISTORY_OF_STEP_RECORD);
     }
 
     public void getHistoryOfStepData(final long stamp) {
-        this.mReceivedDataCallback.clearType(34);
-        sendCommand((byte) -111, HexUtil.append(1, utc2Bytes(stamp)));
+        getHistoryOfStepData(stamp, false);
+    }
+
+    private void getHistoryOfStepData(final long stamp, final boolean chunked) {
+        this.mReceivedDataCallback.clearType(34, chunked);
+        beginBulkTransfer();
+        sendCommand(obtainCommand(145).put(1).putUInt32BE(stamp));
     }
 
     public void getIntervalSteps() {
         this.mReceivedDataCallback.clearType(18);
-        sendCommand((byte) 64, 0);
+        beginBulkTransfer();
+        writeTxCharacteristic(CMD_INTERVAL_STEPS);
     }
 
     public void getSingleTapRecords() {
         this.mReceivedDataCallback.clearType(20);
-        sendCommand((byte) 66, 0);
+        beginBulkTransfer();
+        writeTxCharacteristic(CMD_SINGLE_TAP_RECORDS);
     }
 
     public void getHistoryOfSleep() {
         this.mReceivedDataCallback.clearType(22);
-        sendCommand((byte) 5, 2);
+        beginBulkTransfer();
+        writeTxCharacteristic(CMD_HISTORY_OF_SLEEP);
     }
 
     public void getUserInfo() {
-        sendCommand((byte) 3, 0);
+        writeTxCharacteristic(CMD_USER_INFO);
     }
 
     public void setUserInfo(final int age, final int sex, final int weight, final int height, final long userId) {
-        int[] command = {(byte) age, (byte) sex, (byte) weight, (byte) height, (byte) ((userId >> 32) & 255), (byte) ((userId >> 24) & 255), (byte) ((userId >> 16) & 255), (byte) ((userId >> 8) & 255), (byte) (255 & userId)};
-        sendCommand((byte) 4, command);
+        sendCommand(obtainCommand(4).put(age).put(sex).put(weight).put(height).putUIntBE(userId, 5));
     }
 
     public void getHeartRateStatus() {
-        sendCommand((byte) 70, 0);
+        writeTxCharacteristic(CMD_HEART_RATE_STATUS);
     }
 
     public void setHeartRateStatus(int min, int max, int goal) {
-        sendCommand((byte) 70, 1, (byte) min, (byte) max, (byte) goal);
+        sendCommand(obtainCommand(70).put(1).put(min).put(max).put(goal));
     }
 
     public void setHeartRateMax(int max) {
-        sendCommand((byte) 116, 0, 6, (byte) max);
+        sendCommand(obtainCommand(116).put(0).put(6).put(max));
     }
 
     public void getHeartRateMax() {
-        sendCommand((byte) 117, 0, 6);
+        writeTxCharacteristic(CMD_HEART_RATE_MAX);
     }
 
     public void setBloodOxygen(final int mode) {
-        int[] command = {(byte) mode, 0};
-        sendCommand((byte) 55, command);
+        sendCommand(obtainCommand(55).put(mode).put(0));
     }
 
     public void setHeartRateAlarm(boolean z) {
-        sendCommand((byte) 87, z ? 1 : 0);
+        writeTxCharacteristic(z ? CMD_HEART_RATE_ALARM_ON : CMD_HEART_RATE_ALARM_OFF);
     }
 
     public void getHeartRateAlarm() {
-        sendCommand((byte) 91, 0);
+        writeTxCharacteristic(CMD_HEART_RATE_ALARM);
     }
 
     public void getHistoryOfSingleRecord(final long stamp) {
-        sendCommand((byte) 73, utc2Bytes(stamp));
+        sendCommand(obtainCommand(73).putUInt32BE(stamp));
     }
 
     public void set3DFrequency(int frequency) {
-        sendCommand((byte) 116, 0, 11, (byte) frequency);
+        sendCommand(obtainCommand(116).put(0).put(11).put(frequency));
     }
 
     public void get3DFrequency() {
-        sendCommand((byte) 117, 0, 11);
+        writeTxCharacteristic(CMD_3D_FREQUENCY);
     }
 
     public void set3DEnabled(boolean z) {
-        sendCommand((byte) 116, 0, 12, z ? 1 : 0);
+        writeTxCharacteristic(z ? CMD_3D_ENABLED : CMD_3D_DISABLED);
     }
 
     public void get3DStatus() {
-        sendCommand((byte) 117, 0, 12);
+        writeTxCharacteristic(CMD_3D_STATUS);
     }
 
     public void get6DFrequency() {
-        sendCommand((byte) 97, 0);
+        writeTxCharacteristic(CMD_6D_FREQUENCY);
     }
 
     public void set6DFrequency(int frequency) {
-        sendCommand((byte) 98, frequency);
+        setStreamingActive(frequency > 0);
+        sendCommand(obtainCommand(98).put(frequency));
     }
 
     public void setCustomDataReceivedCallback(CustomDataReceivedCallback customDataReceivedCallback) {
-        this.mCustomDataReceivedCallback = customDataReceivedCallback;
+        this.mCustomDataReceivedCallbacks.setPrimary(customDataReceivedCallback);
     }
 
     public void getHistoryOf3D() {
-        sendCommand((byte) 119, 0);
+        beginBulkTransfer();
+        writeTxCharacteristic(CMD_HISTORY_OF_3D);
+    }
+
+    public CompletableFuture<UserInfo> requestUserInfo() {
+        return requestUserInfo(ResponseRouter.DEFAULT_TIMEOUT);
+    }
+
+    public CompletableFuture<UserInfo> requestUserInfo(final long timeout) {
+        CompletableFuture<UserInfo> future = this.mResponses.expect(RESPONSE_USER_INFO, timeout);
+        getUserInfo();
+        return future;
+    }
+
+    public CompletableFuture<HeartRateStatus> requestHeartRateStatus() {
+        return requestHeartRateStatus(ResponseRouter.DEFAULT_TIMEOUT);
+    }
+
+    public CompletableFuture<HeartRateStatus> requestHeartRateStatus(final long timeout) {
+        CompletableFuture<HeartRateStatus> future = this.mResponses.expect(RESPONSE_HEART_RATE_STATUS, timeout);
+        getHeartRateStatus();
+        return future;
+    }
+
+    public CompletableFuture<Integer> requestHeartRateMax() {
+        return requestHeartRateMax(ResponseRouter.DEFAULT_TIMEOUT);
+    }
+
+    public CompletableFuture<Integer> requestHeartRateMax(final long timeout) {
+        CompletableFuture<Integer> future = this.mResponses.expect(RESPONSE_HEART_RATE_MAX, timeout);
+        getHeartRateMax();
+        return future;
+    }
+
+    public CompletableFuture<Boolean> requestHeartRateAlarm() {
+        return requestHeartRateAlarm(ResponseRouter.DEFAULT_TIMEOUT);
+    }
+
+    public CompletableFuture<Boolean> requestHeartRateAlarm(final long timeout) {
+        CompletableFuture<Boolean> future = this.mResponses.expect(RESPONSE_HEART_RATE_ALARM, timeout);
+        getHeartRateAlarm();
+        return future;
+    }
+
+    public CompletableFuture<Integer> request3DFrequency() {
+        return request3DFrequency(ResponseRouter.DEFAULT_TIMEOUT);
+    }
+
+    public CompletableFuture<Integer> request3DFrequency(final long timeout) {
+        CompletableFuture<Integer> future = this.mResponses.expect(RESPONSE_3D_FREQUENCY, timeout);
+        get3DFrequency();
+        return future;
+    }
+
+    public CompletableFuture<Boolean> request3DStatus() {
+        return request3DStatus(ResponseRouter.DEFAULT_TIMEOUT);
+    }
+
+    public CompletableFuture<Boolean> request3DStatus(final long timeout) {
+        CompletableFuture<Boolean> future = this.mResponses.expect(RESPONSE_3D_STATUS, timeout);
+        get3DStatus();
+        return future;
+    }
+
+    public CompletableFuture<Integer> request6DFrequency() {
+        return request6DFrequency(ResponseRouter.DEFAULT_TIMEOUT);
+    }
+
+    public CompletableFuture<Integer> request6DFrequency(final long timeout) {
+        CompletableFuture<Integer> future = this.mResponses.expect(RESPONSE_6D_FREQUENCY, timeout);
+        get6DFrequency();
+        return future;
+    }
+
+    public CompletableFuture<List<HistoryOfSport>> requestHistoryOfSport() {
+        return requestHistoryOfSport(HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<HistoryOfSport>> requestHistoryOfSport(final long timeout) {
+        CompletableFuture<List<HistoryOfSport>> future = this.mResponses.expect(RESPONSE_HISTORY_OF_SPORT, timeout);
+        getHistoryOfSport();
+        return future;
+    }
+
+    public CompletableFuture<List<HistorySleep>> requestHistoryOfSleep() {
+        return requestHistoryOfSleep(HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<HistorySleep>> requestHistoryOfSleep(final long timeout) {
+        CompletableFuture<List<HistorySleep>> future = this.mResponses.expect(RESPONSE_HISTORY_OF_SLEEP, timeout);
+        getHistoryOfSleep();
+        return future;
+    }
+
+    public CompletableFuture<List<HistoryOfRecord>> requestHistoryOfHRRecord() {
+        return requestHistoryOfHRRecord(HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<HistoryOfRecord>> requestHistoryOfHRRecord(final long timeout) {
+        CompletableFuture<List<HistoryOfRecord>> future = this.mResponses.expect(RESPONSE_HISTORY_OF_HR_RECORD, timeout);
+        getHistoryOfHRRecord();
+        return future;
+    }
+
+    public CompletableFuture<List<HistoryOfHeartRate>> requestHistoryOfHRData(final long stamp) {
+        return requestHistoryOfHRData(stamp, HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<HistoryOfHeartRate>> requestHistoryOfHRData(final long stamp, final long timeout) {
+        return requestHistoryOfHRData(stamp, timeout, null);
+    }
+
+    public CompletableFuture<List<HistoryOfHeartRate>> requestHistoryOfHRData(final long stamp, final long timeout, final Consumer<List<HistoryOfHeartRate>> progress) {
+        CompletableFuture<List<HistoryOfHeartRate>> future = this.mResponses.expect(RESPONSE_HISTORY_OF_HR_DATA, timeout, progress);
+        getHistoryOfHRData(stamp, progress != null);
+        return future;
+    }
+
+    public CompletableFuture<List<HistoryOfRecord>> requestHistoryOfRRRecord() {
+        return requestHistoryOfRRRecord(HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<HistoryOfRecord>> requestHistoryOfRRRecord(final long timeout) {
+        CompletableFuture<List<HistoryOfRecord>> future = this.mResponses.expect(RESPONSE_HISTORY_OF_RR_RECORD, timeout);
+        getHistoryOfRRRecord();
+        return future;
+    }
+
+    public CompletableFuture<List<HistoryOfRespiratoryRate>> requestHistoryOfRRData(final long stamp) {
+        return requestHistoryOfRRData(stamp, HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<HistoryOfRespiratoryRate>> requestHistoryOfRRData(final long stamp, final long timeout) {
+        return requestHistoryOfRRData(stamp, timeout, null);
+    }
+
+    public CompletableFuture<List<HistoryOfRespiratoryRate>> requestHistoryOfRRData(final long stamp, final long timeout, final Consumer<List<HistoryOfRespiratoryRate>> progress) {
+        CompletableFuture<List<HistoryOfRespiratoryRate>> future = this.mResponses.expect(RESPONSE_HISTORY_OF_RR_DATA, timeout, progress);
+        getHistoryOfRRData(stamp, progress != null);
+        return future;
+    }
+
+    public CompletableFuture<List<HistoryOfRecord>> requestHistoryOfStepRecord() {
+        return requestHistoryOfStepRecord(HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<HistoryOfRecord>> requestHistoryOfStepRecord(final long timeout) {
+        CompletableFuture<List<HistoryOfRecord>> future = this.mResponses.expect(RESPONSE_HISTORY_OF_STEP_RECORD, timeout);
+        getHistoryOfStepRecord();
+        return future;
+    }
+
+    public CompletableFuture<List<HistoryOfStep>> requestHistoryOfStepData(final long stamp) {
+        return requestHistoryOfStepData(stamp, HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<HistoryOfStep>> requestHistoryOfStepData(final long stamp, final long timeout) {
+        return requestHistoryOfStepData(stamp, timeout, null);
+    }
+
+    public CompletableFuture<List<HistoryOfStep>> requestHistoryOfStepData(final long stamp, final long timeout, final Consumer<List<HistoryOfStep>> progress) {
+        CompletableFuture<List<HistoryOfStep>> future = this.mResponses.expect(RESPONSE_HISTORY_OF_STEP_DATA, timeout, progress);
+        getHistoryOfStepData(stamp, progress != null);
+        return future;
+    }
+
+    public CompletableFuture<List<IntervalStep>> requestIntervalSteps() {
+        return requestIntervalSteps(HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<IntervalStep>> requestIntervalSteps(final long timeout) {
+        CompletableFuture<List<IntervalStep>> future = this.mResponses.expect(RESPONSE_INTERVAL_STEPS, timeout);
+        getIntervalSteps();
+        return future;
+    }
+
+    public CompletableFuture<List<HistoryOfRecord>> requestSingleTapRecords() {
+        return requestSingleTapRecords(HISTORY_TIMEOUT);
+    }
+
+    public CompletableFuture<List<HistoryOfRecord>> requestSingleTapRecords(final long timeout) {
+        CompletableFuture<List<HistoryOfRecord>> future = this.mResponses.expect(RESPONSE_SINGLE_TAP_RECORDS, timeout);
+        getSingleTapRecords();
+        return future;
+    }
+
+    public ResponseRouter getResponseRouter() {
+        return this.mResponses;
+    }
+
+    public CompletableFuture<Void> awaitReady(final long timeout) {
+        CompletableFuture<Void> future = this.mReadyWaiters.expect(LINK_READY, timeout);
+        if (isReady()) {
+            this.mReadyWaiters.completeAll(LINK_READY, null);
+        }
+        return future;
     }
 
     public String dfuMode() {
         String address = getDFUAddress();
-        byte[] command = new byte[4];
-        command[0] = -1;
-        command[1] = 4;
-        command[2] = 39;
-        command[3] = checkSum(command);
-        writeTxCharacteristic(command);
+        writeTxCharacteristic(CMD_DFU_MODE);
         return address;
     }
 
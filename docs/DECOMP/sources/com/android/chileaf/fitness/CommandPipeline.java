@@ -0,0 +1,146 @@
+package com.android.chileaf.fitness;
+
+import com.android.chileaf.util.LogUtil;
+import java.util.ArrayDeque;
+import no.nordicsemi.android.ble.WriteRequest;
+
+public final class CommandPipeline {
+    public static final int DEFAULT_WINDOW = 4;
+    public static final int DEFAULT_BACKOFF = 8;
+    private static final LogUtil.Site LOG = LogUtil.site("CommandPipeline");
+    private static final int WRITE_TYPE_DEFAULT = 2;
+    private static final int WRITE_TYPE_NO_RESPONSE = 1;
+    private int mAcknowledged;
+    private volatile int mBackoff;
+    private int mCongestion;
+    private long mCongestionEvents;
+    private long mFailed;
+    private int mInFlight;
+    private final Object mLock;
+    private final ArrayDeque<byte[]> mPending;
+    private long mSent;
+    private final Transport mTransport;
+    private volatile int mWindow;
+
+    interface Transport {
+        WriteRequest write(byte[] command, int writeType);
+    }
+
+    CommandPipeline(final Transport transport) {
+        this.mTransport = transport;
+        this.mLock = new Object();
+        this.mPending = new ArrayDeque<>();
+        this.mWindow = DEFAULT_WINDOW;
+        this.mBackoff = DEFAULT_BACKOFF;
+    }
+
+    public void setWindow(final int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        this.mWindow = window;
+    }
+
+    public int getWindow() {
+        return this.mWindow;
+    }
+
+    public void setBackoff(final int backoff) {
+        this.mBackoff = Math.max(1, backoff);
+    }
+
+    void send(final byte[] command) {
+        synchronized (this.mLock) {
+            this.mPending.offerLast(command);
+        }
+        pump();
+    }
+
+    void reset() {
+        synchronized (this.mLock) {
+            this.mPending.clear();
+            this.mInFlight = 0;
+            this.mCongestion = 0;
+        }
+    }
+
+    private void pump() {
+        while (true) {
+            byte[] command;
+            int writeType;
+            synchronized (this.mLock) {
+                if (this.mPending.isEmpty()) {
+                    return;
+                }
+                if (this.mCongestion > 0) {
+                    if (this.mInFlight > 0) {
+                        return;
+                    }
+                    this.mCongestion--;
+                    this.mAcknowledged++;
+                    writeType = WRITE_TYPE_DEFAULT;
+                } else if (this.mInFlight >= this.mWindow) {
+                    return;
+                } else {
+                    writeType = WRITE_TYPE_NO_RESPONSE;
+                }
+                command = this.mPending.pollFirst();
+                this.mInFlight++;
+            }
+            this.mTransport.write(command, writeType).done(device -> onWritten()).fail((device, status) -> onFailed(command, writeType, status)).enqueue();
+        }
+    }
+
+    private void onWritten() {
+        synchronized (this.mLock) {
+            if (this.mInFlight > 0) {
+                this.mInFlight--;
+            }
+            this.mSent++;
+        }
+        pump();
+    }
+
+    private void onFailed(final byte[] command, final int writeType, final int status) {
+        synchronized (this.mLock) {
+            if (this.mInFlight > 0) {
+                this.mInFlight--;
+            }
+            if (writeType == WRITE_TYPE_NO_RESPONSE) {
+                this.mCongestionEvents++;
+                this.mCongestion = this.mBackoff;
+                this.mPending.offerFirst(command);
+            } else {
+                this.mFailed++;
+            }
+        }
+        if (writeType == WRITE_TYPE_NO_RESPONSE) {
+            LOG.w("Write without response failed (%d), falling back to acknowledged writes", Integer.valueOf(status));
+        }
+        pump();
+    }
+
+    public int getPending() {
+        int size;
+        synchronized (this.mLock) {
+            size = this.mPending.size();
+        }
+        return size;
+    }
+
+    public boolean isCongested() {
+        boolean congested;
+        synchronized (this.mLock) {
+            congested = this.mCongestion > 0;
+        }
+        return congested;
+    }
+
+    public String toString() {
+        String str;
+        synchronized (this.mLock) {
+            str = "CommandPipeline{window=" + this.mWindow + ", inFlight=" + this.mInFlight + ", pending=" + this.mPending.size() + ", sent=" + this.mSent + ", acknowledged=" + this.mAcknowledged + ", congestion=" + this.mCongestionEvents + ", failed=" + this.mFailed + '}';
+        }
+        return str;
+    }
+}
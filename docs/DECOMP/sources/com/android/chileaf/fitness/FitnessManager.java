@@ -6,15 +6,24 @@ import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattService;
 import android.content.Context;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 import com.android.chileaf.fitness.FitnessManagerCallbacks;
 import com.android.chileaf.fitness.common.battery.BatteryLevelDataCallback;
+import com.android.chileaf.fitness.encoder.CommandBuilder;
+import com.android.chileaf.fitness.encoder.CommandEncoder;
 import com.android.chileaf.util.HexUtil;
 import com.android.chileaf.util.LogUtil;
+import com.android.chileaf.util.ZoneOffsetCache;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import no.nordicsemi.android.ble.BleManager;
 import no.nordicsemi.android.ble.LegacyBleManager;
+import no.nordicsemi.android.ble.PhyRequest;
+import no.nordicsemi.android.ble.ValueChangedCallback;
 import no.nordicsemi.android.ble.callback.DataReceivedCallback;
 import no.nordicsemi.android.ble.callback.DataSentCallback;
 import no.nordicsemi.android.ble.callback.FailCallback;
@@ -27,17 +36,33 @@ import no.nordicsemi.android.ble.utils.ParserUtils;
 public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends LegacyBleManager<T> {
     protected static final String CUSTOM_CHAR_UUID = "AAE21542-71B5-42A1-8C3C-F9CF6AC969D0";
     protected static final String SPEC_CHAR_UUID = "AAE21541-71B5-42A1-8C3C-F9CF6AC969D0";
+    private static final LogUtil.Site LOG = LogUtil.site("FitnessManager");
+    public static final long BULK_TRANSFER_TIMEOUT = 120000;
     protected boolean isContainCL833;
+    private volatile boolean isDeliverOnMainThread;
+    private volatile boolean isLinkTuning;
+    private volatile boolean isPipelinedWrites;
+    private volatile boolean isStreamingActive;
+    private volatile boolean isWriteCommandSupported;
     private Integer mBatteryLevel;
     private BluetoothGattCharacteristic mBatteryLevelCharacteristic;
     private final DataReceivedCallback mBatteryLevelDataCallback;
+    private volatile LinkProfile mBulkProfile;
+    private final Runnable mBulkTimeout;
+    private final AtomicInteger mBulkTransfers;
+    protected final CommandEncoder mEncoder;
     protected BluetoothGattCharacteristic mCustomRxCharacteristic;
+    private final NotificationDispatcher mDispatcher;
     private final DataReceivedCallback mFirmwareCallBack;
     private String mFirmwareVersion;
     private final DataReceivedCallback mHardwareCallBack;
     private String mHardwareVersion;
+    private volatile LinkProfile mIdleProfile;
+    private volatile LinkProfile mLinkProfile;
+    private final Handler mMainHandler;
     private final DataReceivedCallback mModelCallBack;
     private String mModelName;
+    private final CommandPipeline mPipeline;
     private BluetoothGattCharacteristic mProfileFirmwareCharacteristic;
     private BluetoothGattCharacteristic mProfileHardwareCharacteristic;
     private BluetoothGattCharacteristic mProfileModelCharacteristic;
@@ -55,6 +80,9 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
     private final DataReceivedCallback mSystemCallBack;
     private String mSystemId;
     protected BluetoothGattCharacteristic mTXCharacteristic;
+    private final FailCallback mTxFailCallback;
+    private final DataSentCallback mTxSentCallback;
+    private final SuccessCallback mTxSuccessCallback;
     private final DataReceivedCallback mVendorCallBack;
     private String mVendorName;
     protected static final UUID SERVICE_UUID = UUID.fromString("AAE28F00-71B5-42A1-8C3C-F9CF6AC969D0");
@@ -74,8 +102,25 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
     public abstract void checkModel(String modelName, boolean isCL833);
 
     public FitnessManager(final Context context) {
-        super(context);
+        this(context, null);
+    }
+
+    public FitnessManager(final Context context, final NotificationDispatcher dispatcher) {
+        super(context, dispatcher != null ? dispatcher.getHandler() : new Handler(Looper.getMainLooper()));
         this.isContainCL833 = false;
+        this.mDispatcher = dispatcher;
+        this.mMainHandler = new Handler(Looper.getMainLooper());
+        this.isLinkTuning = true;
+        this.mBulkProfile = LinkProfile.BULK;
+        this.mIdleProfile = LinkProfile.IDLE;
+        this.mBulkTransfers = new AtomicInteger();
+        this.mBulkTimeout = this::onBulkTransferTimeout;
+        this.mPipeline = new CommandPipeline((command, writeType) -> writeCharacteristic(this.mTXCharacteristic, command, writeType).with(this.mTxSentCallback));
+        ZoneOffsetCache.register(context);
+        this.mEncoder = new CommandEncoder();
+        this.mTxSentCallback = this::lambda$writeTxCharacteristic$19$FitnessManager;
+        this.mTxSuccessCallback = this::lambda$writeTxCharacteristic$20$FitnessManager;
+        this.mTxFailCallback = this::lambda$writeTxCharacteristic$21$FitnessManager;
         this.mRssiCallback = new RssiCallback() { // from class: com.android.chileaf.fitness.-$$Lambda$FitnessManager$aPdDado6CbH7ehWCTVn5mF1N_uQ
             @Override // no.nordicsemi.android.ble.callback.RssiCallback
             public final void onRssiRead(BluetoothDevice bluetoothDevice, int i) {
@@ -148,6 +193,136 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
         this.mCallbacks = callbacks;
     }
 
+    public NotificationDispatcher getDispatcher() {
+        return this.mDispatcher;
+    }
+
+    public void setDeliverOnMainThread(final boolean deliverOnMainThread) {
+        this.isDeliverOnMainThread = deliverOnMainThread;
+    }
+
+    public boolean isDeliverOnMainThread() {
+        return this.isDeliverOnMainThread;
+    }
+
+    protected ValueChangedCallback deliver(final ValueChangedCallback callback) {
+        if (this.mDispatcher != null && this.isDeliverOnMainThread) {
+            callback.setHandler(this.mMainHandler);
+        }
+        return callback;
+    }
+
+    public void setPipelinedWrites(final boolean pipelinedWrites) {
+        this.isPipelinedWrites = pipelinedWrites;
+    }
+
+    public boolean isPipelinedWrites() {
+        return this.isPipelinedWrites;
+    }
+
+    public CommandPipeline getCommandPipeline() {
+        return this.mPipeline;
+    }
+
+    public void setLinkTuning(final boolean linkTuning) {
+        this.isLinkTuning = linkTuning;
+    }
+
+    public boolean isLinkTuning() {
+        return this.isLinkTuning;
+    }
+
+    public void setLinkProfiles(final LinkProfile bulk, final LinkProfile idle) {
+        this.mBulkProfile = bulk;
+        this.mIdleProfile = idle;
+    }
+
+    public LinkProfile getLinkProfile() {
+        return this.mLinkProfile;
+    }
+
+    public void applyLinkProfile(final LinkProfile profile) {
+        if (profile == null || profile == this.mLinkProfile || !isConnected()) {
+            return;
+        }
+        this.mLinkProfile = profile;
+        log(3, "Link profile: " + profile);
+        if (profile.getMtu() > getMtu()) {
+            requestMtu(profile.getMtu()).enqueue();
+        }
+        if (Build.VERSION.SDK_INT >= 21) {
+            requestConnectionPriority(profile.getConnectionPriority()).enqueue();
+        }
+        if (Build.VERSION.SDK_INT >= 26 && profile.getPhy() != LinkProfile.PHY_UNCHANGED) {
+            setPreferredPhy(profile.getPhy(), profile.getPhy(), PhyRequest.PHY_OPTION_NO_PREFERRED).enqueue();
+        }
+    }
+
+    protected void beginBulkTransfer() {
+        if (!this.isLinkTuning) {
+            return;
+        }
+        this.mBulkTransfers.incrementAndGet();
+        this.mMainHandler.removeCallbacks(this.mBulkTimeout);
+        this.mMainHandler.postDelayed(this.mBulkTimeout, BULK_TRANSFER_TIMEOUT);
+        applyLinkProfile(this.mBulkProfile);
+    }
+
+    protected void endBulkTransfer() {
+        int transfers;
+        do {
+            transfers = this.mBulkTransfers.get();
+            if (transfers == 0) {
+                return;
+            }
+        } while (!this.mBulkTransfers.compareAndSet(transfers, transfers - 1));
+        if (transfers == 1) {
+            this.mMainHandler.removeCallbacks(this.mBulkTimeout);
+            settleLink();
+        }
+    }
+
+    protected void setStreamingActive(final boolean streamingActive) {
+        this.isStreamingActive = streamingActive;
+        if (!this.isLinkTuning) {
+            return;
+        }
+        if (streamingActive) {
+            applyLinkProfile(this.mBulkProfile);
+        } else {
+            settleLink();
+        }
+    }
+
+    private void settleLink() {
+        if (this.isLinkTuning && this.mBulkTransfers.get() == 0 && !this.isStreamingActive) {
+            applyLinkProfile(this.mIdleProfile);
+        }
+    }
+
+    private void onBulkTransferTimeout() {
+        if (this.mBulkTransfers.getAndSet(0) > 0) {
+            log(5, "Bulk transfer did not complete, relaxing link");
+            settleLink();
+        }
+    }
+
+    private void resetLink() {
+        this.mLinkProfile = null;
+        this.isStreamingActive = false;
+        this.mBulkTransfers.set(0);
+        this.mMainHandler.removeCallbacks(this.mBulkTimeout);
+    }
+
+    @Override // no.nordicsemi.android.ble.BleManager
+    public void close() {
+        super.close();
+        NotificationDispatcher dispatcher = this.mDispatcher;
+        if (dispatcher != null) {
+            dispatcher.quit();
+        }
+    }
+
     @Override // no.nordicsemi.android.ble.BleManager
     protected BleManager.BleManagerGattCallback getGattCallback() {
         return new BleManager.BleManagerGattCallback() { // from class: com.android.chileaf.fitness.FitnessManager.1
@@ -166,9 +341,17 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
         LogUtil.setDebug(debug);
     }
 
+    @Override // no.nordicsemi.android.ble.BleManager, no.nordicsemi.android.ble.utils.ILogger
+    public int getMinLogPriority() {
+        if (LogUtil.isDebug()) {
+            return super.getMinLogPriority();
+        }
+        return Integer.MAX_VALUE;
+    }
+
     @Override // no.nordicsemi.android.ble.BleManager, no.nordicsemi.android.ble.utils.ILogger
     public void log(final int priority, final String message) {
-        LogUtil.log(6, priority, message, new Object[0]);
+        LOG.log(priority, message);
     }
 
     protected byte checkSum(final byte[] data) {
@@ -176,7 +359,7 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
         for (byte item : data) {
             result += item;
         }
-        return (byte) (((-result) ^ 58) & 255);
+        return CommandEncoder.checkSum(result);
     }
 
     public Integer getRssi() {
@@ -394,7 +577,7 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
 
     public void enableBatteryLevelCharacteristicNotifications() {
         if (isConnected()) {
-            setNotificationCallback(this.mBatteryLevelCharacteristic).with(this.mBatteryLevelDataCallback);
+            deliver(setNotificationCallback(this.mBatteryLevelCharacteristic)).with(this.mBatteryLevelDataCallback);
             enableNotifications(this.mBatteryLevelCharacteristic).done(new SuccessCallback() { // from class: com.android.chileaf.fitness.-$$Lambda$FitnessManager$7xUC-qCi5GM101dU5ZksGyY3HR0
                 @Override // no.nordicsemi.android.ble.callback.SuccessCallback
                 public final void onRequestCompleted(BluetoothDevice bluetoothDevice) {
@@ -439,7 +622,10 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
 
         @Override // no.nordicsemi.android.ble.BleManagerHandler
         protected void initialize() {
-            if (Build.VERSION.SDK_INT >= 21) {
+            FitnessManager.this.resetLink();
+            if (FitnessManager.this.isLinkTuning) {
+                FitnessManager.this.applyLinkProfile(FitnessManager.this.mBulkProfile);
+            } else if (Build.VERSION.SDK_INT >= 21) {
                 FitnessManager.this.requestConnectionPriority(1).enqueue();
             }
             FitnessManager.this.readProfileCharacteristic();
@@ -471,6 +657,7 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
                 int txProperties = FitnessManager.this.mTXCharacteristic.getProperties();
                 characteristics2 = (txProperties & 8) > 0 ? 1 : 0;
                 writeCommand = (txProperties & 4) > 0;
+                FitnessManager.this.isWriteCommandSupported = writeCommand;
                 if (characteristics2 != null) {
                     FitnessManager.this.mTXCharacteristic.setWriteType(2);
                     FitnessManager.this.log(3, "TXCharacteristic notifications WRITE_TYPE_DEFAULT");
@@ -500,8 +687,16 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
             return isBatteryService && isProfileService;
         }
 
+        @Override // no.nordicsemi.android.ble.BleManagerHandler
+        protected void onDeviceReady() {
+            FitnessManager.this.settleLink();
+        }
+
         @Override // no.nordicsemi.android.ble.BleManagerHandler
         protected void onDeviceDisconnected() {
+            FitnessManager.this.resetLink();
+            FitnessManager.this.mPipeline.reset();
+            FitnessManager.this.isWriteCommandSupported = false;
             FitnessManager.this.mBatteryLevelCharacteristic = null;
             FitnessManager.this.mCustomRxCharacteristic = null;
             FitnessManager.this.mRXCharacteristic = null;
@@ -512,6 +707,9 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
 
         @Override // no.nordicsemi.android.ble.BleManagerHandler
         protected void onServicesInvalidated() {
+            FitnessManager.this.resetLink();
+            FitnessManager.this.mPipeline.reset();
+            FitnessManager.this.isWriteCommandSupported = false;
             FitnessManager.this.mBatteryLevelCharacteristic = null;
             FitnessManager.this.mCustomRxCharacteristic = null;
             FitnessManager.this.mRXCharacteristic = null;
@@ -530,29 +728,24 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
     }
 
     protected void writeTxCharacteristic(final byte[] command) {
+        writeTxCharacteristic(command, 0, command.length);
+    }
+
+    protected void writeTxCharacteristic(final byte[] command, final int offset, final int length) {
         BluetoothGattCharacteristic bluetoothGattCharacteristic;
         if (isConnected() && (bluetoothGattCharacteristic = this.mTXCharacteristic) != null) {
-            writeCharacteristic(bluetoothGattCharacteristic, command).with(new DataSentCallback() { // from class: com.android.chileaf.fitness.-$$Lambda$FitnessManager$hOCwvpbC0Kc0iHPw50HUZtLEA3w
-                @Override // no.nordicsemi.android.ble.callback.DataSentCallback
-                public final void onDataSent(BluetoothDevice bluetoothDevice, Data data) {
-                    this.f$0.lambda$writeTxCharacteristic$19$FitnessManager(bluetoothDevice, data);
-                }
-            }).done(new SuccessCallback() { // from class: com.android.chileaf.fitness.-$$Lambda$FitnessManager$26bhtEQVz7tSUkZ_ScNbzm7F5CQ
-                @Override // no.nordicsemi.android.ble.callback.SuccessCallback
-                public final void onRequestCompleted(BluetoothDevice bluetoothDevice) {
-                    this.f$0.lambda$writeTxCharacteristic$20$FitnessManager(bluetoothDevice);
-                }
-            }).fail(new FailCallback() { // from class: com.android.chileaf.fitness.-$$Lambda$FitnessManager$-PKWcnA1dPO2pt86BZv6nr-4jaw
-                @Override // no.nordicsemi.android.ble.callback.FailCallback
-                public final void onRequestFailed(BluetoothDevice bluetoothDevice, int i) {
-                    this.f$0.lambda$writeTxCharacteristic$21$FitnessManager(bluetoothDevice, i);
-                }
-            }).enqueue();
+            if (this.isPipelinedWrites && this.isWriteCommandSupported) {
+                this.mPipeline.send(Arrays.copyOfRange(command, offset, offset + length));
+                return;
+            }
+            writeCharacteristic(bluetoothGattCharacteristic, command, offset, length).with(this.mTxSentCallback).done(this.mTxSuccessCallback).fail(this.mTxFailCallback).enqueue();
         }
     }
 
     public /* synthetic */ void lambda$writeTxCharacteristic$19$FitnessManager(BluetoothDevice device, Data data) {
-        log(2, "Send:" + ParserUtils.parse(data.getValue()));
+        if (LogUtil.isDebug()) {
+            log(2, "Send:" + ParserUtils.parse(data.getValue()));
+        }
     }
 
     public /* synthetic */ void lambda$writeTxCharacteristic$20$FitnessManager(BluetoothDevice device) {
@@ -567,6 +760,16 @@ public abstract class FitnessManager<T extends FitnessManagerCallbacks> extends
         sendCommand(bytes, false);
     }
 
+    protected CommandBuilder obtainCommand(final int cmd) {
+        return this.mEncoder.obtain(cmd);
+    }
+
+    protected void sendCommand(final CommandBuilder builder) {
+        builder.finish();
+        writeTxCharacteristic(builder.array(), 0, builder.length());
+        this.mEncoder.recycle(builder);
+    }
+
     protected void sendCommand(final byte[] bytes, boolean isCheckSum) {
         byte[] command;
         if (isCheckSum) {
@@ -0,0 +1,50 @@
+package com.android.chileaf.fitness;
+
+import no.nordicsemi.android.ble.ConnectionPriorityRequest;
+import no.nordicsemi.android.ble.PhyRequest;
+
+public final class LinkProfile {
+    public static final int MTU_DEFAULT = 23;
+    public static final int MTU_MAX = 517;
+    public static final int PHY_UNCHANGED = 0;
+    public static final LinkProfile BULK = new LinkProfile("bulk", 247, ConnectionPriorityRequest.CONNECTION_PRIORITY_HIGH, PhyRequest.PHY_LE_2M_MASK);
+    public static final LinkProfile IDLE = new LinkProfile("idle", 0, ConnectionPriorityRequest.CONNECTION_PRIORITY_LOW_POWER, PHY_UNCHANGED);
+    private final int mConnectionPriority;
+    private final int mMtu;
+    private final String mName;
+    private final int mPhy;
+
+    private LinkProfile(final String name, final int mtu, final int connectionPriority, final int phy) {
+        this.mName = name;
+        this.mMtu = mtu;
+        this.mConnectionPriority = connectionPriority;
+        this.mPhy = phy;
+    }
+
+    public static LinkProfile of(final String name, final int mtu, final int connectionPriority, final int phy) {
+        if (mtu != 0 && (mtu < MTU_DEFAULT || mtu > MTU_MAX)) {
+            throw new IllegalArgumentException("mtu out of range: " + mtu);
+        }
+        return new LinkProfile(name, mtu, connectionPriority, phy);
+    }
+
+    public String getName() {
+        return this.mName;
+    }
+
+    public int getMtu() {
+        return this.mMtu;
+    }
+
+    public int getConnectionPriority() {
+        return this.mConnectionPriority;
+    }
+
+    public int getPhy() {
+        return this.mPhy;
+    }
+
+    public String toString() {
+        return "LinkProfile{" + this.mName + ", mtu=" + this.mMtu + ", priority=" + this.mConnectionPriority + ", phy=" + this.mPhy + '}';
+    }
+}
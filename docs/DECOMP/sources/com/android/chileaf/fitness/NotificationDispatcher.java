@@ -0,0 +1,52 @@
+package com.android.chileaf.fitness;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+public final class NotificationDispatcher {
+    public static final int DEFAULT_PRIORITY = Process.THREAD_PRIORITY_DISPLAY;
+    private final Handler mHandler;
+    private final HandlerThread mThread;
+
+    private NotificationDispatcher(final HandlerThread thread) {
+        this.mThread = thread;
+        this.mHandler = new Handler(thread.getLooper());
+    }
+
+    public static NotificationDispatcher create(final String name) {
+        return create(name, DEFAULT_PRIORITY);
+    }
+
+    public static NotificationDispatcher create(final String name, final int priority) {
+        HandlerThread thread = new HandlerThread(name, priority);
+        thread.start();
+        return new NotificationDispatcher(thread);
+    }
+
+    public Handler getHandler() {
+        return this.mHandler;
+    }
+
+    public Looper getLooper() {
+        return this.mThread.getLooper();
+    }
+
+    public boolean isCurrentThread() {
+        return Thread.currentThread() == this.mThread;
+    }
+
+    public boolean isAlive() {
+        return this.mThread.isAlive();
+    }
+
+    public void quit() {
+        if (Build.VERSION.SDK_INT >= 18) {
+            this.mThread.quitSafely();
+        } else {
+            this.mThread.quit();
+        }
+    }
+}
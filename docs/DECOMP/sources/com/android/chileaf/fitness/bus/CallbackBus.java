@@ -0,0 +1,175 @@
+package com.android.chileaf.fitness.bus;
+
+import android.util.Log;
+import com.android.chileaf.fitness.stream.StreamChannel;
+import com.android.chileaf.fitness.stream.StreamPolicy;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class CallbackBus<C> {
+    private static final Subscription<?>[] EMPTY = new Subscription<?>[0];
+    private static final String TAG = "CallbackBus";
+    private final String mName;
+    private final AtomicReference<Subscription<C>[]> mSubscriptions;
+
+    public interface Event<C> {
+        void deliver(C callback);
+    }
+
+    public CallbackBus(final String name) {
+        this.mName = name;
+        this.mSubscriptions = new AtomicReference<>(empty());
+    }
+
+    public Subscription<C> subscribe(final C callback) {
+        return add(new Subscription<>(this, callback, null, false));
+    }
+
+    public Subscription<C> subscribe(final C callback, final Executor executor, final StreamPolicy policy) {
+        StreamChannel channel = null;
+        if (policy.getMode() != StreamPolicy.MODE_DIRECT) {
+            if (executor == null) {
+                throw new IllegalArgumentException("executor is required for " + policy);
+            }
+            channel = new StreamChannel(this.mName, policy, executor);
+        }
+        return add(new Subscription<>(this, callback, channel, false));
+    }
+
+    public void setPrimary(final C callback) {
+        Subscription<C>[] current;
+        Subscription<C>[] next;
+        Subscription<C> primary = callback != null ? new Subscription<>(this, callback, null, true) : null;
+        do {
+            current = this.mSubscriptions.get();
+            int count = 0;
+            for (Subscription<C> subscription : current) {
+                if (!subscription.isPrimary) {
+                    count++;
+                }
+            }
+            next = Arrays.copyOf(current, (primary != null ? 1 : 0) + count);
+            int index = 0;
+            if (primary != null) {
+                next[index++] = primary;
+            }
+            for (Subscription<C> subscription2 : current) {
+                if (!subscription2.isPrimary) {
+                    next[index++] = subscription2;
+                }
+            }
+        } while (!this.mSubscriptions.compareAndSet(current, next));
+    }
+
+    public boolean unsubscribe(final C callback) {
+        for (Subscription<C> subscription : this.mSubscriptions.get()) {
+            if (subscription.mCallback == callback) {
+                return remove(subscription);
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return this.mSubscriptions.get().length == 0;
+    }
+
+    public boolean isDirect() {
+        for (Subscription<C> subscription : this.mSubscriptions.get()) {
+            if (subscription.mChannel != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return this.mSubscriptions.get().length;
+    }
+
+    public String getName() {
+        return this.mName;
+    }
+
+    public void post(final Event<C> event) {
+        for (Subscription<C> subscription : this.mSubscriptions.get()) {
+            StreamChannel channel = subscription.mChannel;
+            if (channel == null) {
+                try {
+                    event.deliver(subscription.mCallback);
+                } catch (Throwable t) {
+                    Log.e(TAG, "Exception in " + this.mName + " subscriber", t);
+                }
+            } else {
+                C callback = subscription.mCallback;
+                channel.dispatch(() -> event.deliver(callback));
+            }
+        }
+    }
+
+    private Subscription<C> add(final Subscription<C> subscription) {
+        Subscription<C>[] current;
+        Subscription<C>[] next;
+        do {
+            current = this.mSubscriptions.get();
+            next = Arrays.copyOf(current, current.length + 1);
+            System.arraycopy(current, 0, next, 0, current.length);
+            next[current.length] = subscription;
+        } while (!this.mSubscriptions.compareAndSet(current, next));
+        return subscription;
+    }
+
+    boolean remove(final Subscription<C> subscription) {
+        Subscription<C>[] current;
+        Subscription<C>[] next;
+        do {
+            current = this.mSubscriptions.get();
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subscription) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return false;
+            }
+            next = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, index + 1, next, index, (current.length - index) - 1);
+        } while (!this.mSubscriptions.compareAndSet(current, next));
+        return true;
+    }
+
+    // A zero-length array holds no elements, so one instance can stand in for every C.
+    @SuppressWarnings("unchecked")
+    private static <C> Subscription<C>[] empty() {
+        return (Subscription<C>[]) EMPTY;
+    }
+
+    public static final class Subscription<C> {
+        private final CallbackBus<C> mBus;
+        private final C mCallback;
+        private final StreamChannel mChannel;
+        private final boolean isPrimary;
+
+        Subscription(final CallbackBus<C> bus, final C callback, final StreamChannel channel, final boolean isPrimary) {
+            this.mBus = bus;
+            this.mCallback = callback;
+            this.mChannel = channel;
+            this.isPrimary = isPrimary;
+        }
+
+        public C getCallback() {
+            return this.mCallback;
+        }
+
+        public StreamChannel getChannel() {
+            return this.mChannel;
+        }
+
+        public boolean unsubscribe() {
+            return this.mBus.remove(this);
+        }
+    }
+}
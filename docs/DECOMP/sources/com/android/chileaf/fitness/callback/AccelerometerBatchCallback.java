@@ -0,0 +1,8 @@
+package com.android.chileaf.fitness.callback;
+
+import android.bluetooth.BluetoothDevice;
+import com.android.chileaf.model.Sensor3DBatch;
+
+public interface AccelerometerBatchCallback {
+    void onAccelerometerBatchReceived(final BluetoothDevice device, Sensor3DBatch batch);
+}
@@ -0,0 +1,9 @@
+package com.android.chileaf.fitness.callback;
+
+import android.bluetooth.BluetoothDevice;
+import com.android.chileaf.model.HistoryOfHeartRate;
+import java.util.List;
+
+public interface HistoryOfHRDataChunkCallback {
+    void onHistoryOfHRDataChunkReceived(final BluetoothDevice device, List<HistoryOfHeartRate> heartRates, boolean last);
+}
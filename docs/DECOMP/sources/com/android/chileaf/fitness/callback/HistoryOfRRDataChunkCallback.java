@@ -0,0 +1,9 @@
+package com.android.chileaf.fitness.callback;
+
+import android.bluetooth.BluetoothDevice;
+import com.android.chileaf.model.HistoryOfRespiratoryRate;
+import java.util.List;
+
+public interface HistoryOfRRDataChunkCallback {
+    void onHistoryOfRRDataChunkReceived(final BluetoothDevice device, List<HistoryOfRespiratoryRate> respiratoryRates, boolean last);
+}
@@ -0,0 +1,9 @@
+package com.android.chileaf.fitness.callback;
+
+import android.bluetooth.BluetoothDevice;
+import com.android.chileaf.model.HistoryOfStep;
+import java.util.List;
+
+public interface HistoryOfStepDataChunkCallback {
+    void onHistoryOfStepDataChunkReceived(final BluetoothDevice device, List<HistoryOfStep> steps, boolean last);
+}
@@ -0,0 +1,8 @@
+package com.android.chileaf.fitness.callback;
+
+import android.bluetooth.BluetoothDevice;
+import com.android.chileaf.model.HistorySeries;
+
+public interface HistorySeriesCallback {
+    void onHistorySeriesReceived(final BluetoothDevice device, HistorySeries series, boolean last);
+}
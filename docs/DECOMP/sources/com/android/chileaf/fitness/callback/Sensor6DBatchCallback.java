@@ -0,0 +1,8 @@
+package com.android.chileaf.fitness.callback;
+
+import android.bluetooth.BluetoothDevice;
+import com.android.chileaf.model.Sensor6DBatch;
+
+public interface Sensor6DBatchCallback {
+    void onSensor6DBatchReceived(final BluetoothDevice device, Sensor6DBatch batch);
+}
@@ -2,30 +2,37 @@ package com.android.chileaf.fitness.callback;
 
 import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
+import com.android.chileaf.fitness.decoder.FrameDecoder;
+import com.android.chileaf.fitness.decoder.FrameDecoderRegistry;
+import com.android.chileaf.fitness.decoder.FrameView;
+import com.android.chileaf.fitness.decoder.HistoryStream;
 import com.android.chileaf.model.HistoryOf3D;
 import com.android.chileaf.model.HistoryOfHeartRate;
 import com.android.chileaf.model.HistoryOfRecord;
 import com.android.chileaf.model.HistoryOfRespiratoryRate;
 import com.android.chileaf.model.HistoryOfSport;
 import com.android.chileaf.model.HistoryOfStep;
+import com.android.chileaf.model.HistorySeries;
 import com.android.chileaf.model.HistorySleep;
 import com.android.chileaf.model.IntervalStep;
+import com.android.chileaf.model.Sensor3DBatch;
+import com.android.chileaf.model.Sensor6DBatch;
 import com.android.chileaf.util.DateUtil;
-import com.android.chileaf.util.HexUtil;
 import com.android.chileaf.util.LogUtil;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import kotlin.UByte;
+import java.util.Map;
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
 import no.nordicsemi.android.ble.data.Data;
-import no.nordicsemi.android.ble.utils.ParserUtils;
 
 /* loaded from: C:\Users\UserDemo\Downloads\New folder\CHILEAF\classes.dex */
-public abstract class WearReceivedDataCallback extends ProfileReadResponse implements UserInfoCallback, BodySportCallback, BluetoothStatusCallback, HistoryOfSportCallback, HistoryOfHRRecordCallback, HistoryOfHRDataCallback, HistoryOfRRRecordCallback, HistoryOfRRDataCallback, IntervalStepCallback, SingleTapRecordCallback, HeartRateStatusCallback, BloodOxygenCallback, TemperatureCallback, HistoryOfSingleRecordCallback, HeartRateAlarmCallback, AccelerometerCallback, HeartRateMaxCallback, HistoryOfSleepCallback, Sensor3DFrequencyCallback, Sensor3DStatusCallback, HistoryOf3DDataCallback, BodyHealthCallback, Sensor6DFrequencyCallback, Sensor6DRawDataCallback, BodySportHealthCallback, HistoryOfStepRecordCallback, HistoryOfStepDataCallback {
+public abstract class WearReceivedDataCallback extends ProfileReadResponse implements UserInfoCallback, BodySportCallback, BluetoothStatusCallback, HistoryOfSportCallback, HistoryOfHRRecordCallback, HistoryOfHRDataCallback, HistoryOfRRRecordCallback, HistoryOfRRDataCallback, IntervalStepCallback, SingleTapRecordCallback, HeartRateStatusCallback, BloodOxygenCallback, TemperatureCallback, HistoryOfSingleRecordCallback, HeartRateAlarmCallback, AccelerometerCallback, AccelerometerBatchCallback, HeartRateMaxCallback, HistoryOfSleepCallback, Sensor3DFrequencyCallback, Sensor3DStatusCallback, HistoryOf3DDataCallback, HistoryOf3DBatchCallback, BodyHealthCallback, Sensor6DFrequencyCallback, Sensor6DRawDataCallback, Sensor6DBatchCallback, BodySportHealthCallback, HistoryOfStepRecordCallback, HistoryOfStepDataCallback, HistoryOfHRDataChunkCallback, HistoryOfRRDataChunkCallback, HistoryOfStepDataChunkCallback, HistorySeriesCallback {
     private static final long END_TAG = 4294967295L;
+    private static final LogUtil.Site LOG = LogUtil.site("WearReceivedData");
     public static final int TYPE_HEART = 4;
     public static final int TYPE_HEARTS = 6;
     public static final int TYPE_HEART_RR = 8;
@@ -37,633 +44,785 @@ public abstract class WearReceivedDataCallback extends ProfileReadResponse imple
     public static final int TYPE_SPORT = 2;
     public static final int TYPE_STEP = 32;
     public static final int TYPE_STEPS = 34;
-    private boolean isCL833;
-    private boolean isStamp;
-    private List<HistoryOfHeartRate> mHistoryOfHeartRates;
-    private List<HistoryOfRecord> mHistoryOfRecords;
-    private List<HistoryOfRespiratoryRate> mHistoryOfRespiratoryRates;
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+    private volatile int mChunkSize;
+    private final Map<BluetoothDevice, Sensor3DBatch> m3DBatches;
+    private final Map<BluetoothDevice, Sensor6DBatch> m6DBatches;
+    private final FrameView mFrame;
+    private final HistoryStream<HistoryOfRecord> mHRRecordStream;
+    private final Map<BluetoothDevice, Sensor3DBatch> mHistoryOf3DBatches;
+    private final HistoryStream<HistoryOfHeartRate> mHRDataStream;
     private List<HistorySleep> mHistoryOfSleeps;
-    private List<HistoryOfSport> mHistoryOfSports;
-    private List<HistoryOfStep> mHistoryOfSteps;
-    private List<IntervalStep> mIntervalSteps;
-    private final List<Data> mPackages;
-    private List<HistoryOfRecord> mRespiratoryRatesRecords;
-    private List<HistoryOfRecord> mSingleTapRecords;
-    private long mStamp;
-    private List<HistoryOfRecord> mStepsRecords;
+    private final HistoryStream<IntervalStep> mIntervalStepStream;
+    private final FrameView mPackage;
+    private final FrameDecoderRegistry mRegistry;
+    private volatile boolean isColumnar;
+    private volatile boolean isStreaming;
+    private final HistoryStream<HistoryOfRecord> mRRRecordStream;
+    private final HistoryStream<HistoryOfRespiratoryRate> mRRDataStream;
+    private final HistoryStream<HistoryOfRecord> mSingleTapStream;
+    private final HistoryStream<HistoryOfSport> mSportStream;
+    private final HistoryStream<HistoryOfRecord> mStepRecordStream;
+    private final HistoryStream<HistoryOfStep> mStepDataStream;
 
     @Retention(RetentionPolicy.SOURCE)
     public @interface DataType {
     }
 
     public WearReceivedDataCallback() {
-        this.mStamp = 0L;
-        this.isCL833 = false;
-        this.isStamp = false;
-        this.mPackages = new ArrayList();
+        this.mChunkSize = DEFAULT_CHUNK_SIZE;
+        this.m3DBatches = new HashMap();
+        this.m6DBatches = new HashMap();
+        this.mHistoryOf3DBatches = new HashMap();
+        this.mFrame = new FrameView();
+        this.mPackage = new FrameView();
+        this.mSportStream = new HistoryStream<>("HistoryOfSport");
+        this.mHRRecordStream = new HistoryStream<>("HistoryOfHRRecord");
+        this.mHRDataStream = new HistoryStream<>("HistoryOfHRData", TYPE_HEARTS);
+        this.mRRRecordStream = new HistoryStream<>("HistoryOfRRRecord");
+        this.mRRDataStream = new HistoryStream<>("HistoryOfRRData", TYPE_HEART_RRS);
+        this.mIntervalStepStream = new HistoryStream<>("IntervalStep");
+        this.mSingleTapStream = new HistoryStream<>("SingleTapRecord");
+        this.mStepRecordStream = new HistoryStream<>("HistoryOfStepRecord");
+        this.mStepDataStream = new HistoryStream<>("HistoryOfStepData", TYPE_STEPS);
+        this.mRegistry = new FrameDecoderRegistry();
+        registerDefaultDecoders();
     }
 
     protected WearReceivedDataCallback(final Parcel in) {
         super(in);
-        this.mStamp = 0L;
-        this.isCL833 = false;
-        this.isStamp = false;
-        this.mPackages = new ArrayList();
+        this.mChunkSize = DEFAULT_CHUNK_SIZE;
+        this.m3DBatches = new HashMap();
+        this.m6DBatches = new HashMap();
+        this.mHistoryOf3DBatches = new HashMap();
+        this.mFrame = new FrameView();
+        this.mPackage = new FrameView();
+        this.mSportStream = new HistoryStream<>("HistoryOfSport");
+        this.mHRRecordStream = new HistoryStream<>("HistoryOfHRRecord");
+        this.mHRDataStream = new HistoryStream<>("HistoryOfHRData", TYPE_HEARTS);
+        this.mRRRecordStream = new HistoryStream<>("HistoryOfRRRecord");
+        this.mRRDataStream = new HistoryStream<>("HistoryOfRRData", TYPE_HEART_RRS);
+        this.mIntervalStepStream = new HistoryStream<>("IntervalStep");
+        this.mSingleTapStream = new HistoryStream<>("SingleTapRecord");
+        this.mStepRecordStream = new HistoryStream<>("HistoryOfStepRecord");
+        this.mStepDataStream = new HistoryStream<>("HistoryOfStepData", TYPE_STEPS);
+        this.mRegistry = new FrameDecoderRegistry();
+        registerDefaultDecoders();
+    }
+
+    private void registerDefaultDecoders() {
+        this.mRegistry.register(3, this::decodeUserInfo);
+        this.mRegistry.register(5, this::decodeSleep);
+        this.mRegistry.register(12, this::decodeAccelerometer);
+        this.mRegistry.register(19, this::decodeSportHealth);
+        this.mRegistry.register(21, this::decodeSport);
+        this.mRegistry.register(22, this::decodeHistoryOfSport);
+        this.mRegistry.register(33, this::decodeHistoryOfHRRecord);
+        this.mRegistry.register(34, this::decodeHistoryOfHRData);
+        this.mRegistry.register(35, this::decodeHistoryOfHRData);
+        this.mRegistry.register(36, this::decodeHistoryOfRRRecord);
+        this.mRegistry.register(37, this::decodeHistoryOfRRData);
+        this.mRegistry.register(38, this::decodeHistoryOfRRData);
+        this.mRegistry.register(55, this::decodeBloodOxygen);
+        this.mRegistry.register(56, this::decodeTemperature);
+        this.mRegistry.register(63, this::decodeBluetoothStatus);
+        this.mRegistry.register(64, this::decodeIntervalSteps);
+        this.mRegistry.register(65, this::decodeIntervalSteps);
+        this.mRegistry.register(66, this::decodeSingleTapRecords);
+        this.mRegistry.register(67, this::decodeSingleTapRecords);
+        this.mRegistry.register(70, this::decodeHeartRateStatus);
+        this.mRegistry.register(73, this::decodeHistorySingleRecord);
+        this.mRegistry.register(91, this::decodeHeartRateAlarm);
+        this.mRegistry.register(96, this::decodeSensor6DRaw);
+        this.mRegistry.register(97, this::decodeSensor6DFrequency);
+        this.mRegistry.register(100, this::decodeSensor6DRawStamped);
+        this.mRegistry.register(117, this::decodeSettings);
+        this.mRegistry.register(119, this::decodeHistoryOf3D);
+        this.mRegistry.register(120, this::decodeHistoryOf3D);
+        this.mRegistry.register(144, this::decodeHistoryOfStepRecord);
+        this.mRegistry.register(145, this::decodeHistoryOfStepData);
+        this.mRegistry.register(146, this::decodeHistoryOfStepData);
     }
 
     @Override // no.nordicsemi.android.ble.response.ReadResponse, no.nordicsemi.android.ble.callback.DataReceivedCallback
     public void onDataReceived(BluetoothDevice bluetoothDevice, Data data) {
-        int i;
         super.onDataReceived(bluetoothDevice, data);
-        byte b = 1;
-        boolean z = true;
-        char c = 0;
-        if (!(data.getIntValue(17, 1).intValue() == data.size())) {
+        byte[] value = data.getValue();
+        if (value == null || value.length < 3) {
+            onInvalidDataReceived(bluetoothDevice, data);
+            return;
+        }
+        if ((value[1] & 255) != value.length) {
             onInvalidDataReceived(bluetoothDevice, data);
-            LogUtil.w("onDataReceived:length:%s", Integer.valueOf(data.size()));
+            LOG.w("onDataReceived:length:%s", Integer.valueOf(value.length));
         }
-        byte[] value = data.getValue();
-        int i2 = 2;
-        int iIntValue = data.getIntValue(17, 2).intValue();
-        int i3 = 3;
-        try {
-        } catch (Exception e) {
-            e = e;
-        }
-        if (iIntValue == 3) {
-            onUserInfoReceived(bluetoothDevice, getIntParse(value, 5, 1), getIntParse(value, 6, 1), getIntParse(value, 7, 1), getIntParse(value, 8, 1), getLongParse(value, 9, 5));
+        int opcode = value[2] & 255;
+        FrameDecoder decoder = this.mRegistry.get(opcode);
+        if (decoder == null) {
+            return;
+        }
+        synchronized (this) {
+            try {
+                decoder.decode(bluetoothDevice, opcode, data);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override // com.android.chileaf.fitness.callback.AccelerometerBatchCallback
+    public void onAccelerometerBatchReceived(final BluetoothDevice device, final Sensor3DBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            onAccelerometerReceived(device, batch.getX(i), batch.getY(i), batch.getZ(i));
+        }
+    }
+
+    @Override // com.android.chileaf.fitness.callback.HistoryOf3DBatchCallback
+    public void onHistoryOf3DBatchReceived(final BluetoothDevice device, final Sensor3DBatch batch, final boolean finish) {
+        for (int i = 0; i < batch.size(); i++) {
+            onHistoryOf3DDataReceived(device, new HistoryOf3D(batch.getX(i), batch.getY(i), batch.getZ(i)), finish);
+        }
+    }
+
+    @Override // com.android.chileaf.fitness.callback.Sensor6DBatchCallback
+    public void onSensor6DBatchReceived(final BluetoothDevice device, final Sensor6DBatch batch) {
+        short[] gyroscopeX = batch.getGyroscopeX();
+        short[] gyroscopeY = batch.getGyroscopeY();
+        short[] gyroscopeZ = batch.getGyroscopeZ();
+        short[] accelerometerX = batch.getAccelerometerX();
+        short[] accelerometerY = batch.getAccelerometerY();
+        short[] accelerometerZ = batch.getAccelerometerZ();
+        for (int i = 0; i < batch.size(); i++) {
+            onSensor6DRawDataReceived(device, batch.getUtc(), batch.getSequence(), gyroscopeX[i], gyroscopeY[i], gyroscopeZ[i], accelerometerX[i], accelerometerY[i], accelerometerZ[i]);
+        }
+    }
+
+    public FrameDecoder registerDecoder(final int opcode, final FrameDecoder decoder) {
+        return this.mRegistry.register(opcode, decoder);
+    }
+
+    public FrameDecoder unregisterDecoder(final int opcode) {
+        return this.mRegistry.unregister(opcode);
+    }
+
+    private void decodeUserInfo(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        onUserInfoReceived(device, frame.getUInt8(5), frame.getUInt8(6), frame.getUInt8(7), frame.getUInt8(8), frame.getULongBE(9, 5));
+    }
+
+    private void decodeSleep(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        if (frame.getUInt8(3) != 3) {
             return;
         }
-        int i4 = 4;
-        if (iIntValue == 5) {
-            if (getIntParse(value, 3, 1) == 3) {
-                if (this.mHistoryOfSleeps == null) {
-                    this.mHistoryOfSleeps = new ArrayList();
+        if (this.mHistoryOfSleeps == null) {
+            this.mHistoryOfSleeps = new ArrayList();
+        }
+        int size = frame.size();
+        int index = 4;
+        while (index < size) {
+            int count = frame.getByte(index);
+            if (count >= 1) {
+                int offset = index + 1;
+                long stamp = frame.getUInt32BE(offset);
+                int start = offset + 4;
+                long time = (stamp * 1000) - 28800000;
+                int[] states = new int[count];
+                for (int i = 0; i < count; i++) {
+                    states[i] = frame.getUInt8(i + start);
                 }
-                int i5 = 4;
-                while (i5 < value.length) {
-                    int i6 = value[i5];
-                    if (i6 >= 1) {
-                        int i7 = i5 + 1;
-                        long longParse = getLongParse(value, i7, i4);
-                        int i8 = i7 + 4;
-                        long j = (longParse * 1000) - 28800000;
-                        int[] iArr = new int[i6];
-                        for (int i9 = 0; i9 < i6; i9++) {
-                            iArr[i9] = getIntParse(value, i9 + i8, 1);
-                        }
-                        i5 = i8 + (i6 - 1);
-                        this.mHistoryOfSleeps.add(new HistorySleep(j, iArr));
-                        if (i5 == value.length - 2) {
-                            break;
-                        }
-                    }
-                    i5++;
-                    i4 = 4;
+                index = start + (count - 1);
+                this.mHistoryOfSleeps.add(new HistorySleep(time, states));
+                if (index == size - 2) {
+                    break;
                 }
-                onHistoryOfSleepReceived(bluetoothDevice, this.mHistoryOfSleeps);
-                this.mHistoryOfSleeps.clear();
             }
+            index++;
+        }
+        onHistoryOfSleepReceived(device, this.mHistoryOfSleeps);
+        this.mHistoryOfSleeps.clear();
+    }
+
+    private void decodeAccelerometer(BluetoothDevice device, int opcode, Data data) {
+        Sensor3DBatch batch = parseSensor3DList(this.m3DBatches, device, this.mFrame.wrap(data.getValue()).payload(3));
+        onAccelerometerBatchReceived(device, batch);
+    }
+
+    private void decodeSportHealth(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        onSportHealthReceived(device, frame.getUInt8(3), frame.getUInt8(4), frame.getUInt8(5), frame.getUInt8(6), frame.getUInt8(7));
+    }
+
+    private void decodeSport(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        onSportReceived(device, frame.getUInt24BE(3), frame.getUInt24BE(6), frame.getUInt24BE(9));
+    }
+
+    private void decodeBluetoothStatus(BluetoothDevice device, int opcode, Data data) {
+        onBluetoothStatusReceived(device, this.mFrame.wrap(data.getValue()).getUInt8(3) == 1);
+    }
+
+    private void decodeHistoryOfSport(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<HistoryOfSport> stream = this.mSportStream;
+        if (this.mFrame.wrap(data.getValue()).getUInt32BE(3) != END_TAG) {
+            stream.offer(data);
             return;
         }
-        if (iIntValue == 12) {
-            byte[] bArrSubSlice = subSlice(3, value);
-            for (int i10 = 0; i10 < bArrSubSlice.length / 6; i10++) {
-                int i11 = i10 * 6;
-                onAccelerometerReceived(bluetoothDevice, data.getIntValue(34, i11 + 3).intValue(), data.getIntValue(34, i11 + 5).intValue(), data.getIntValue(34, i11 + 7).intValue());
-            }
-        } else if (iIntValue != 18) {
-            if (iIntValue == 19) {
-                onSportHealthReceived(bluetoothDevice, getIntParse(value, 3, 1), getIntParse(value, 4, 1), getIntParse(value, 5, 1), getIntParse(value, 6, 1), getIntParse(value, 7, 1));
-                return;
-            }
-            int i12 = 4;
-            if (iIntValue == 21) {
-                onSportReceived(bluetoothDevice, getIntParse(value, 3, 3), getIntParse(value, 6, 3), getIntParse(value, 9, 3));
-                return;
-            }
-            if (iIntValue == 63) {
-                if (getIntParse(value, 3, 1) != 1) {
-                    z = false;
+        if (stream.end()) {
+            for (int i = 0; i < stream.size(); i++) {
+                FrameView payload = this.mPackage.wrap(stream.get(i).getValue()).payload(3);
+                parseSportHistory(payload, stream.results());
+                if (LogUtil.isDebug()) {
+                    LOG.d("HistoryOfSport index:%d values:%s", Integer.valueOf(i), payload);
                 }
-                onBluetoothStatusReceived(bluetoothDevice, z);
-                return;
             }
-            if (iIntValue == 22) {
-                if (this.mHistoryOfSports == null) {
-                    this.mHistoryOfSports = new ArrayList();
+            onHistoryOfSportReceived(device, stream.results());
+        }
+        stream.complete();
+    }
+
+    private void decodeCL833HistoryOfSport(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<HistoryOfSport> stream = this.mSportStream;
+        if (stream.end()) {
+            parseSportHistory(this.mFrame.wrap(data.getValue()).payload(3), stream.results());
+            Collections.reverse(stream.results());
+            onHistoryOfSportReceived(device, stream.results());
+        }
+        stream.complete();
+    }
+
+    private void decodeHistoryOfHRRecord(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<HistoryOfRecord> stream = this.mHRRecordStream;
+        if (this.mFrame.wrap(data.getValue()).getUInt32BE(3) != END_TAG) {
+            stream.offer(data);
+            return;
+        }
+        if (stream.end()) {
+            for (int i = 0; i < stream.size(); i++) {
+                FrameView payload = this.mPackage.wrap(stream.get(i).getValue()).payload(3);
+                if (LogUtil.isDebug()) {
+                    LOG.d("mHistoryOfRecords index:%d values:%s", Integer.valueOf(i), payload);
                 }
-                long longParse2 = getLongParse(value, 3, 4);
-                if (this.isCL833) {
-                    parseSportHistory(subSlice(3, value));
-                    Collections.reverse(this.mHistoryOfSports);
-                    onHistoryOfSportReceived(bluetoothDevice, this.mHistoryOfSports);
-                    this.mHistoryOfSports.clear();
-                } else if (longParse2 != END_TAG) {
-                    this.mPackages.add(data);
-                } else {
-                    for (int i13 = 0; i13 < this.mPackages.size(); i13++) {
-                        byte[] bArrSubSlice2 = subSlice(3, this.mPackages.get(i13).getValue());
-                        parseSportHistory(bArrSubSlice2);
-                        LogUtil.d("HistoryOfSport index:%d values:%s", Integer.valueOf(i13), ParserUtils.parse(bArrSubSlice2));
+                for (int j = 0; j < payload.size() / 4; j++) {
+                    long stamp = payload.getUInt32BE(j * 4);
+                    stream.results().add(new HistoryOfRecord(stamp, DateUtil.restoreZoneUTC(stamp)));
+                    if (LogUtil.isDebug()) {
+                        LOG.d("mHistoryOfRecords index:%d record:%s", Integer.valueOf(j), Long.valueOf(stamp));
                     }
-                    onHistoryOfSportReceived(bluetoothDevice, this.mHistoryOfSports);
-                    this.mHistoryOfSports.clear();
-                    this.mPackages.clear();
                 }
-                return;
             }
-            if (iIntValue == 33) {
-                if (this.mHistoryOfRecords == null) {
-                    this.mHistoryOfRecords = new ArrayList();
+            onHistoryOfHRRecordReceived(device, stream.results());
+        }
+        stream.complete();
+    }
+
+    private void decodeHistoryOfHRData(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<HistoryOfHeartRate> stream = this.mHRDataStream;
+        if (opcode == 34) {
+            if (!isChunked(stream)) {
+                if (stream.offer(data)) {
+                    stream.markStamp(this.mFrame.wrap(data.getValue()).getUInt32BE(3));
                 }
-                if (getLongParse(value, 3, 4) != END_TAG) {
-                    this.mPackages.add(data);
-                } else {
-                    int i14 = 0;
-                    while (i14 < this.mPackages.size()) {
-                        byte[] bArrSubSlice3 = subSlice(i3, this.mPackages.get(i14).getValue());
-                        Object[] objArr = new Object[i2];
-                        objArr[c] = Integer.valueOf(i14);
-                        objArr[b] = ParserUtils.parse(bArrSubSlice3);
-                        LogUtil.d("mHistoryOfRecords index:%d values:%s", objArr);
-                        int i15 = 0;
-                        while (i15 < bArrSubSlice3.length / i12) {
-                            long longParse3 = getLongParse(bArrSubSlice3, i15 * 4, i12);
-                            long jRestoreZoneUTC = DateUtil.restoreZoneUTC(longParse3);
-                            int i16 = i15;
-                            this.mHistoryOfRecords.add(new HistoryOfRecord(longParse3, jRestoreZoneUTC));
-                            LogUtil.d("mHistoryOfRecords index:%d record:%s", Integer.valueOf(i16), Long.valueOf(longParse3));
-                            i15 = i16 + 1;
-                            i12 = 4;
-                        }
-                        i14++;
-                        b = 1;
-                        i2 = 2;
-                        i12 = 4;
-                        c = 0;
-                        i3 = 3;
-                    }
-                    onHistoryOfHRRecordReceived(bluetoothDevice, this.mHistoryOfRecords);
-                    this.mHistoryOfRecords.clear();
-                    this.mPackages.clear();
+            } else if (stream.begin()) {
+                FrameView frame = this.mFrame.wrap(data.getValue());
+                stream.markStamp(frame.getUInt32BE(3));
+                parseHeartRates(frame.payload(3), stream);
+                if (pending(stream) >= this.mChunkSize) {
+                    deliverHR(device, stream, false);
                 }
-                return;
             }
-            try {
-            } catch (Exception e2) {
-                e = e2;
+            return;
+        }
+        if (stream.end()) {
+            for (int i = 0; i < stream.size(); i++) {
+                FrameView payload = this.mPackage.wrap(stream.get(i).getValue()).payload(3);
+                if (LogUtil.isDebug()) {
+                    LOG.d("mHistoryOfHeartRates index:%d values:%s", Integer.valueOf(i), payload);
+                }
+                parseHeartRates(payload, stream);
             }
-            if (iIntValue == 34 || iIntValue == 35) {
-                int i17 = 3;
-                int i18 = iIntValue;
-                if (this.mHistoryOfHeartRates == null) {
-                    this.mHistoryOfHeartRates = new ArrayList();
+            deliverHR(device, stream, true);
+        }
+        stream.complete();
+    }
+
+    private void decodeHistoryOfRRRecord(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<HistoryOfRecord> stream = this.mRRRecordStream;
+        if (this.mFrame.wrap(data.getValue()).getUInt32BE(3) != END_TAG) {
+            stream.offer(data);
+            return;
+        }
+        if (stream.end()) {
+            for (int i = 0; i < stream.size(); i++) {
+                FrameView payload = this.mPackage.wrap(stream.get(i).getValue()).payload(3);
+                if (LogUtil.isDebug()) {
+                    LOG.d("mRespiratoryRatesRecords index:%d values:%s", Integer.valueOf(i), payload);
                 }
-                if (i18 == 34) {
-                    if (!this.isStamp) {
-                        this.mStamp = getLongParse(value, i17, 4);
-                        this.isStamp = true;
-                    }
-                    this.mPackages.add(data);
+                for (int j = 0; j < payload.size() / 4; j++) {
+                    long stamp = payload.getUInt32BE(j * 4);
+                    stream.results().add(new HistoryOfRecord(stamp, DateUtil.restoreZoneUTC(stamp)));
                 }
-                if (i18 == 35) {
-                    for (int i19 = 0; i19 < this.mPackages.size(); i19++) {
-                        byte[] bArrSubSlice4 = subSlice(i17, this.mPackages.get(i19).getValue());
-                        LogUtil.d("mHistoryOfHeartRates index:%d values:%s", Integer.valueOf(i19), ParserUtils.parse(bArrSubSlice4));
-                        for (int i20 = 4; i20 < bArrSubSlice4.length; i20++) {
-                            this.mHistoryOfHeartRates.add(new HistoryOfHeartRate(DateUtil.restoreZoneUTC(this.mStamp), getIntParse(bArrSubSlice4, i20, 1)));
-                            this.mStamp++;
-                        }
-                    }
-                    onHistoryOfHRDataReceived(bluetoothDevice, this.mHistoryOfHeartRates);
-                    this.mHistoryOfHeartRates.clear();
-                    this.mPackages.clear();
-                    this.isStamp = false;
-                    this.mStamp = 0L;
-                    return;
+            }
+            onHistoryOfRRRecordReceived(device, stream.results());
+            if (LogUtil.isDebug()) {
+                LOG.d("onHistoryOfRRRecordReceived size:%d", Integer.valueOf(stream.results().size()));
+            }
+        }
+        stream.complete();
+    }
+
+    private void decodeHistoryOfRRData(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<HistoryOfRespiratoryRate> stream = this.mRRDataStream;
+        if (opcode == 37) {
+            if (!isChunked(stream)) {
+                if (stream.offer(data)) {
+                    stream.markStamp(this.mFrame.wrap(data.getValue()).getUInt32BE(3));
+                }
+            } else if (stream.begin()) {
+                FrameView frame = this.mFrame.wrap(data.getValue());
+                stream.markStamp(frame.getUInt32BE(3));
+                parseRespiratoryRates(frame.payload(7), stream);
+                if (pending(stream) >= this.mChunkSize) {
+                    deliverRR(device, stream, false);
                 }
-                return;
             }
-            if (iIntValue == 36) {
-                try {
-                    if (this.mRespiratoryRatesRecords == null) {
-                        this.mRespiratoryRatesRecords = new ArrayList();
-                    }
-                    long longParse4 = getLongParse(value, 3, 4);
-                    if (longParse4 != END_TAG) {
-                        this.mPackages.add(data);
-                        i = iIntValue;
-                    } else {
-                        for (int i21 = 0; i21 < this.mPackages.size(); i21++) {
-                            byte[] bArrSubSlice5 = subSlice(3, this.mPackages.get(i21).getValue());
-                            LogUtil.d("mRespiratoryRatesRecords index:%d values:%s", Integer.valueOf(i21), ParserUtils.parse(bArrSubSlice5));
-                            int i22 = 0;
-                            while (i22 < bArrSubSlice5.length / 4) {
-                                long longParse5 = getLongParse(bArrSubSlice5, i22 * 4, 4);
-                                long jRestoreZoneUTC2 = DateUtil.restoreZoneUTC(longParse5);
-                                long j2 = longParse4;
-                                i = iIntValue;
-                                try {
-                                    this.mRespiratoryRatesRecords.add(new HistoryOfRecord(longParse5, jRestoreZoneUTC2));
-                                    i22++;
-                                    longParse4 = j2;
-                                    iIntValue = i;
-                                } catch (Exception e3) {
-                                    e = e3;
-                                }
-                            }
-                        }
-                        i = iIntValue;
-                        onHistoryOfRRRecordReceived(bluetoothDevice, this.mRespiratoryRatesRecords);
-                        LogUtil.d("onHistoryOfRRRecordReceived size:%d", Integer.valueOf(this.mRespiratoryRatesRecords.size()));
-                        this.mRespiratoryRatesRecords.clear();
-                        this.mPackages.clear();
-                    }
-                    return;
-                } catch (Exception e4) {
-                    e = e4;
+            return;
+        }
+        if (stream.end()) {
+            for (int i = 0; i < stream.size(); i++) {
+                FrameView payload = this.mPackage.wrap(stream.get(i).getValue()).payload(7);
+                if (LogUtil.isDebug()) {
+                    LOG.d("index:%d HistoryOfRespiratoryRates mValues:%s", Integer.valueOf(i), payload);
                 }
-            } else {
-                if (iIntValue == 37 || iIntValue == 38) {
-                    int i23 = 3;
-                    int i24 = iIntValue;
-                    if (this.mHistoryOfRespiratoryRates == null) {
-                        this.mHistoryOfRespiratoryRates = new ArrayList();
-                    }
-                    if (i24 == 37) {
-                        if (!this.isStamp) {
-                            this.mStamp = getLongParse(value, i23, 4);
-                            this.isStamp = true;
-                        }
-                        this.mPackages.add(data);
-                    }
-                    if (i24 == 38) {
-                        for (int i25 = 0; i25 < this.mPackages.size(); i25++) {
-                            byte[] bArrSubSlice6 = subSlice(7, this.mPackages.get(i25).getValue());
-                            LogUtil.d("index:%d HistoryOfRespiratoryRates mValues:%s", Integer.valueOf(i25), ParserUtils.parse(bArrSubSlice6));
-                            for (int i26 = 0; i26 < bArrSubSlice6.length / 2; i26++) {
-                                this.mHistoryOfRespiratoryRates.add(new HistoryOfRespiratoryRate(DateUtil.restoreZoneUTC(this.mStamp), getIntParse(bArrSubSlice6, i26 * 2, 2)));
-                                this.mStamp++;
-                            }
-                        }
-                        LogUtil.d("onHistoryOfRRDataReceived :%s", this.mHistoryOfRespiratoryRates.toString());
-                        onHistoryOfRRDataReceived(bluetoothDevice, this.mHistoryOfRespiratoryRates);
-                        this.mHistoryOfRespiratoryRates.clear();
-                        this.mPackages.clear();
-                        this.isStamp = false;
-                        this.mStamp = 0L;
-                        return;
-                    }
-                    return;
+                parseRespiratoryRates(payload, stream);
+            }
+            deliverRR(device, stream, true);
+        }
+        stream.complete();
+    }
+
+    private void decodeBloodOxygen(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        if (frame.getByte(1) <= 8) {
+            return;
+        }
+        onBloodOxygenReceived(device, frame.getUInt8(3), String.valueOf(frame.getUInt8(4)), frame.getUInt8(5), frame.getUInt8(6), frame.getUInt8(7));
+    }
+
+    private void decodeTemperature(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        onTemperatureReceived(device, frame.getUInt16BE(3) / 10.0f, frame.getUInt16BE(5) / 10.0f, frame.getUInt16BE(7) / 10.0f);
+    }
+
+    private void decodeIntervalSteps(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<IntervalStep> stream = this.mIntervalStepStream;
+        if (opcode == 64) {
+            stream.offer(data);
+            return;
+        }
+        if (stream.end()) {
+            for (int i = 0; i < stream.size(); i++) {
+                FrameView payload = this.mPackage.wrap(stream.get(i).getValue()).payload(3);
+                if (LogUtil.isDebug()) {
+                    LOG.d("mIntervalSteps index:%d values:%s", Integer.valueOf(i), payload);
                 }
-                if (iIntValue == 55) {
-                    if (value[1] <= 6) {
-                        return;
-                    }
-                    int intParse = getIntParse(value, 3, 1);
-                    if (value[1] <= 8) {
-                        return;
-                    }
-                    onBloodOxygenReceived(bluetoothDevice, intParse, String.valueOf(getIntParse(value, 4, 1)), getIntParse(value, 5, 1), getIntParse(value, 6, 1), getIntParse(value, 7, 1));
-                    return;
+                for (int j = 0; j < payload.size() / 8; j++) {
+                    int offset = j * 8;
+                    stream.results().add(new IntervalStep(DateUtil.restoreZoneUTC(payload.getUInt32BE(offset)), payload.getUIntBE(offset + 4, 4)));
                 }
-                int i27 = 4;
-                if (iIntValue == 56) {
-                    onTemperatureReceived(bluetoothDevice, getIntParse(value, 3, 2) / 10.0f, getIntParse(value, 5, 2) / 10.0f, getIntParse(value, 7, 2) / 10.0f);
-                    return;
+            }
+            onIntervalStepReceived(device, stream.results());
+        }
+        stream.complete();
+    }
+
+    private void decodeSingleTapRecords(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<HistoryOfRecord> stream = this.mSingleTapStream;
+        if (opcode == 66) {
+            stream.offer(data);
+            return;
+        }
+        if (stream.end()) {
+            for (int i = 0; i < stream.size(); i++) {
+                FrameView payload = this.mPackage.wrap(stream.get(i).getValue()).payload(3);
+                if (LogUtil.isDebug()) {
+                    LOG.d("mSingleTapRecords index:%d values:%s", Integer.valueOf(i), payload);
                 }
-                if (iIntValue == 64 || iIntValue == 65) {
-                    int i28 = iIntValue;
-                    if (this.mIntervalSteps == null) {
-                        this.mIntervalSteps = new ArrayList();
-                    }
-                    if (i28 == 64) {
-                        this.mPackages.add(data);
-                    }
-                    if (i28 == 65) {
-                        for (int i29 = 0; i29 < this.mPackages.size(); i29++) {
-                            byte[] bArrSubSlice7 = subSlice(3, this.mPackages.get(i29).getValue());
-                            LogUtil.d("mIntervalSteps index:%d values:%s", Integer.valueOf(i29), ParserUtils.parse(bArrSubSlice7));
-                            for (int i30 = 0; i30 < bArrSubSlice7.length / 8; i30++) {
-                                int i31 = i30 * 8;
-                                this.mIntervalSteps.add(new IntervalStep(DateUtil.restoreZoneUTC(getLongParse(bArrSubSlice7, i31, 4)), getIntParse(bArrSubSlice7, i31 + 4, 4)));
-                            }
-                        }
-                        onIntervalStepReceived(bluetoothDevice, this.mIntervalSteps);
-                        this.mIntervalSteps.clear();
-                        this.mPackages.clear();
-                        return;
-                    }
-                    return;
+                for (int j = 0; j < payload.size() / 4; j++) {
+                    long stamp = payload.getUInt32BE(j * 4);
+                    stream.results().add(new HistoryOfRecord(stamp, DateUtil.restoreZoneUTC(stamp)));
                 }
-                if (iIntValue == 66 || iIntValue == 67) {
-                    int i32 = iIntValue;
-                    if (this.mSingleTapRecords == null) {
-                        this.mSingleTapRecords = new ArrayList();
-                    }
-                    if (i32 == 66) {
-                        this.mPackages.add(data);
-                    }
-                    if (i32 == 67) {
-                        for (int i33 = 0; i33 < this.mPackages.size(); i33++) {
-                            byte[] bArrSubSlice8 = subSlice(3, this.mPackages.get(i33).getValue());
-                            LogUtil.d("mSingleTapRecords index:%d values:%s", Integer.valueOf(i33), ParserUtils.parse(bArrSubSlice8));
-                            for (int i34 = 0; i34 < bArrSubSlice8.length / 4; i34++) {
-                                long longParse6 = getLongParse(bArrSubSlice8, i34 * 4, 4);
-                                this.mSingleTapRecords.add(new HistoryOfRecord(longParse6, DateUtil.restoreZoneUTC(longParse6)));
-                            }
-                        }
-                        onSingleTapRecordReceived(bluetoothDevice, this.mSingleTapRecords);
-                        this.mSingleTapRecords.clear();
-                        this.mPackages.clear();
-                        return;
+            }
+            onSingleTapRecordReceived(device, stream.results());
+        }
+        stream.complete();
+    }
+
+    private void decodeHeartRateStatus(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        onHeartRateStatusReceived(device, frame.getUInt8(4), frame.getUInt8(5), frame.getUInt8(6));
+    }
+
+    private void decodeHistorySingleRecord(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        onHistorySingleRecordReceived(device, DateUtil.restoreZoneUTC(frame.getUInt32BE(3)), frame.getUInt24BE(7), frame.getUInt24BE(10), frame.getUInt24BE(13));
+    }
+
+    private void decodeHeartRateAlarm(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        onHeartRateAlarmReceived(device, DateUtil.restoreZoneUTC(frame.getUInt32BE(3)), frame.getUInt8(7) == 1);
+    }
+
+    private void decodeSensor6DRaw(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        int sequence = frame.getUInt8(3);
+        parseSensorRawList(device, 255L, sequence, frame.payload(4));
+    }
+
+    private void decodeSensor6DFrequency(BluetoothDevice device, int opcode, Data data) {
+        onSensor6DFrequencyReceived(device, this.mFrame.wrap(data.getValue()).getUInt8(3));
+    }
+
+    private void decodeSensor6DRawStamped(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        long utc = DateUtil.restoreZoneUTCTimeInMillis((1000 * frame.getUInt32BE(3)) + frame.getUInt16BE(7));
+        int sequence = frame.getUInt8(9);
+        parseSensorRawList(device, utc, sequence, frame.range(10, frame.size()));
+    }
+
+    private void decodeSettings(BluetoothDevice device, int opcode, Data data) {
+        FrameView frame = this.mFrame.wrap(data.getValue());
+        int type = frame.getUInt8(4);
+        if (type == 6) {
+            onHeartRateMaxReceived(device, frame.getUInt8(5));
+        } else if (type == 11) {
+            onSensor3DFrequencyReceived(device, frame.getUInt8(5));
+        } else if (type == 12) {
+            onSensor3DStatusReceived(device, frame.getUInt8(5) == 1);
+        } else if (type == 15) {
+            onHealthReceived(device, frame.getUInt8(5), frame.getUInt8(6), frame.getUInt8(7), frame.getUInt8(8), frame.getUInt8(9), frame.getUInt32BE(10) / 1000.0f, frame.getUInt32BE(14) / 1000.0f, frame.getUInt32BE(18) / 1000.0f);
+        }
+    }
+
+    private void decodeHistoryOf3D(BluetoothDevice device, int opcode, Data data) {
+        Sensor3DBatch batch = parseSensor3DList(this.mHistoryOf3DBatches, device, this.mFrame.wrap(data.getValue()).payload(3));
+        onHistoryOf3DBatchReceived(device, batch, opcode == 120);
+    }
+
+    private void decodeHistoryOfStepRecord(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<HistoryOfRecord> stream = this.mStepRecordStream;
+        if (this.mFrame.wrap(data.getValue()).getUInt32BE(3) != END_TAG) {
+            stream.offer(data);
+            return;
+        }
+        if (stream.end()) {
+            for (int i = 0; i < stream.size(); i++) {
+                FrameView payload = this.mPackage.wrap(stream.get(i).getValue()).payload(3);
+                if (LogUtil.isDebug()) {
+                    LOG.d("mStepsRecords index:%d values:%s", Integer.valueOf(i), payload);
+                }
+                for (int j = 0; j < payload.size() / 4; j++) {
+                    long stamp = payload.getUInt32BE(j * 4);
+                    stream.results().add(new HistoryOfRecord(stamp, DateUtil.restoreZoneUTC(stamp)));
+                    if (LogUtil.isDebug()) {
+                        LOG.d("mStepsRecords index:%d record:%s", Integer.valueOf(j), Long.valueOf(stamp));
                     }
-                    return;
                 }
-                if (iIntValue == 70) {
-                    onHeartRateStatusReceived(bluetoothDevice, getIntParse(value, 4, 1), getIntParse(value, 5, 1), getIntParse(value, 6, 1));
-                    return;
+            }
+            onHistoryOfStepRecordReceived(device, stream.results());
+        }
+        stream.complete();
+    }
+
+    private void decodeHistoryOfStepData(BluetoothDevice device, int opcode, Data data) {
+        HistoryStream<HistoryOfStep> stream = this.mStepDataStream;
+        if (opcode == 145) {
+            if (!isChunked(stream)) {
+                if (stream.offer(data)) {
+                    stream.markStamp(this.mFrame.wrap(data.getValue()).getUInt32BE(3));
                 }
-                if (iIntValue != 73) {
-                    int i35 = 3;
-                    if (iIntValue == 91) {
-                        onHeartRateAlarmReceived(bluetoothDevice, DateUtil.restoreZoneUTC(getLongParse(value, 3, 4)), getIntParse(value, 7, 1) == 1);
-                        return;
-                    }
-                    if (iIntValue == 96) {
-                        parseSensorRawList(bluetoothDevice, getIntParse(value, 3, 1), new Data(subSlice(4, value)));
-                        return;
-                    }
-                    if (iIntValue == 97) {
-                        onSensor6DFrequencyReceived(bluetoothDevice, getIntParse(value, 3, 1));
-                        return;
-                    }
-                    if (iIntValue == 100) {
-                        parseSensorRawList(bluetoothDevice, DateUtil.restoreZoneUTCTimeInMillis((1000 * getLongParse(value, 3, 4)) + getIntParse(value, 7, 2)), getIntParse(value, 9, 1), data);
-                        return;
-                    }
-                    if (iIntValue == 117) {
-                        int intParse2 = getIntParse(value, 4, 1);
-                        if (intParse2 == 6) {
-                            onHeartRateMaxReceived(bluetoothDevice, getIntParse(value, 5, 1));
-                        } else if (intParse2 == 11) {
-                            onSensor3DFrequencyReceived(bluetoothDevice, getIntParse(value, 5, 1));
-                        } else if (intParse2 == 12) {
-                            onSensor3DStatusReceived(bluetoothDevice, getIntParse(value, 5, 1) == 1);
-                        } else if (intParse2 == 15) {
-                            onHealthReceived(bluetoothDevice, getIntParse(value, 5, 1), getIntParse(value, 6, 1), getIntParse(value, 7, 1), getIntParse(value, 8, 1), getIntParse(value, 9, 1), getLongParse(value, 10, 4) / 1000.0f, getLongParse(value, 14, 4) / 1000.0f, getLongParse(value, 18, 4) / 1000.0f);
-                        }
-                        return;
-                    }
-                    if (iIntValue != 119 && iIntValue != 120) {
-                        if (iIntValue != 144) {
-                            if (iIntValue != 145) {
-                                if (iIntValue == 146) {
-                                }
-                            }
-                            if (this.mHistoryOfSteps == null) {
-                                this.mHistoryOfSteps = new ArrayList();
-                            }
-                            if (iIntValue == 145) {
-                                if (!this.isStamp) {
-                                    this.mStamp = getLongParse(value, 3, 4);
-                                    this.isStamp = true;
-                                }
-                                this.mPackages.add(data);
-                            }
-                            if (iIntValue == 146) {
-                                for (int i36 = 0; i36 < this.mPackages.size(); i36++) {
-                                    byte[] bArrSubSlice9 = subSlice(7, this.mPackages.get(i36).getValue());
-                                    LogUtil.d("mHistoryOfSteps index:%d values:%s", Integer.valueOf(i36), ParserUtils.parse(bArrSubSlice9));
-                                    for (int i37 = 0; i37 < bArrSubSlice9.length / 2; i37++) {
-                                        this.mHistoryOfSteps.add(new HistoryOfStep(DateUtil.restoreZoneUTC(this.mStamp), getIntParse(bArrSubSlice9, i37 * 2, 2)));
-                                        this.mStamp++;
-                                    }
-                                }
-                                onHistoryOfStepDataReceived(bluetoothDevice, this.mHistoryOfSteps);
-                                this.mHistoryOfSteps.clear();
-                                this.mPackages.clear();
-                                this.isStamp = false;
-                                this.mStamp = 0L;
-                                return;
-                            }
-                            return;
-                        }
-                        if (this.mStepsRecords == null) {
-                            this.mStepsRecords = new ArrayList();
-                        }
-                        long longParse7 = getLongParse(value, 3, 4);
-                        if (longParse7 != END_TAG) {
-                            this.mPackages.add(data);
-                        } else {
-                            int i38 = 0;
-                            while (i38 < this.mPackages.size()) {
-                                byte[] bArrSubSlice10 = subSlice(i35, this.mPackages.get(i38).getValue());
-                                LogUtil.d("mStepsRecords index:%d values:%s", Integer.valueOf(i38), ParserUtils.parse(bArrSubSlice10));
-                                int i39 = 0;
-                                while (i39 < bArrSubSlice10.length / i27) {
-                                    long longParse8 = getLongParse(bArrSubSlice10, i39 * 4, i27);
-                                    this.mStepsRecords.add(new HistoryOfRecord(longParse8, DateUtil.restoreZoneUTC(longParse8)));
-                                    LogUtil.d("mStepsRecords index:%d record:%s", Integer.valueOf(i39), Long.valueOf(longParse8));
-                                    i39++;
-                                    longParse7 = longParse7;
-                                    i27 = 4;
-                                }
-                                i38++;
-                                i35 = 3;
-                                i27 = 4;
-                            }
-                            onHistoryOfStepRecordReceived(bluetoothDevice, this.mStepsRecords);
-                            this.mStepsRecords.clear();
-                            this.mPackages.clear();
-                        }
-                        return;
-                    }
-                    if (iIntValue == 119 || iIntValue == 120) {
-                        byte[] bArrSubSlice11 = subSlice(3, data.getValue());
-                        for (int i40 = 0; i40 < bArrSubSlice11.length / 6; i40++) {
-                            int i41 = i40 * 6;
-                            onHistoryOf3DDataReceived(bluetoothDevice, new HistoryOf3D(getSInt16(bArrSubSlice11, i41), getSInt16(bArrSubSlice11, i41 + 2), getSInt16(bArrSubSlice11, i41 + 4)), iIntValue == 120);
-                        }
-                        return;
-                    }
-                    return;
+            } else if (stream.begin()) {
+                FrameView frame = this.mFrame.wrap(data.getValue());
+                stream.markStamp(frame.getUInt32BE(3));
+                parseSteps(frame.payload(7), stream);
+                if (pending(stream) >= this.mChunkSize) {
+                    deliverStep(device, stream, false);
                 }
-                try {
-                    onHistorySingleRecordReceived(bluetoothDevice, DateUtil.restoreZoneUTC(getLongParse(value, 3, 4)), getLongParse(value, 7, 3), getLongParse(value, 10, 3), getLongParse(value, 13, 3));
-                    return;
-                } catch (Exception e5) {
-                    e = e5;
+            }
+            return;
+        }
+        if (stream.end()) {
+            for (int i = 0; i < stream.size(); i++) {
+                FrameView payload = this.mPackage.wrap(stream.get(i).getValue()).payload(7);
+                if (LogUtil.isDebug()) {
+                    LOG.d("mHistoryOfSteps index:%d values:%s", Integer.valueOf(i), payload);
                 }
+                parseSteps(payload, stream);
             }
-            e.printStackTrace();
+            deliverStep(device, stream, true);
         }
+        stream.complete();
     }
 
-    public void setCL833(boolean isCL833) {
-        this.isCL833 = isCL833;
+    public void setStreaming(boolean streaming) {
+        this.isStreaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return this.isStreaming;
     }
 
-    private int getSInt16(byte[] data, int offset) {
-        return unsignedToSigned(unsignedBytesToInt(data[offset], data[offset + 1]), 16);
+    public void setColumnar(boolean columnar) {
+        this.isColumnar = columnar;
     }
 
-    private int unsignedByteToInt(final byte b) {
-        return b & UByte.MAX_VALUE;
+    public boolean isColumnar() {
+        return this.isColumnar;
     }
 
-    private int unsignedBytesToInt(final byte b0, final byte b1) {
-        return unsignedByteToInt(b0) + (unsignedByteToInt(b1) << 8);
+    public void setChunkSize(int chunkSize) {
+        this.mChunkSize = Math.max(1, chunkSize);
     }
 
-    private int unsignedToSigned(int unsigned, final int size) {
-        if (((1 << (size - 1)) & unsigned) != 0) {
-            return ((1 << (size - 1)) - (unsigned & ((1 << (size - 1)) - 1))) * (-1);
+    public void setCL833(boolean isCL833) {
+        if (isCL833) {
+            this.mRegistry.register(22, this::decodeCL833HistoryOfSport);
+        } else {
+            this.mRegistry.register(22, this::decodeHistoryOfSport);
         }
-        return unsigned;
     }
 
     public void clearType(int type) {
+        clearType(type, false);
+    }
+
+    public void clearType(int type, boolean chunked) {
+        HistoryStream<?> stream = getStream(type);
+        if (stream != null) {
+            stream.reset(chunked);
+        } else if (type == 22) {
+            List<HistorySleep> list = this.mHistoryOfSleeps;
+            if (list != null) {
+                list.clear();
+            }
+        }
+    }
+
+    public boolean isChunked(int type) {
+        HistoryStream<?> stream = getStream(type);
+        return stream != null && stream.isChunked();
+    }
+
+    public synchronized void flush(BluetoothDevice device) {
+        if (isFlushable(this.mHRDataStream)) {
+            deliverHR(device, this.mHRDataStream, false);
+        }
+        if (isFlushable(this.mRRDataStream)) {
+            deliverRR(device, this.mRRDataStream, false);
+        }
+        if (isFlushable(this.mStepDataStream)) {
+            deliverStep(device, this.mStepDataStream, false);
+        }
+        this.mHRDataStream.complete();
+        this.mRRDataStream.complete();
+        this.mStepDataStream.complete();
+    }
+
+    public void setHistoryCapacity(int type, int packages) {
+        HistoryStream<?> stream = getStream(type);
+        if (stream != null) {
+            stream.setCapacity(packages);
+        }
+    }
+
+    private HistoryStream<?> getStream(int type) {
         switch (type) {
             case 2:
-                List<HistoryOfSport> list = this.mHistoryOfSports;
-                if (list != null) {
-                    list.clear();
-                    break;
-                }
-                break;
+                return this.mSportStream;
             case 4:
-                List<HistoryOfRecord> list2 = this.mHistoryOfRecords;
-                if (list2 != null) {
-                    list2.clear();
-                    break;
-                }
-                break;
+                return this.mHRRecordStream;
             case 6:
-                List<HistoryOfHeartRate> list3 = this.mHistoryOfHeartRates;
-                if (list3 != null) {
-                    list3.clear();
-                    break;
-                }
-                break;
+                return this.mHRDataStream;
             case 8:
-                List<HistoryOfRecord> list4 = this.mRespiratoryRatesRecords;
-                if (list4 != null) {
-                    list4.clear();
-                    break;
-                }
-                break;
+                return this.mRRRecordStream;
             case 16:
-                List<HistoryOfRespiratoryRate> list5 = this.mHistoryOfRespiratoryRates;
-                if (list5 != null) {
-                    list5.clear();
-                    break;
-                }
-                break;
+                return this.mRRDataStream;
             case 18:
-                List<IntervalStep> list6 = this.mIntervalSteps;
-                if (list6 != null) {
-                    list6.clear();
-                    break;
-                }
-                break;
+                return this.mIntervalStepStream;
             case 20:
-                List<HistoryOfRecord> list7 = this.mSingleTapRecords;
-                if (list7 != null) {
-                    list7.clear();
-                    break;
-                }
-                break;
-            case 22:
-                List<HistorySleep> list8 = this.mHistoryOfSleeps;
-                if (list8 != null) {
-                    list8.clear();
-                    break;
-                }
-                break;
+                return this.mSingleTapStream;
             case 32:
-                List<HistoryOfRecord> list9 = this.mStepsRecords;
-                if (list9 != null) {
-                    list9.clear();
-                    break;
-                }
-                break;
+                return this.mStepRecordStream;
             case 34:
-                List<HistoryOfStep> list10 = this.mHistoryOfSteps;
-                if (list10 != null) {
-                    list10.clear();
-                    break;
+                return this.mStepDataStream;
+            default:
+                return null;
+        }
+    }
+
+    protected void onHistoryProgress(int type, List<?> items) {
+    }
+
+    private boolean isChunked(HistoryStream<?> stream) {
+        return this.isStreaming || (!this.isColumnar && stream.isChunked());
+    }
+
+    private boolean isFlushable(HistoryStream<?> stream) {
+        return (this.isStreaming || this.isColumnar || stream.isChunked()) && stream.isReceiving() && pending(stream) > 0;
+    }
+
+    private int pending(HistoryStream<?> stream) {
+        return this.isColumnar ? stream.series().size() : stream.pending();
+    }
+
+    private void deliverHR(BluetoothDevice device, HistoryStream<HistoryOfHeartRate> stream, boolean last) {
+        if (this.isColumnar) {
+            onHistorySeriesReceived(device, stream.series(), last);
+            stream.series().clear();
+        } else if (this.isStreaming) {
+            onHistoryOfHRDataChunkReceived(device, stream.results(), last);
+            stream.results().clear();
+        } else {
+            if (stream.isChunked()) {
+                onHistoryProgress(TYPE_HEARTS, stream.drain());
+            }
+            if (last) {
+                onHistoryOfHRDataReceived(device, stream.results());
+            }
+        }
+    }
+
+    private void parseHeartRates(final FrameView payload, final HistoryStream<HistoryOfHeartRate> stream) {
+        if (this.isColumnar) {
+            HistorySeries series = stream.series();
+            if (series.isEmpty()) {
+                series.setBaseStamp(stream.stamp());
+            }
+            for (int j = 4; j < payload.size(); j++) {
+                series.append(payload.getUInt8(j));
+                stream.nextStamp();
+            }
+            return;
+        }
+        for (int j = 4; j < payload.size(); j++) {
+            stream.results().add(new HistoryOfHeartRate(DateUtil.restoreZoneUTC(stream.nextStamp()), payload.getUInt8(j)));
+        }
+    }
+
+    private void deliverRR(BluetoothDevice device, HistoryStream<HistoryOfRespiratoryRate> stream, boolean last) {
+        if (this.isColumnar) {
+            onHistorySeriesReceived(device, stream.series(), last);
+            stream.series().clear();
+        } else if (this.isStreaming) {
+            onHistoryOfRRDataChunkReceived(device, stream.results(), last);
+            stream.results().clear();
+        } else {
+            if (stream.isChunked()) {
+                onHistoryProgress(TYPE_HEART_RRS, stream.drain());
+            }
+            if (last) {
+                if (LogUtil.isDebug()) {
+                    LOG.d("onHistoryOfRRDataReceived :%s", stream.results());
                 }
-                break;
+                onHistoryOfRRDataReceived(device, stream.results());
+            }
         }
-        this.mPackages.clear();
-        this.isStamp = false;
-        this.mStamp = 0L;
     }
 
-    private void parseSportHistory(final byte[] value) {
-        WearReceivedDataCallback wearReceivedDataCallback = this;
-        byte[] bArr = value;
-        LogUtil.d("HistoryOfSport length:%d values:%s", Integer.valueOf(bArr.length), ParserUtils.parse(value));
-        int i = 0;
-        while (i < bArr.length / 10) {
-            int offset = i * 10;
-            long stamp = wearReceivedDataCallback.getLongParse(bArr, offset, 4);
-            long step = wearReceivedDataCallback.getLongParse(bArr, offset + 4, 3);
-            long calorie = wearReceivedDataCallback.getLongParse(bArr, offset + 7, 3);
-            wearReceivedDataCallback.mHistoryOfSports.add(new HistoryOfSport(DateUtil.restoreZoneUTC(stamp), step, calorie));
-            i++;
-            wearReceivedDataCallback = this;
-            bArr = value;
+    private void parseRespiratoryRates(final FrameView payload, final HistoryStream<HistoryOfRespiratoryRate> stream) {
+        if (this.isColumnar) {
+            HistorySeries series = stream.series();
+            if (series.isEmpty()) {
+                series.setBaseStamp(stream.stamp());
+            }
+            for (int j = 0; j < payload.size() / 2; j++) {
+                series.append(payload.getUInt16BE(j * 2));
+                stream.nextStamp();
+            }
+            return;
+        }
+        for (int j = 0; j < payload.size() / 2; j++) {
+            stream.results().add(new HistoryOfRespiratoryRate(DateUtil.restoreZoneUTC(stream.nextStamp()), payload.getUInt16BE(j * 2)));
         }
     }
 
-    private synchronized void parseSensorRawList(BluetoothDevice device, final int sequence, final Data data) {
-        LogUtil.d("parseSensorRawList values:%s", ParserUtils.parse(data.getValue()));
-        for (int i = 0; i < data.size() / 12; i++) {
-            int offset = i * 12;
-            int gyroscopeX = data.getIntValue(34, offset).intValue();
-            int gyroscopeY = data.getIntValue(34, offset + 2).intValue();
-            int gyroscopeZ = data.getIntValue(34, offset + 4).intValue();
-            int accelerometerX = data.getIntValue(34, offset + 6).intValue();
-            int accelerometerY = data.getIntValue(34, offset + 8).intValue();
-            int accelerometerZ = data.getIntValue(34, offset + 10).intValue();
-            onSensor6DRawDataReceived(device, 255L, sequence, gyroscopeX, gyroscopeY, gyroscopeZ, accelerometerX, accelerometerY, accelerometerZ);
+    private void deliverStep(BluetoothDevice device, HistoryStream<HistoryOfStep> stream, boolean last) {
+        if (this.isColumnar) {
+            onHistorySeriesReceived(device, stream.series(), last);
+            stream.series().clear();
+        } else if (this.isStreaming) {
+            onHistoryOfStepDataChunkReceived(device, stream.results(), last);
+            stream.results().clear();
+        } else {
+            if (stream.isChunked()) {
+                onHistoryProgress(TYPE_STEPS, stream.drain());
+            }
+            if (last) {
+                onHistoryOfStepDataReceived(device, stream.results());
+            }
         }
     }
 
-    private synchronized void parseSensorRawList(BluetoothDevice device, final long utc, final int sequence, final Data data) {
-        for (int i = 0; i < data.size() / 12; i++) {
-            int offset = i * 12;
-            int gyroscopeX = data.getIntValue(34, offset + 10).intValue();
-            int gyroscopeY = data.getIntValue(34, offset + 12).intValue();
-            int gyroscopeZ = data.getIntValue(34, offset + 14).intValue();
-            int accelerometerX = data.getIntValue(34, offset + 16).intValue();
-            int accelerometerY = data.getIntValue(34, offset + 18).intValue();
-            int accelerometerZ = data.getIntValue(34, offset + 20).intValue();
-            onSensor6DRawDataReceived(device, utc, sequence, gyroscopeX, gyroscopeY, gyroscopeZ, accelerometerX, accelerometerY, accelerometerZ);
+    private void parseSteps(final FrameView payload, final HistoryStream<HistoryOfStep> stream) {
+        if (this.isColumnar) {
+            HistorySeries series = stream.series();
+            if (series.isEmpty()) {
+                series.setBaseStamp(stream.stamp());
+            }
+            for (int j = 0; j < payload.size() / 2; j++) {
+                series.append(payload.getUInt16BE(j * 2));
+                stream.nextStamp();
+            }
+            return;
+        }
+        for (int j = 0; j < payload.size() / 2; j++) {
+            stream.results().add(new HistoryOfStep(DateUtil.restoreZoneUTC(stream.nextStamp()), payload.getUInt16BE(j * 2)));
         }
     }
 
-    private synchronized byte[] subSlice(final int start, final byte[] value) {
-        return HexUtil.subByte(value, start, value.length - 1);
+    private void parseSportHistory(final FrameView payload, final List<HistoryOfSport> sports) {
+        if (LogUtil.isDebug()) {
+            LOG.d("HistoryOfSport length:%d values:%s", Integer.valueOf(payload.size()), payload);
+        }
+        for (int i = 0; i < payload.size() / 10; i++) {
+            int offset = i * 10;
+            long stamp = payload.getUInt32BE(offset);
+            long step = payload.getUInt24BE(offset + 4);
+            long calorie = payload.getUInt24BE(offset + 7);
+            sports.add(new HistoryOfSport(DateUtil.restoreZoneUTC(stamp), step, calorie));
+        }
     }
 
-    private long getLongParse(byte[] bytes, int pos, int len) {
-        long val = 0;
-        for (int i = pos; i < len + pos; i++) {
-            val = (val << 8) | (bytes[i] & 255);
+    private Sensor3DBatch parseSensor3DList(final Map<BluetoothDevice, Sensor3DBatch> batches, BluetoothDevice device, final FrameView samples) {
+        Sensor3DBatch batch = batches.get(device);
+        if (batch == null) {
+            batch = new Sensor3DBatch();
+            batches.put(device, batch);
+        }
+        int count = samples.size() / 6;
+        batch.reset(count);
+        for (int i = 0; i < count; i++) {
+            int offset = i * 6;
+            batch.set(i, samples.getSInt16LE(offset), samples.getSInt16LE(offset + 2), samples.getSInt16LE(offset + 4));
         }
-        return val;
+        return batch;
     }
 
-    private int getIntParse(byte[] bytes, int pos, int len) {
-        int val = 0;
-        int len2 = len + pos;
-        for (int i = pos; i < len2; i++) {
-            val = (val << 8) | (bytes[i] & UByte.MAX_VALUE);
+    private void parseSensorRawList(BluetoothDevice device, final long utc, final int sequence, final FrameView samples) {
+        if (LogUtil.isDebug()) {
+            LOG.d("parseSensorRawList values:%s", samples);
+        }
+        Sensor6DBatch batch = this.m6DBatches.get(device);
+        if (batch == null) {
+            batch = new Sensor6DBatch();
+            this.m6DBatches.put(device, batch);
+        }
+        int count = samples.size() / 12;
+        batch.reset(utc, sequence, count);
+        for (int i = 0; i < count; i++) {
+            int offset = i * 12;
+            batch.set(i, samples.getSInt16LE(offset), samples.getSInt16LE(offset + 2), samples.getSInt16LE(offset + 4), samples.getSInt16LE(offset + 6), samples.getSInt16LE(offset + 8), samples.getSInt16LE(offset + 10));
         }
-        return val;
+        onSensor6DBatchReceived(device, batch);
     }
 }
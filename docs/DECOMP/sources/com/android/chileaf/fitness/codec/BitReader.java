@@ -0,0 +1,32 @@
+package com.android.chileaf.fitness.codec;
+
+import java.nio.ByteBuffer;
+
+final class BitReader {
+    private long mAccumulator;
+    private int mAvailable;
+    private final ByteBuffer mBuffer;
+    private int mPosition;
+
+    BitReader(final ByteBuffer buffer, final int position) {
+        this.mBuffer = buffer;
+        this.mPosition = position;
+    }
+
+    long read(final int bits) {
+        if (bits > 32) {
+            long high = read(bits - 32);
+            return (high << 32) | read(32);
+        }
+        while (this.mAvailable < bits) {
+            this.mAccumulator = (this.mAccumulator << 8) | (this.mBuffer.get(this.mPosition++) & 255);
+            this.mAvailable += 8;
+        }
+        this.mAvailable -= bits;
+        return (this.mAccumulator >>> this.mAvailable) & ((1L << bits) - 1);
+    }
+
+    boolean readBit() {
+        return read(1) != 0;
+    }
+}
@@ -0,0 +1,75 @@
+package com.android.chileaf.fitness.codec;
+
+import java.util.Arrays;
+
+final class BitWriter {
+    private long mAccumulator;
+    private byte[] mBuffer;
+    private int mPending;
+    private int mSize;
+
+    BitWriter(final int capacity) {
+        this.mBuffer = new byte[Math.max(16, capacity)];
+    }
+
+    void write(final long value, final int bits) {
+        if (bits > 32) {
+            write(value >>> 32, bits - 32);
+            write(value & 0xFFFFFFFFL, 32);
+            return;
+        }
+        this.mAccumulator = (this.mAccumulator << bits) | (value & ((1L << bits) - 1));
+        this.mPending += bits;
+        while (this.mPending >= 8) {
+            this.mPending -= 8;
+            put((byte) (this.mAccumulator >>> this.mPending));
+        }
+        this.mAccumulator &= (1L << this.mPending) - 1;
+    }
+
+    void align() {
+        if (this.mPending > 0) {
+            put((byte) (this.mAccumulator << (8 - this.mPending)));
+            this.mAccumulator = 0L;
+            this.mPending = 0;
+        }
+    }
+
+    void putShort(final int value) {
+        put((byte) (value >>> 8));
+        put((byte) value);
+    }
+
+    void putInt(final int value) {
+        putShort(value >>> 16);
+        putShort(value);
+    }
+
+    void putLong(final long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    void putInt(final int position, final int value) {
+        this.mBuffer[position] = (byte) (value >>> 24);
+        this.mBuffer[position + 1] = (byte) (value >>> 16);
+        this.mBuffer[position + 2] = (byte) (value >>> 8);
+        this.mBuffer[position + 3] = (byte) value;
+    }
+
+    void put(final byte value) {
+        if (this.mSize == this.mBuffer.length) {
+            this.mBuffer = Arrays.copyOf(this.mBuffer, this.mBuffer.length * 2);
+        }
+        this.mBuffer[this.mSize++] = value;
+    }
+
+    int size() {
+        return this.mSize;
+    }
+
+    byte[] toByteArray() {
+        align();
+        return Arrays.copyOf(this.mBuffer, this.mSize);
+    }
+}
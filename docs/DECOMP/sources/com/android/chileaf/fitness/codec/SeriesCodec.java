@@ -0,0 +1,83 @@
+package com.android.chileaf.fitness.codec;
+
+import com.android.chileaf.fitness.store.TimeSeries;
+import com.android.chileaf.model.HistoryOfHeartRate;
+import com.android.chileaf.model.HistoryOfRespiratoryRate;
+import com.android.chileaf.model.HistoryOfStep;
+import com.android.chileaf.model.HistorySeries;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SeriesCodec {
+    static final int MAGIC = 0x434C5343;
+    static final int VERSION = 1;
+
+    private SeriesCodec() {
+    }
+
+    public static byte[] encodeHeartRates(final List<HistoryOfHeartRate> heartRates) {
+        SeriesEncoder encoder = new SeriesEncoder();
+        for (HistoryOfHeartRate heartRate : heartRates) {
+            encoder.add(heartRate.stamp, heartRate.heartRate);
+        }
+        return encoder.toByteArray();
+    }
+
+    public static List<HistoryOfHeartRate> decodeHeartRates(final byte[] data) {
+        SeriesDecoder decoder = new SeriesDecoder(data);
+        List<HistoryOfHeartRate> heartRates = new ArrayList<>(decoder.size());
+        decoder.decode((stamp, value) -> heartRates.add(new HistoryOfHeartRate(stamp, value)));
+        return heartRates;
+    }
+
+    public static byte[] encodeRespiratoryRates(final List<HistoryOfRespiratoryRate> respiratoryRates) {
+        SeriesEncoder encoder = new SeriesEncoder();
+        for (HistoryOfRespiratoryRate respiratoryRate : respiratoryRates) {
+            encoder.add(respiratoryRate.stamp, respiratoryRate.respiratoryRate);
+        }
+        return encoder.toByteArray();
+    }
+
+    public static List<HistoryOfRespiratoryRate> decodeRespiratoryRates(final byte[] data) {
+        SeriesDecoder decoder = new SeriesDecoder(data);
+        List<HistoryOfRespiratoryRate> respiratoryRates = new ArrayList<>(decoder.size());
+        decoder.decode((stamp, value) -> respiratoryRates.add(new HistoryOfRespiratoryRate(stamp, value)));
+        return respiratoryRates;
+    }
+
+    public static byte[] encodeSteps(final List<HistoryOfStep> steps) {
+        SeriesEncoder encoder = new SeriesEncoder();
+        for (HistoryOfStep step : steps) {
+            encoder.add(step.stamp, step.steps);
+        }
+        return encoder.toByteArray();
+    }
+
+    public static List<HistoryOfStep> decodeSteps(final byte[] data) {
+        SeriesDecoder decoder = new SeriesDecoder(data);
+        List<HistoryOfStep> steps = new ArrayList<>(decoder.size());
+        decoder.decode((stamp, value) -> steps.add(new HistoryOfStep(stamp, value)));
+        return steps;
+    }
+
+    public static byte[] encode(final HistorySeries series) {
+        SeriesEncoder encoder = new SeriesEncoder();
+        series.forEach(encoder::add);
+        return encoder.toByteArray();
+    }
+
+    public static byte[] encode(final TimeSeries series, final long from, final long to) throws IOException {
+        SeriesEncoder encoder = new SeriesEncoder();
+        series.scanInts(from, to, encoder::add);
+        return encoder.toByteArray();
+    }
+
+    static long zigzag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(final long value) {
+        return (value >>> 1) ^ (-(value & 1));
+    }
+}
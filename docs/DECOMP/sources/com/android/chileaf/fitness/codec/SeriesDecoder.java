@@ -0,0 +1,151 @@
+package com.android.chileaf.fitness.codec;
+
+import java.nio.ByteBuffer;
+
+public final class SeriesDecoder {
+    private static final int BLOCK_HEADER = 44;
+    private static final int STREAM_HEADER = 8;
+    private final ByteBuffer mBuffer;
+    private final int mEnd;
+    private final int mStart;
+
+    public interface Visitor {
+        void visit(long stamp, int value);
+    }
+
+    public SeriesDecoder(final byte[] data) {
+        this(ByteBuffer.wrap(data));
+    }
+
+    public SeriesDecoder(final ByteBuffer buffer) {
+        this.mBuffer = buffer;
+        this.mStart = buffer.position();
+        this.mEnd = buffer.limit();
+        if (this.mEnd - this.mStart < STREAM_HEADER || buffer.getInt(this.mStart) != SeriesCodec.MAGIC) {
+            throw new IllegalArgumentException("Not an encoded series");
+        }
+        int version = buffer.getInt(this.mStart + 4);
+        if (version != SeriesCodec.VERSION) {
+            throw new IllegalArgumentException("Unsupported series version: " + version);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (int position = this.mStart + STREAM_HEADER; position < this.mEnd; position = next(position)) {
+            size += count(position);
+        }
+        return size;
+    }
+
+    public int blocks() {
+        int blocks = 0;
+        for (int position = this.mStart + STREAM_HEADER; position < this.mEnd; position = next(position)) {
+            blocks++;
+        }
+        return blocks;
+    }
+
+    public int decode(final Visitor visitor) {
+        return decode(Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+    }
+
+    public int decode(final long from, final long to, final Visitor visitor) {
+        int visited = 0;
+        for (int position = this.mStart + STREAM_HEADER; position < this.mEnd; position = next(position)) {
+            if (lastStamp(position) < from) {
+                continue;
+            }
+            if (firstStamp(position) > to) {
+                continue;
+            }
+            visited += decodeBlock(position, from, to, visitor);
+        }
+        return visited;
+    }
+
+    public SeriesSummary summarize() {
+        return summarize(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public SeriesSummary summarize(final long from, final long to) {
+        SeriesSummary summary = new SeriesSummary();
+        ByteBuffer buffer = this.mBuffer;
+        for (int position = this.mStart + STREAM_HEADER; position < this.mEnd; position = next(position)) {
+            long first = firstStamp(position);
+            long last = lastStamp(position);
+            if (last < from) {
+                continue;
+            }
+            if (first > to) {
+                continue;
+            }
+            if (first >= from && last <= to) {
+                summary.add(count(position), first, last, buffer.getInt(position + 24), buffer.getInt(position + 28), buffer.getLong(position + 32));
+            } else {
+                decodeBlock(position, from, to, summary::add);
+            }
+        }
+        return summary;
+    }
+
+    private int decodeBlock(final int position, final long from, final long to, final Visitor visitor) {
+        ByteBuffer buffer = this.mBuffer;
+        int count = count(position);
+        int valueBits = buffer.get(position + 2) & 255;
+        long stamp = firstStamp(position);
+        int value = buffer.getInt(position + 20);
+        int visited = 0;
+        if (stamp >= from && stamp <= to) {
+            visitor.visit(stamp, value);
+            visited++;
+        }
+        BitReader reader = new BitReader(buffer, position + BLOCK_HEADER);
+        long delta = 0;
+        for (int i = 1; i < count; i++) {
+            delta += readStamp(reader);
+            stamp += delta;
+            value = (int) (value + SeriesCodec.unzigzag(reader.read(valueBits)));
+            if (stamp > to) {
+                break;
+            }
+            if (stamp >= from) {
+                visitor.visit(stamp, value);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    private static long readStamp(final BitReader reader) {
+        if (!reader.readBit()) {
+            return 0L;
+        }
+        if (!reader.readBit()) {
+            return SeriesCodec.unzigzag(reader.read(7));
+        }
+        if (!reader.readBit()) {
+            return SeriesCodec.unzigzag(reader.read(12));
+        }
+        if (!reader.readBit()) {
+            return SeriesCodec.unzigzag(reader.read(20));
+        }
+        return SeriesCodec.unzigzag(reader.read(64));
+    }
+
+    private int count(final int position) {
+        return this.mBuffer.getShort(position) & 65535;
+    }
+
+    private long firstStamp(final int position) {
+        return this.mBuffer.getLong(position + 4);
+    }
+
+    private long lastStamp(final int position) {
+        return this.mBuffer.getLong(position + 12);
+    }
+
+    private int next(final int position) {
+        return position + BLOCK_HEADER + this.mBuffer.getInt(position + 40);
+    }
+}
@@ -0,0 +1,110 @@
+package com.android.chileaf.fitness.codec;
+
+public final class SeriesEncoder {
+    public static final int DEFAULT_BLOCK_SIZE = 512;
+    public static final int MAX_BLOCK_SIZE = 65535;
+    private final int mBlockSize;
+    private int mCount;
+    private final long[] mStamps;
+    private final int[] mValues;
+    private final BitWriter mWriter;
+
+    public SeriesEncoder() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public SeriesEncoder(final int blockSize) {
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("blockSize out of range: " + blockSize);
+        }
+        this.mBlockSize = blockSize;
+        this.mStamps = new long[blockSize];
+        this.mValues = new int[blockSize];
+        this.mWriter = new BitWriter(blockSize * 2);
+        this.mWriter.putInt(SeriesCodec.MAGIC);
+        this.mWriter.putInt(SeriesCodec.VERSION);
+    }
+
+    public SeriesEncoder add(final long stamp, final int value) {
+        if (this.mCount > 0 && stamp < this.mStamps[this.mCount - 1]) {
+            flush();
+        }
+        this.mStamps[this.mCount] = stamp;
+        this.mValues[this.mCount] = value;
+        this.mCount++;
+        if (this.mCount == this.mBlockSize) {
+            flush();
+        }
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        flush();
+        return this.mWriter.toByteArray();
+    }
+
+    private void flush() {
+        int count = this.mCount;
+        if (count == 0) {
+            return;
+        }
+        long[] stamps = this.mStamps;
+        int[] values = this.mValues;
+        int min = values[0];
+        int max = values[0];
+        long sum = values[0];
+        long widest = 0;
+        for (int i = 1; i < count; i++) {
+            int value = values[i];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            widest |= SeriesCodec.zigzag((long) value - values[i - 1]);
+        }
+        int valueBits = 64 - Long.numberOfLeadingZeros(widest);
+        BitWriter writer = this.mWriter;
+        writer.align();
+        writer.putShort(count);
+        writer.put((byte) valueBits);
+        writer.put((byte) 0);
+        writer.putLong(stamps[0]);
+        writer.putLong(stamps[count - 1]);
+        writer.putInt(values[0]);
+        writer.putInt(min);
+        writer.putInt(max);
+        writer.putLong(sum);
+        int length = writer.size();
+        writer.putInt(0);
+        long delta = 0;
+        for (int i = 1; i < count; i++) {
+            long next = stamps[i] - stamps[i - 1];
+            writeStamp(writer, next - delta);
+            delta = next;
+            writer.write(SeriesCodec.zigzag((long) values[i] - values[i - 1]), valueBits);
+        }
+        writer.align();
+        writer.putInt(length, writer.size() - length - 4);
+        this.mCount = 0;
+    }
+
+    private static void writeStamp(final BitWriter writer, final long dod) {
+        if (dod == 0) {
+            writer.write(0L, 1);
+            return;
+        }
+        long zigzag = SeriesCodec.zigzag(dod);
+        if (zigzag < 128) {
+            writer.write(2L, 2);
+            writer.write(zigzag, 7);
+        } else if (zigzag < 4096) {
+            writer.write(6L, 3);
+            writer.write(zigzag, 12);
+        } else if (zigzag < 1048576) {
+            writer.write(14L, 4);
+            writer.write(zigzag, 20);
+        } else {
+            writer.write(15L, 4);
+            writer.write(zigzag, 64);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.android.chileaf.fitness.codec;
+
+public final class SeriesSummary {
+    public int count;
+    public long firstStamp;
+    public long lastStamp;
+    public int max = Integer.MIN_VALUE;
+    public int min = Integer.MAX_VALUE;
+    public long sum;
+
+    void add(final long stamp, final int value) {
+        this.firstStamp = this.count == 0 ? stamp : Math.min(this.firstStamp, stamp);
+        this.lastStamp = this.count == 0 ? stamp : Math.max(this.lastStamp, stamp);
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+        this.sum += value;
+        this.count++;
+    }
+
+    void add(final int count, final long firstStamp, final long lastStamp, final int min, final int max, final long sum) {
+        this.firstStamp = this.count == 0 ? firstStamp : Math.min(this.firstStamp, firstStamp);
+        this.lastStamp = this.count == 0 ? lastStamp : Math.max(this.lastStamp, lastStamp);
+        this.min = Math.min(this.min, min);
+        this.max = Math.max(this.max, max);
+        this.sum += sum;
+        this.count += count;
+    }
+
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    public double mean() {
+        return this.count == 0 ? 0.0d : this.sum / (double) this.count;
+    }
+
+    public String toString() {
+        return "SeriesSummary{count=" + this.count + ", firstStamp=" + this.firstStamp + ", lastStamp=" + this.lastStamp + ", min=" + this.min + ", max=" + this.max + ", sum=" + this.sum + '}';
+    }
+}
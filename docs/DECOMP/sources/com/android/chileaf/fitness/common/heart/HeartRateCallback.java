@@ -0,0 +1,12 @@
+package com.android.chileaf.fitness.common.heart;
+
+import android.bluetooth.BluetoothDevice;
+
+public interface HeartRateCallback {
+    int CONTACT_DETECTED = 3;
+    int CONTACT_NOT_DETECTED = 2;
+    int CONTACT_NOT_SUPPORTED = 0;
+    int ENERGY_NOT_PRESENT = -1;
+
+    void onHeartRate(final BluetoothDevice device, final int bpm, final int contactState, final int energy, final int[] rr, final int rrCount);
+}
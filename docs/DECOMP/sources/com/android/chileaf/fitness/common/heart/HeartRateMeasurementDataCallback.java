@@ -4,62 +4,95 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
 import no.nordicsemi.android.ble.data.Data;
 
 /* loaded from: C:\Users\UserDemo\Downloads\New folder\CHILEAF\classes.dex */
-public abstract class HeartRateMeasurementDataCallback extends ProfileReadResponse implements HeartRateMeasurementCallback {
+public abstract class HeartRateMeasurementDataCallback extends ProfileReadResponse implements HeartRateMeasurementCallback, HeartRateCallback {
+    private final Map<BluetoothDevice, int[]> mBuffers;
+
     public HeartRateMeasurementDataCallback() {
+        this.mBuffers = new HashMap();
     }
 
     protected HeartRateMeasurementDataCallback(final Parcel in) {
         super(in);
+        this.mBuffers = new HashMap();
     }
 
     @Override // no.nordicsemi.android.ble.response.ReadResponse, no.nordicsemi.android.ble.callback.DataReceivedCallback
     public void onDataReceived(final BluetoothDevice device, final Data data) {
-        List<Integer> intervals;
         super.onDataReceived(device, data);
-        if (data.size() >= 2) {
-            int flags = data.getIntValue(17, 0).intValue();
-            int hearRateType = (flags & 1) != 0 ? 18 : 17;
+        byte[] value = data.getValue();
+        int size = value != null ? value.length : 0;
+        if (size >= 2) {
+            int flags = value[0] & 255;
+            boolean isUInt16 = (flags & 1) != 0;
             int sensorContactStatus = (flags & 6) >> 1;
-            boolean sensorContactSupported = sensorContactStatus == 2 || sensorContactStatus == 3;
-            boolean sensorContactDetected = sensorContactStatus == 3;
             boolean energyExpandedPresent = (flags & 8) != 0;
             boolean rrIntervalsPresent = (flags & 16) != 0;
-            int offset = 0 + 1;
-            if (data.size() < (hearRateType & 15) + 1 + (energyExpandedPresent ? 2 : 0) + (rrIntervalsPresent ? 2 : 0)) {
+            if (size < (isUInt16 ? 2 : 1) + 1 + (energyExpandedPresent ? 2 : 0) + (rrIntervalsPresent ? 2 : 0)) {
                 onInvalidDataReceived(device, data);
                 return;
             }
-            Boolean sensorContact = sensorContactSupported ? Boolean.valueOf(sensorContactDetected) : null;
-            int heartRate = data.getIntValue(hearRateType, offset).intValue();
-            int offset2 = offset + (hearRateType & 15);
-            Integer energyExpanded = null;
+            int offset = 1;
+            int heartRate;
+            if (isUInt16) {
+                heartRate = uint16(value, offset);
+                offset += 2;
+            } else {
+                heartRate = value[offset] & 255;
+                offset++;
+            }
+            int energy = HeartRateCallback.ENERGY_NOT_PRESENT;
             if (energyExpandedPresent) {
-                energyExpanded = data.getIntValue(18, offset2);
-                offset2 += 2;
+                energy = uint16(value, offset);
+                offset += 2;
             }
-            if (!rrIntervalsPresent) {
-                intervals = null;
-            } else {
-                int count = (data.size() - offset2) / 2;
-                List<Integer> intervals2 = new ArrayList<>(count);
-                int i = 0;
-                while (i < count) {
-                    intervals2.add(data.getIntValue(18, offset2));
-                    offset2 += 2;
-                    i++;
-                    hearRateType = hearRateType;
+            int count = 0;
+            int[] rr = null;
+            if (rrIntervalsPresent) {
+                count = (size - offset) / 2;
+                rr = obtainBuffer(device, count);
+                for (int i = 0; i < count; i++) {
+                    rr[i] = uint16(value, offset);
+                    offset += 2;
                 }
-                List<Integer> rrIntervals = Collections.unmodifiableList(intervals2);
-                intervals = rrIntervals;
             }
-            onHeartRateMeasurementReceived(device, heartRate, sensorContact, energyExpanded, intervals);
+            onHeartRate(device, heartRate, sensorContactStatus == 1 ? HeartRateCallback.CONTACT_NOT_SUPPORTED : sensorContactStatus, energy, rr, rrIntervalsPresent ? count : -1);
             return;
         }
         onInvalidDataReceived(device, data);
     }
+
+    @Override // com.android.chileaf.fitness.common.heart.HeartRateCallback
+    public void onHeartRate(final BluetoothDevice device, final int bpm, final int contactState, final int energy, final int[] rr, final int rrCount) {
+        Boolean sensorContact = contactState != HeartRateCallback.CONTACT_NOT_SUPPORTED ? Boolean.valueOf(contactState == HeartRateCallback.CONTACT_DETECTED) : null;
+        Integer energyExpanded = energy != HeartRateCallback.ENERGY_NOT_PRESENT ? Integer.valueOf(energy) : null;
+        List<Integer> intervals = null;
+        if (rrCount >= 0) {
+            List<Integer> intervals2 = new ArrayList<>(rrCount);
+            for (int i = 0; i < rrCount; i++) {
+                intervals2.add(Integer.valueOf(rr[i]));
+            }
+            intervals = Collections.unmodifiableList(intervals2);
+        }
+        onHeartRateMeasurementReceived(device, bpm, sensorContact, energyExpanded, intervals);
+    }
+
+    private int[] obtainBuffer(final BluetoothDevice device, final int count) {
+        int[] buffer = this.mBuffers.get(device);
+        if (buffer == null || buffer.length < count) {
+            buffer = new int[Math.max(count, 8)];
+            this.mBuffers.put(device, buffer);
+        }
+        return buffer;
+    }
+
+    private static int uint16(final byte[] value, final int offset) {
+        return (value[offset] & 255) | ((value[offset + 1] & 255) << 8);
+    }
 }
@@ -0,0 +1,8 @@
+package com.android.chileaf.fitness.decoder;
+
+import android.bluetooth.BluetoothDevice;
+import no.nordicsemi.android.ble.data.Data;
+
+public interface FrameDecoder {
+    void decode(final BluetoothDevice device, final int opcode, final Data data);
+}
@@ -0,0 +1,26 @@
+package com.android.chileaf.fitness.decoder;
+
+public final class FrameDecoderRegistry {
+    private static final int OPCODE_COUNT = 256;
+    private volatile FrameDecoder[] mDecoders = new FrameDecoder[OPCODE_COUNT];
+
+    public FrameDecoder get(final int opcode) {
+        return this.mDecoders[opcode & 255];
+    }
+
+    public synchronized FrameDecoder register(final int opcode, final FrameDecoder decoder) {
+        FrameDecoder[] decoders = this.mDecoders.clone();
+        FrameDecoder previous = decoders[opcode & 255];
+        decoders[opcode & 255] = decoder;
+        this.mDecoders = decoders;
+        return previous;
+    }
+
+    public synchronized FrameDecoder unregister(final int opcode) {
+        return register(opcode, null);
+    }
+
+    public boolean isRegistered(final int opcode) {
+        return get(opcode) != null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.android.chileaf.fitness.decoder;
+
+import java.nio.ByteBuffer;
+
+public final class FrameView {
+    private static final char[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+    private byte[] mArray;
+    private ByteBuffer mBuffer;
+    private int mLength;
+    private int mOffset;
+
+    public FrameView wrap(final byte[] value) {
+        return wrap(value, 0, value != null ? value.length : 0);
+    }
+
+    public FrameView wrap(final byte[] value, final int offset, final int length) {
+        if (value != null && (offset < 0 || length < 0 || offset + length > value.length)) {
+            throw new IndexOutOfBoundsException("offset:" + offset + " length:" + length + " size:" + value.length);
+        }
+        this.mArray = value;
+        this.mBuffer = null;
+        this.mOffset = offset;
+        this.mLength = value != null ? length : 0;
+        return this;
+    }
+
+    public FrameView wrap(final ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return wrap(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        this.mArray = null;
+        this.mBuffer = buffer;
+        this.mOffset = buffer.position();
+        this.mLength = buffer.remaining();
+        return this;
+    }
+
+    public FrameView payload(final int start) {
+        return range(start, this.mLength - 1);
+    }
+
+    public FrameView range(final int start, final int end) {
+        if (start < 0 || end < start || end > this.mLength) {
+            throw new IndexOutOfBoundsException("start:" + start + " end:" + end + " size:" + this.mLength);
+        }
+        this.mOffset += start;
+        this.mLength = end - start;
+        return this;
+    }
+
+    public int size() {
+        return this.mLength;
+    }
+
+    public int getByte(final int index) {
+        return byteAt(index);
+    }
+
+    public int getUInt8(final int index) {
+        return byteAt(index) & 255;
+    }
+
+    public int getUInt16BE(final int index) {
+        return ((byteAt(index) & 255) << 8) | (byteAt(index + 1) & 255);
+    }
+
+    public int getUInt16LE(final int index) {
+        return (byteAt(index) & 255) | ((byteAt(index + 1) & 255) << 8);
+    }
+
+    public int getSInt16BE(final int index) {
+        return (short) getUInt16BE(index);
+    }
+
+    public int getSInt16LE(final int index) {
+        return (short) getUInt16LE(index);
+    }
+
+    public int getUInt24BE(final int index) {
+        return ((byteAt(index) & 255) << 16) | ((byteAt(index + 1) & 255) << 8) | (byteAt(index + 2) & 255);
+    }
+
+    public long getUInt32BE(final int index) {
+        return getULongBE(index, 4);
+    }
+
+    public int getUIntBE(final int index, final int length) {
+        int value = 0;
+        for (int i = index; i < index + length; i++) {
+            value = (value << 8) | (byteAt(i) & 255);
+        }
+        return value;
+    }
+
+    public long getULongBE(final int index, final int length) {
+        long value = 0;
+        for (int i = index; i < index + length; i++) {
+            value = (value << 8) | (byteAt(i) & 255);
+        }
+        return value;
+    }
+
+    private byte byteAt(final int index) {
+        if (index < 0 || index >= this.mLength) {
+            throw new IndexOutOfBoundsException("index:" + index + " size:" + this.mLength);
+        }
+        byte[] array = this.mArray;
+        if (array != null) {
+            return array[this.mOffset + index];
+        }
+        return this.mBuffer.get(this.mOffset + index);
+    }
+
+    public String toString() {
+        if (this.mLength == 0) {
+            return "";
+        }
+        char[] out = new char[(this.mLength * 3) - 1];
+        for (int i = 0; i < this.mLength; i++) {
+            int value = byteAt(i) & 255;
+            out[i * 3] = DIGITS[value >>> 4];
+            out[(i * 3) + 1] = DIGITS[value & 15];
+            if (i != this.mLength - 1) {
+                out[(i * 3) + 2] = '-';
+            }
+        }
+        return "(0x) " + new String(out);
+    }
+}
@@ -0,0 +1,165 @@
+package com.android.chileaf.fitness.decoder;
+
+import com.android.chileaf.model.HistorySeries;
+import com.android.chileaf.util.LogUtil;
+import java.util.ArrayList;
+import java.util.List;
+import no.nordicsemi.android.ble.data.Data;
+
+public final class HistoryStream<T> {
+    public static final int DEFAULT_CAPACITY = 16384;
+    private static final LogUtil.Site LOG = LogUtil.site("HistoryStream");
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_RECEIVING = 1;
+    private static final int STATE_OVERFLOW = 2;
+    private volatile int mCapacity;
+    private int mDelivered;
+    private final String mName;
+    private final List<Data> mPackages;
+    private final List<T> mResults;
+    private HistorySeries mSeries;
+    private final int mType;
+    private volatile boolean isChunked;
+    private volatile boolean isResetPending;
+    private boolean isStamp;
+    private long mStamp;
+    private int mState;
+
+    public HistoryStream(final String name) {
+        this(name, 0);
+    }
+
+    public HistoryStream(final String name, final int type) {
+        this(name, type, DEFAULT_CAPACITY);
+    }
+
+    public HistoryStream(final String name, final int type, final int capacity) {
+        this.mName = name;
+        this.mType = type;
+        this.mCapacity = capacity;
+        this.mPackages = new ArrayList();
+        this.mResults = new ArrayList();
+        this.mState = STATE_IDLE;
+    }
+
+    public boolean offer(final Data data) {
+        applyPendingReset();
+        if (this.mState == STATE_OVERFLOW) {
+            return false;
+        }
+        if (this.mPackages.size() >= this.mCapacity) {
+            LOG.w("%s overflow after %d packages, dropping transfer", this.mName, Integer.valueOf(this.mPackages.size()));
+            this.mPackages.clear();
+            this.mResults.clear();
+            this.mDelivered = 0;
+            if (this.mSeries != null) {
+                this.mSeries.clear();
+            }
+            this.mState = STATE_OVERFLOW;
+            return false;
+        }
+        this.mPackages.add(data);
+        this.mState = STATE_RECEIVING;
+        return true;
+    }
+
+    public boolean begin() {
+        applyPendingReset();
+        if (this.mState == STATE_OVERFLOW) {
+            return false;
+        }
+        this.mState = STATE_RECEIVING;
+        return true;
+    }
+
+    public boolean end() {
+        applyPendingReset();
+        return this.mState != STATE_OVERFLOW;
+    }
+
+    public void complete() {
+        this.mPackages.clear();
+        this.mResults.clear();
+        this.mDelivered = 0;
+        if (this.mSeries != null) {
+            this.mSeries.clear();
+        }
+        this.isStamp = false;
+        this.mStamp = 0L;
+        this.mState = STATE_IDLE;
+    }
+
+    public void reset() {
+        reset(false);
+    }
+
+    public void reset(final boolean chunked) {
+        this.isChunked = chunked;
+        this.isResetPending = true;
+    }
+
+    public boolean isChunked() {
+        return this.isChunked;
+    }
+
+    public int size() {
+        return this.mPackages.size();
+    }
+
+    public Data get(final int index) {
+        return this.mPackages.get(index);
+    }
+
+    public List<T> results() {
+        return this.mResults;
+    }
+
+    public int pending() {
+        return this.mResults.size() - this.mDelivered;
+    }
+
+    public List<T> drain() {
+        List<T> items = new ArrayList(this.mResults.subList(this.mDelivered, this.mResults.size()));
+        this.mDelivered = this.mResults.size();
+        return items;
+    }
+
+    public HistorySeries series() {
+        if (this.mSeries == null) {
+            this.mSeries = new HistorySeries(this.mType);
+        }
+        return this.mSeries;
+    }
+
+    public void markStamp(final long stamp) {
+        if (!this.isStamp) {
+            this.mStamp = stamp;
+            this.isStamp = true;
+        }
+    }
+
+    public long stamp() {
+        return this.mStamp;
+    }
+
+    public long nextStamp() {
+        long stamp = this.mStamp;
+        this.mStamp = 1 + stamp;
+        return stamp;
+    }
+
+    public boolean isReceiving() {
+        return this.mState == STATE_RECEIVING;
+    }
+
+    public void setCapacity(final int capacity) {
+        this.mCapacity = capacity;
+    }
+
+    private void applyPendingReset() {
+        if (this.isResetPending) {
+            this.isResetPending = false;
+            complete();
+        }
+    }
+}
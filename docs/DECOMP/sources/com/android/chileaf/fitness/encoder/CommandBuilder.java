@@ -0,0 +1,53 @@
+package com.android.chileaf.fitness.encoder;
+
+public final class CommandBuilder {
+    public static final int MAX_LENGTH = 20;
+    private final byte[] mBuffer = new byte[MAX_LENGTH];
+    private int mPosition;
+    private int mSum;
+
+    CommandBuilder begin(final int cmd) {
+        this.mBuffer[0] = -1;
+        this.mBuffer[2] = (byte) cmd;
+        this.mPosition = 3;
+        this.mSum = this.mBuffer[0] + this.mBuffer[2];
+        return this;
+    }
+
+    public CommandBuilder put(final int value) {
+        if (this.mPosition >= MAX_LENGTH - 1) {
+            throw new IndexOutOfBoundsException("command exceeds " + MAX_LENGTH + " bytes");
+        }
+        byte b = (byte) value;
+        this.mBuffer[this.mPosition++] = b;
+        this.mSum += b;
+        return this;
+    }
+
+    public CommandBuilder putUInt32BE(final long value) {
+        return put((int) (value >> 24)).put((int) (value >> 16)).put((int) (value >> 8)).put((int) value);
+    }
+
+    public CommandBuilder putUIntBE(final long value, final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            put((int) (value >> (i * 8)));
+        }
+        return this;
+    }
+
+    public CommandBuilder finish() {
+        byte length = (byte) (this.mPosition + 1);
+        this.mBuffer[1] = length;
+        this.mBuffer[this.mPosition] = CommandEncoder.checkSum(this.mSum + length);
+        this.mPosition++;
+        return this;
+    }
+
+    public byte[] array() {
+        return this.mBuffer;
+    }
+
+    public int length() {
+        return this.mPosition;
+    }
+}
@@ -0,0 +1,34 @@
+package com.android.chileaf.fitness.encoder;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public final class CommandEncoder {
+    private final Queue<CommandBuilder> mPool = new ConcurrentLinkedQueue();
+
+    public static byte checkSum(final int sum) {
+        return (byte) (((-sum) ^ 58) & 255);
+    }
+
+    public static byte[] compile(final int cmd, final int... values) {
+        CommandBuilder builder = new CommandBuilder().begin(cmd);
+        for (int value : values) {
+            builder.put(value);
+        }
+        builder.finish();
+        return Arrays.copyOf(builder.array(), builder.length());
+    }
+
+    public CommandBuilder obtain(final int cmd) {
+        CommandBuilder builder = this.mPool.poll();
+        if (builder == null) {
+            builder = new CommandBuilder();
+        }
+        return builder.begin(cmd);
+    }
+
+    public void recycle(final CommandBuilder builder) {
+        this.mPool.offer(builder);
+    }
+}
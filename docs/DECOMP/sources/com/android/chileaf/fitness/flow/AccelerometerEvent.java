@@ -0,0 +1,21 @@
+package com.android.chileaf.fitness.flow;
+
+import android.bluetooth.BluetoothDevice;
+
+public final class AccelerometerEvent {
+    public final BluetoothDevice device;
+    public final int x;
+    public final int y;
+    public final int z;
+
+    public AccelerometerEvent(final BluetoothDevice device, final int x, final int y, final int z) {
+        this.device = device;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public String toString() {
+        return "AccelerometerEvent{" + "x=" + this.x + ", y=" + this.y + ", z=" + this.z + '}';
+    }
+}
@@ -0,0 +1,25 @@
+package com.android.chileaf.fitness.flow;
+
+import android.bluetooth.BluetoothDevice;
+
+public final class BloodOxygenEvent {
+    public final BluetoothDevice device;
+    public final int bSwitch;
+    public final String value;
+    public final int gesture;
+    public final int piValue;
+    public final int onwrist;
+
+    public BloodOxygenEvent(final BluetoothDevice device, final int bSwitch, final String value, final int gesture, final int piValue, final int onwrist) {
+        this.device = device;
+        this.bSwitch = bSwitch;
+        this.value = value;
+        this.gesture = gesture;
+        this.piValue = piValue;
+        this.onwrist = onwrist;
+    }
+
+    public String toString() {
+        return "BloodOxygenEvent{" + "bSwitch=" + this.bSwitch + ", value=" + this.value + ", gesture=" + this.gesture + ", piValue=" + this.piValue + ", onwrist=" + this.onwrist + '}';
+    }
+}
@@ -0,0 +1,271 @@
+package com.android.chileaf.fitness.flow;
+
+import com.android.chileaf.fitness.bus.CallbackBus;
+import com.android.chileaf.util.LogUtil;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+public final class BusPublisher<E> implements Flow.Publisher<E> {
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+    public static final int OVERFLOW_DROP_OLDEST = 0;
+    public static final int OVERFLOW_BUFFER = 1;
+    private static final LogUtil.Site LOG = LogUtil.site("BusPublisher");
+    private final Binding<?, E>[] mBindings;
+    private final int mBufferSize;
+    private final Predicate<? super E> mCompletion;
+    private final Executor mExecutor;
+    private final int mOverflow;
+
+    public interface Adapter<C, E> {
+        C adapt(Sink<E> sink);
+    }
+
+    public interface Sink<E> {
+        void next(E item);
+    }
+
+    private BusPublisher(final Binding<?, E>[] bindings, final Executor executor, final int bufferSize, final int overflow, final Predicate<? super E> completion) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        if (overflow != OVERFLOW_DROP_OLDEST && overflow != OVERFLOW_BUFFER) {
+            throw new IllegalArgumentException("Unknown overflow strategy: " + overflow);
+        }
+        this.mBindings = bindings;
+        this.mExecutor = executor;
+        this.mBufferSize = bufferSize;
+        this.mOverflow = overflow;
+        this.mCompletion = completion;
+    }
+
+    public static <C, E> BusPublisher<E> of(final CallbackBus<C> bus, final Adapter<C, E> adapter) {
+        return new BusPublisher<>(new Binding[]{new Binding<>(bus, adapter)}, null, DEFAULT_BUFFER_SIZE, OVERFLOW_DROP_OLDEST, null);
+    }
+
+    @Override // java.util.concurrent.Flow.Publisher
+    public void subscribe(final Flow.Subscriber<? super E> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        BusSubscription<E> subscription = new BusSubscription<>(subscriber, this.mExecutor, this.mBufferSize, this.mOverflow, this.mCompletion);
+        subscriber.onSubscribe(subscription);
+        if (!subscription.isCancelled) {
+            CallbackBus.Subscription<?>[] handles = new CallbackBus.Subscription[this.mBindings.length];
+            for (int i = 0; i < handles.length; i++) {
+                handles[i] = this.mBindings[i].bind(subscription);
+            }
+            subscription.mHandles = handles;
+            if (subscription.isCancelled || subscription.isDone()) {
+                subscription.unbind();
+            }
+        }
+    }
+
+    public <C> BusPublisher<E> with(final CallbackBus<C> bus, final Adapter<C, E> adapter) {
+        Binding<?, E>[] bindings = Arrays.copyOf(this.mBindings, this.mBindings.length + 1);
+        bindings[this.mBindings.length] = new Binding<>(bus, adapter);
+        return new BusPublisher<>(bindings, this.mExecutor, this.mBufferSize, this.mOverflow, this.mCompletion);
+    }
+
+    public BusPublisher<E> on(final Executor executor) {
+        return new BusPublisher<>(this.mBindings, executor, this.mBufferSize, this.mOverflow, this.mCompletion);
+    }
+
+    public BusPublisher<E> buffer(final int bufferSize) {
+        return new BusPublisher<>(this.mBindings, this.mExecutor, bufferSize, this.mOverflow, this.mCompletion);
+    }
+
+    public BusPublisher<E> overflow(final int overflow) {
+        return new BusPublisher<>(this.mBindings, this.mExecutor, this.mBufferSize, overflow, this.mCompletion);
+    }
+
+    public BusPublisher<E> completeWhen(final Predicate<? super E> completion) {
+        return new BusPublisher<>(this.mBindings, this.mExecutor, this.mBufferSize, this.mOverflow, completion);
+    }
+
+    public int getOverflow() {
+        return this.mOverflow;
+    }
+
+    private static final class Binding<C, E> {
+        private final Adapter<C, E> mAdapter;
+        private final CallbackBus<C> mBus;
+
+        Binding(final CallbackBus<C> bus, final Adapter<C, E> adapter) {
+            this.mBus = bus;
+            this.mAdapter = adapter;
+        }
+
+        CallbackBus.Subscription<C> bind(final Sink<E> sink) {
+            return this.mBus.subscribe(this.mAdapter.adapt(sink));
+        }
+    }
+
+    public static final class BusSubscription<E> implements Flow.Subscription, Sink<E> {
+        private final int mBufferSize;
+        private final Predicate<? super E> mCompletion;
+        private final AtomicLong mDemand;
+        private final AtomicLong mDropped;
+        private final Executor mExecutor;
+        volatile CallbackBus.Subscription<?>[] mHandles;
+        private final int mOverflow;
+        private final ArrayDeque<E> mQueue;
+        private final Flow.Subscriber<? super E> mSubscriber;
+        private final AtomicInteger mWip;
+        private final Runnable mDrainTask;
+        private Throwable mError;
+        volatile boolean isCancelled;
+        private boolean isDone;
+
+        BusSubscription(final Flow.Subscriber<? super E> subscriber, final Executor executor, final int bufferSize, final int overflow, final Predicate<? super E> completion) {
+            this.mSubscriber = subscriber;
+            this.mExecutor = executor;
+            this.mBufferSize = bufferSize;
+            this.mOverflow = overflow;
+            this.mCompletion = completion;
+            this.mQueue = new ArrayDeque<>(Math.min(bufferSize, 64));
+            this.mDemand = new AtomicLong();
+            this.mDropped = new AtomicLong();
+            this.mWip = new AtomicInteger();
+            this.mDrainTask = this::drainLoop;
+        }
+
+        @Override // com.android.chileaf.fitness.flow.BusPublisher.Sink
+        public void next(final E item) {
+            if (this.isCancelled) {
+                return;
+            }
+            boolean done = this.mCompletion != null && this.mCompletion.test(item);
+            synchronized (this.mQueue) {
+                if (this.isDone) {
+                    return;
+                }
+                if (this.mOverflow == OVERFLOW_DROP_OLDEST && this.mQueue.size() == this.mBufferSize) {
+                    this.mQueue.pollFirst();
+                    this.mDropped.incrementAndGet();
+                }
+                this.mQueue.offerLast(item);
+                this.isDone = done;
+            }
+            if (done) {
+                unbind();
+            }
+            drain();
+        }
+
+        @Override // java.util.concurrent.Flow.Subscription
+        public void request(final long n) {
+            if (n <= 0) {
+                synchronized (this.mQueue) {
+                    this.mError = new IllegalArgumentException("non-positive request: " + n);
+                }
+            } else {
+                long current;
+                long next;
+                do {
+                    current = this.mDemand.get();
+                    if (current == Long.MAX_VALUE) {
+                        break;
+                    }
+                    next = current + n;
+                    if (next < 0) {
+                        next = Long.MAX_VALUE;
+                    }
+                } while (!this.mDemand.compareAndSet(current, next));
+            }
+            drain();
+        }
+
+        @Override // java.util.concurrent.Flow.Subscription
+        public void cancel() {
+            if (this.isCancelled) {
+                return;
+            }
+            this.isCancelled = true;
+            unbind();
+            synchronized (this.mQueue) {
+                this.mQueue.clear();
+            }
+        }
+
+        void unbind() {
+            CallbackBus.Subscription<?>[] handles = this.mHandles;
+            if (handles != null) {
+                for (CallbackBus.Subscription<?> handle : handles) {
+                    handle.unsubscribe();
+                }
+            }
+        }
+
+        public long getDropped() {
+            return this.mDropped.get();
+        }
+
+        boolean isDone() {
+            synchronized (this.mQueue) {
+                return this.isDone;
+            }
+        }
+
+        private void drain() {
+            if (this.mWip.getAndIncrement() != 0) {
+                return;
+            }
+            if (this.mExecutor != null) {
+                this.mExecutor.execute(this.mDrainTask);
+            } else {
+                drainLoop();
+            }
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            while (true) {
+                while (!this.isCancelled) {
+                    Throwable error;
+                    boolean complete;
+                    E item = null;
+                    synchronized (this.mQueue) {
+                        error = this.mError;
+                        if (error == null && this.mDemand.get() > 0) {
+                            item = this.mQueue.pollFirst();
+                        }
+                        complete = this.isDone && this.mQueue.isEmpty();
+                    }
+                    if (error != null) {
+                        cancel();
+                        this.mSubscriber.onError(error);
+                        break;
+                    }
+                    if (item == null) {
+                        if (complete) {
+                            this.isCancelled = true;
+                            unbind();
+                            this.mSubscriber.onComplete();
+                        }
+                        break;
+                    }
+                    if (this.mDemand.get() != Long.MAX_VALUE) {
+                        this.mDemand.decrementAndGet();
+                    }
+                    try {
+                        this.mSubscriber.onNext(item);
+                    } catch (Throwable t) {
+                        LOG.e(t, "Exception in Flow subscriber");
+                        cancel();
+                        this.mSubscriber.onError(t);
+                    }
+                }
+                missed = this.mWip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
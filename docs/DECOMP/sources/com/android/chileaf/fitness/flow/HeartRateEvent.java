@@ -0,0 +1,24 @@
+package com.android.chileaf.fitness.flow;
+
+import android.bluetooth.BluetoothDevice;
+import java.util.Arrays;
+
+public final class HeartRateEvent {
+    public final BluetoothDevice device;
+    public final int heartRate;
+    public final int contactState;
+    public final int energy;
+    public final int[] rrIntervals;
+
+    public HeartRateEvent(final BluetoothDevice device, final int heartRate, final int contactState, final int energy, final int[] rrIntervals) {
+        this.device = device;
+        this.heartRate = heartRate;
+        this.contactState = contactState;
+        this.energy = energy;
+        this.rrIntervals = rrIntervals;
+    }
+
+    public String toString() {
+        return "HeartRateEvent{" + "heartRate=" + this.heartRate + ", contactState=" + this.contactState + ", energy=" + this.energy + ", rrIntervals=" + Arrays.toString(this.rrIntervals) + '}';
+    }
+}
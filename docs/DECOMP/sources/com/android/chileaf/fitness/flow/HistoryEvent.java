@@ -0,0 +1,20 @@
+package com.android.chileaf.fitness.flow;
+
+import android.bluetooth.BluetoothDevice;
+import java.util.List;
+
+public final class HistoryEvent<T> {
+    public final BluetoothDevice device;
+    public final List<T> items;
+    public final boolean last;
+
+    public HistoryEvent(final BluetoothDevice device, final List<T> items, final boolean last) {
+        this.device = device;
+        this.items = items;
+        this.last = last;
+    }
+
+    public String toString() {
+        return "HistoryEvent{" + "items=" + this.items.size() + ", last=" + this.last + '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.android.chileaf.fitness.flow;
+
+import android.bluetooth.BluetoothDevice;
+import java.util.Arrays;
+
+public final class RRIntervalEvent {
+    public final BluetoothDevice device;
+    public final int[] intervals;
+
+    public RRIntervalEvent(final BluetoothDevice device, final int[] intervals) {
+        this.device = device;
+        this.intervals = intervals;
+    }
+
+    public String toString() {
+        return "RRIntervalEvent{" + "intervals=" + Arrays.toString(this.intervals) + '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.android.chileaf.fitness.flow;
+
+import android.bluetooth.BluetoothDevice;
+
+public final class Sensor6DEvent {
+    public final BluetoothDevice device;
+    public final long utc;
+    public final int sequence;
+    public final int gyroscopeX;
+    public final int gyroscopeY;
+    public final int gyroscopeZ;
+    public final int accelerometerX;
+    public final int accelerometerY;
+    public final int accelerometerZ;
+
+    public Sensor6DEvent(final BluetoothDevice device, final long utc, final int sequence, final int gyroscopeX, final int gyroscopeY, final int gyroscopeZ, final int accelerometerX, final int accelerometerY, final int accelerometerZ) {
+        this.device = device;
+        this.utc = utc;
+        this.sequence = sequence;
+        this.gyroscopeX = gyroscopeX;
+        this.gyroscopeY = gyroscopeY;
+        this.gyroscopeZ = gyroscopeZ;
+        this.accelerometerX = accelerometerX;
+        this.accelerometerY = accelerometerY;
+        this.accelerometerZ = accelerometerZ;
+    }
+
+    public String toString() {
+        return "Sensor6DEvent{" + "utc=" + this.utc + ", sequence=" + this.sequence + ", gyroscopeX=" + this.gyroscopeX + ", gyroscopeY=" + this.gyroscopeY + ", gyroscopeZ=" + this.gyroscopeZ + ", accelerometerX=" + this.accelerometerX + ", accelerometerY=" + this.accelerometerY + ", accelerometerZ=" + this.accelerometerZ + '}';
+    }
+}
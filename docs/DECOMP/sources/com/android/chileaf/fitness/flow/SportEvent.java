@@ -0,0 +1,21 @@
+package com.android.chileaf.fitness.flow;
+
+import android.bluetooth.BluetoothDevice;
+
+public final class SportEvent {
+    public final BluetoothDevice device;
+    public final int step;
+    public final int distance;
+    public final int calorie;
+
+    public SportEvent(final BluetoothDevice device, final int step, final int distance, final int calorie) {
+        this.device = device;
+        this.step = step;
+        this.distance = distance;
+        this.calorie = calorie;
+    }
+
+    public String toString() {
+        return "SportEvent{" + "step=" + this.step + ", distance=" + this.distance + ", calorie=" + this.calorie + '}';
+    }
+}
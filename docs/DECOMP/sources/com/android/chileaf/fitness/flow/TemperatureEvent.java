@@ -0,0 +1,21 @@
+package com.android.chileaf.fitness.flow;
+
+import android.bluetooth.BluetoothDevice;
+
+public final class TemperatureEvent {
+    public final BluetoothDevice device;
+    public final float environment;
+    public final float wrist;
+    public final float body;
+
+    public TemperatureEvent(final BluetoothDevice device, final float environment, final float wrist, final float body) {
+        this.device = device;
+        this.environment = environment;
+        this.wrist = wrist;
+        this.body = body;
+    }
+
+    public String toString() {
+        return "TemperatureEvent{" + "environment=" + this.environment + ", wrist=" + this.wrist + ", body=" + this.body + '}';
+    }
+}
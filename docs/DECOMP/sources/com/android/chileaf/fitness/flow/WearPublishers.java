@@ -0,0 +1,195 @@
+package com.android.chileaf.fitness.flow;
+
+import com.android.chileaf.WearManager;
+import com.android.chileaf.fitness.callback.AccelerometerCallback;
+import com.android.chileaf.fitness.callback.BloodOxygenCallback;
+import com.android.chileaf.fitness.callback.BodySportCallback;
+import com.android.chileaf.fitness.callback.HistoryOf3DBatchCallback;
+import com.android.chileaf.fitness.callback.HistoryOfHRDataCallback;
+import com.android.chileaf.fitness.callback.HistoryOfHRDataChunkCallback;
+import com.android.chileaf.fitness.callback.HistoryOfHRRecordCallback;
+import com.android.chileaf.fitness.callback.HistoryOfRRDataCallback;
+import com.android.chileaf.fitness.callback.HistoryOfRRDataChunkCallback;
+import com.android.chileaf.fitness.callback.HistoryOfRRRecordCallback;
+import com.android.chileaf.fitness.callback.HistoryOfSleepCallback;
+import com.android.chileaf.fitness.callback.HistoryOfSportCallback;
+import com.android.chileaf.fitness.callback.HistoryOfStepDataCallback;
+import com.android.chileaf.fitness.callback.HistoryOfStepDataChunkCallback;
+import com.android.chileaf.fitness.callback.HistoryOfStepRecordCallback;
+import com.android.chileaf.fitness.callback.HistorySeriesCallback;
+import com.android.chileaf.fitness.callback.IntervalStepCallback;
+import com.android.chileaf.fitness.callback.Sensor6DRawDataCallback;
+import com.android.chileaf.fitness.callback.SingleTapRecordCallback;
+import com.android.chileaf.fitness.callback.TemperatureCallback;
+import com.android.chileaf.fitness.callback.WearReceivedDataCallback;
+import com.android.chileaf.fitness.common.heart.HeartRateCallback;
+import com.android.chileaf.model.HistoryOf3D;
+import com.android.chileaf.model.HistoryOfHeartRate;
+import com.android.chileaf.model.HistoryOfRecord;
+import com.android.chileaf.model.HistoryOfRespiratoryRate;
+import com.android.chileaf.model.HistoryOfSport;
+import com.android.chileaf.model.HistoryOfStep;
+import com.android.chileaf.model.HistorySleep;
+import com.android.chileaf.model.IntervalStep;
+import com.android.chileaf.model.Sensor3DBatch;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class WearPublishers {
+    private static final int[] NO_INTERVALS = new int[0];
+    private final WearManager mManager;
+
+    public WearPublishers(final WearManager manager) {
+        this.mManager = manager;
+    }
+
+    public BusPublisher<HeartRateEvent> heartRate() {
+        return BusPublisher.of(this.mManager.getCallbackBus(HeartRateCallback.class), sink -> (device, bpm, contactState, energy, rr, rrCount) -> {
+            sink.next(new HeartRateEvent(device, bpm, contactState, energy, copy(rr, rrCount)));
+        });
+    }
+
+    public BusPublisher<RRIntervalEvent> rrIntervals() {
+        return BusPublisher.of(this.mManager.getCallbackBus(HeartRateCallback.class), sink -> (device, bpm, contactState, energy, rr, rrCount) -> {
+            if (rrCount > 0) {
+                sink.next(new RRIntervalEvent(device, copy(rr, rrCount)));
+            }
+        });
+    }
+
+    public BusPublisher<AccelerometerEvent> accelerometer() {
+        return BusPublisher.of(this.mManager.getCallbackBus(AccelerometerCallback.class), sink -> (device, x, y, z) -> {
+            sink.next(new AccelerometerEvent(device, x, y, z));
+        });
+    }
+
+    public BusPublisher<Sensor6DEvent> sensor6D() {
+        return BusPublisher.of(this.mManager.getCallbackBus(Sensor6DRawDataCallback.class), sink -> (device, utc, sequence, gyroscopeX, gyroscopeY, gyroscopeZ, accelerometerX, accelerometerY, accelerometerZ) -> {
+            sink.next(new Sensor6DEvent(device, utc, sequence, gyroscopeX, gyroscopeY, gyroscopeZ, accelerometerX, accelerometerY, accelerometerZ));
+        });
+    }
+
+    public BusPublisher<SportEvent> sport() {
+        return BusPublisher.of(this.mManager.getCallbackBus(BodySportCallback.class), sink -> (device, step, distance, calorie) -> {
+            sink.next(new SportEvent(device, step, distance, calorie));
+        });
+    }
+
+    public BusPublisher<TemperatureEvent> temperature() {
+        return BusPublisher.of(this.mManager.getCallbackBus(TemperatureCallback.class), sink -> (device, environment, wrist, body) -> {
+            sink.next(new TemperatureEvent(device, environment, wrist, body));
+        });
+    }
+
+    public BusPublisher<BloodOxygenEvent> bloodOxygen() {
+        return BusPublisher.of(this.mManager.getCallbackBus(BloodOxygenCallback.class), sink -> (device, bSwitch, value, gesture, piValue, onwrist) -> {
+            sink.next(new BloodOxygenEvent(device, bSwitch, value, gesture, piValue, onwrist));
+        });
+    }
+
+    public BusPublisher<HistoryEvent<HistoryOfHeartRate>> historyOfHeartRate() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(HistoryOfHRDataCallback.class), (BusPublisher.Adapter<HistoryOfHRDataCallback, HistoryEvent<HistoryOfHeartRate>>) sink -> (device, heartRates) -> {
+            sink.next(new HistoryEvent<>(device, copy(heartRates), true));
+        }).with(this.mManager.getCallbackBus(HistoryOfHRDataChunkCallback.class), sink -> (device, heartRates, last) -> {
+            sink.next(new HistoryEvent<>(device, copy(heartRates), last));
+        }).with(this.mManager.getCallbackBus(HistorySeriesCallback.class), sink -> (device, series, last) -> {
+            if (series.getType() == WearReceivedDataCallback.TYPE_HEARTS) {
+                sink.next(new HistoryEvent<>(device, series.toHeartRates(), last));
+            }
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<HistoryOfRespiratoryRate>> historyOfRespiratoryRate() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(HistoryOfRRDataCallback.class), (BusPublisher.Adapter<HistoryOfRRDataCallback, HistoryEvent<HistoryOfRespiratoryRate>>) sink -> (device, respiratoryRates) -> {
+            sink.next(new HistoryEvent<>(device, copy(respiratoryRates), true));
+        }).with(this.mManager.getCallbackBus(HistoryOfRRDataChunkCallback.class), sink -> (device, respiratoryRates, last) -> {
+            sink.next(new HistoryEvent<>(device, copy(respiratoryRates), last));
+        }).with(this.mManager.getCallbackBus(HistorySeriesCallback.class), sink -> (device, series, last) -> {
+            if (series.getType() == WearReceivedDataCallback.TYPE_HEART_RRS) {
+                sink.next(new HistoryEvent<>(device, series.toRespiratoryRates(), last));
+            }
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<HistoryOfStep>> historyOfStep() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(HistoryOfStepDataCallback.class), (BusPublisher.Adapter<HistoryOfStepDataCallback, HistoryEvent<HistoryOfStep>>) sink -> (device, steps) -> {
+            sink.next(new HistoryEvent<>(device, copy(steps), true));
+        }).with(this.mManager.getCallbackBus(HistoryOfStepDataChunkCallback.class), sink -> (device, steps, last) -> {
+            sink.next(new HistoryEvent<>(device, copy(steps), last));
+        }).with(this.mManager.getCallbackBus(HistorySeriesCallback.class), sink -> (device, series, last) -> {
+            if (series.getType() == WearReceivedDataCallback.TYPE_STEPS) {
+                sink.next(new HistoryEvent<>(device, series.toSteps(), last));
+            }
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<HistoryOfSport>> historyOfSport() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(HistoryOfSportCallback.class), sink -> (device, sports) -> {
+            sink.next(new HistoryEvent<>(device, copy(sports), true));
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<HistorySleep>> historyOfSleep() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(HistoryOfSleepCallback.class), sink -> (device, sleeps) -> {
+            sink.next(new HistoryEvent<>(device, copy(sleeps), true));
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<HistoryOf3D>> historyOf3D() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(HistoryOf3DBatchCallback.class), sink -> (device, batch, finish) -> {
+            sink.next(new HistoryEvent<>(device, copy(batch), finish));
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<IntervalStep>> intervalSteps() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(IntervalStepCallback.class), sink -> (device, steps) -> {
+            sink.next(new HistoryEvent<>(device, copy(steps), true));
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<HistoryOfRecord>> heartRateRecords() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(HistoryOfHRRecordCallback.class), sink -> (device, records) -> {
+            sink.next(new HistoryEvent<>(device, copy(records), true));
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<HistoryOfRecord>> respiratoryRateRecords() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(HistoryOfRRRecordCallback.class), sink -> (device, records) -> {
+            sink.next(new HistoryEvent<>(device, copy(records), true));
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<HistoryOfRecord>> stepRecords() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(HistoryOfStepRecordCallback.class), sink -> (device, records) -> {
+            sink.next(new HistoryEvent<>(device, copy(records), true));
+        }));
+    }
+
+    public BusPublisher<HistoryEvent<HistoryOfRecord>> singleTapRecords() {
+        return history(BusPublisher.of(this.mManager.getCallbackBus(SingleTapRecordCallback.class), sink -> (device, records) -> {
+            sink.next(new HistoryEvent<>(device, copy(records), true));
+        }));
+    }
+
+    private static <T> BusPublisher<HistoryEvent<T>> history(final BusPublisher<HistoryEvent<T>> publisher) {
+        return publisher.overflow(BusPublisher.OVERFLOW_BUFFER).completeWhen(event -> event.last);
+    }
+
+    private static int[] copy(final int[] values, final int count) {
+        return (values == null || count <= 0) ? NO_INTERVALS : Arrays.copyOf(values, count);
+    }
+
+    private static List<HistoryOf3D> copy(final Sensor3DBatch batch) {
+        List<HistoryOf3D> histories = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            histories.add(new HistoryOf3D(batch.getX(i), batch.getY(i), batch.getZ(i)));
+        }
+        return histories;
+    }
+
+    private static <T> List<T> copy(final List<T> list) {
+        return list == null ? Collections.emptyList() : new ArrayList<>(list);
+    }
+}
@@ -0,0 +1,185 @@
+package com.android.chileaf.fitness.request;
+
+import android.os.Handler;
+import com.android.chileaf.util.LogUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+public final class ResponseRouter {
+    public static final long DEFAULT_TIMEOUT = 5000;
+    private static final LogUtil.Site LOG = LogUtil.site("ResponseRouter");
+    private final Handler mHandler;
+    private final ConcurrentHashMap<Integer, ConcurrentLinkedQueue<PendingResponse<?>>> mPending;
+
+    public ResponseRouter(final Handler handler) {
+        this.mHandler = handler;
+        this.mPending = new ConcurrentHashMap<>();
+    }
+
+    public static int key(final int opcode) {
+        return opcode;
+    }
+
+    public static int key(final int opcode, final int type) {
+        return (opcode << 8) | type;
+    }
+
+    public <T> CompletableFuture<T> expect(final int key, final long timeout) {
+        return expect(key, timeout, null);
+    }
+
+    public <T, E> CompletableFuture<T> expect(final int key, final long timeout, final Consumer<List<E>> progress) {
+        PendingResponse<T> pending = new PendingResponse<>(key, timeout, progress);
+        queue(key).offer(pending);
+        if (timeout > 0) {
+            this.mHandler.postDelayed(pending, timeout);
+        }
+        pending.whenComplete((value, error) -> {
+            this.mHandler.removeCallbacks(pending);
+            queue(key).remove(pending);
+        });
+        return pending;
+    }
+
+    public boolean isPending(final int key) {
+        ConcurrentLinkedQueue<PendingResponse<?>> queue = this.mPending.get(key);
+        return (queue == null || queue.isEmpty()) ? false : true;
+    }
+
+    public boolean complete(final int key, final Object value) {
+        PendingResponse<?> pending = poll(key);
+        if (pending == null) {
+            return false;
+        }
+        return pending.deliver(value);
+    }
+
+    public int completeAll(final int key, final Object value) {
+        int count = 0;
+        while (complete(key, value)) {
+            count++;
+        }
+        return count;
+    }
+
+    public boolean touch(final int key) {
+        ConcurrentLinkedQueue<PendingResponse<?>> queue = this.mPending.get(key);
+        PendingResponse<?> pending = queue != null ? queue.peek() : null;
+        if (pending == null || pending.isDone()) {
+            return false;
+        }
+        if (pending.mTimeout > 0) {
+            this.mHandler.removeCallbacks(pending);
+            this.mHandler.postDelayed(pending, pending.mTimeout);
+        }
+        return true;
+    }
+
+    public <T> boolean append(final int key, final List<T> items, final boolean last) {
+        ConcurrentLinkedQueue<PendingResponse<?>> queue = this.mPending.get(key);
+        PendingResponse<?> pending = queue != null ? queue.peek() : null;
+        if (pending == null) {
+            return false;
+        }
+        if (!last && pending.mTimeout > 0) {
+            this.mHandler.removeCallbacks(pending);
+            this.mHandler.postDelayed(pending, pending.mTimeout);
+        }
+        if (pending.mProgress != null && !items.isEmpty()) {
+            try {
+                pending.mProgress.accept(items);
+            } catch (Throwable t) {
+                LOG.e(t, "Exception in progress of 0x%04X", Integer.valueOf(key));
+                queue.remove(pending);
+                pending.completeExceptionally(t);
+                return true;
+            }
+        }
+        List<Object> collected = pending.mItems;
+        if (collected == null) {
+            collected = new ArrayList<>(items.size());
+            pending.mItems = collected;
+        }
+        collected.addAll(items);
+        if (last) {
+            queue.remove(pending);
+            pending.deliver(collected);
+        }
+        return true;
+    }
+
+    public void failAll(final Throwable error) {
+        for (ConcurrentLinkedQueue<PendingResponse<?>> queue : this.mPending.values()) {
+            while (true) {
+                PendingResponse<?> pending = queue.poll();
+                if (pending == null) {
+                    break;
+                }
+                pending.completeExceptionally(error);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentLinkedQueue<PendingResponse<?>> queue : this.mPending.values()) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    private ConcurrentLinkedQueue<PendingResponse<?>> queue(final int key) {
+        ConcurrentLinkedQueue<PendingResponse<?>> queue = this.mPending.get(key);
+        if (queue == null) {
+            queue = new ConcurrentLinkedQueue<>();
+            ConcurrentLinkedQueue<PendingResponse<?>> previous = this.mPending.putIfAbsent(key, queue);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return queue;
+    }
+
+    private PendingResponse<?> poll(final int key) {
+        ConcurrentLinkedQueue<PendingResponse<?>> queue = this.mPending.get(key);
+        if (queue == null) {
+            return null;
+        }
+        while (true) {
+            PendingResponse<?> pending = queue.poll();
+            if (pending == null || !pending.isDone()) {
+                return pending;
+            }
+        }
+    }
+
+    private static final class PendingResponse<T> extends CompletableFuture<T> implements Runnable {
+        private final int mKey;
+        private List<Object> mItems;
+        private final Consumer mProgress;
+        private final long mTimeout;
+
+        PendingResponse(final int key, final long timeout, final Consumer<?> progress) {
+            this.mKey = key;
+            this.mTimeout = timeout;
+            this.mProgress = progress;
+        }
+
+        @Override // java.lang.Runnable
+        public void run() {
+            if (completeExceptionally(new TimeoutException(String.format(Locale.US, "No data for 0x%04X within %d ms", Integer.valueOf(this.mKey), Long.valueOf(this.mTimeout))))) {
+                LOG.w("Response 0x%04X timed out", Integer.valueOf(this.mKey));
+            }
+        }
+
+        boolean deliver(final Object value) {
+            return complete((T) value);
+        }
+    }
+}
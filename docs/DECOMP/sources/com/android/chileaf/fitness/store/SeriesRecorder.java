@@ -0,0 +1,86 @@
+package com.android.chileaf.fitness.store;
+
+import android.bluetooth.BluetoothDevice;
+import com.android.chileaf.WearManager;
+import com.android.chileaf.fitness.bus.CallbackBus;
+import com.android.chileaf.fitness.callback.AccelerometerCallback;
+import com.android.chileaf.fitness.callback.BloodOxygenCallback;
+import com.android.chileaf.fitness.callback.Sensor6DRawDataCallback;
+import com.android.chileaf.fitness.callback.TemperatureCallback;
+import com.android.chileaf.fitness.common.heart.HeartRateMeasurementCallback;
+import com.android.chileaf.util.LogUtil;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SeriesRecorder {
+    private static final LogUtil.Site LOG = LogUtil.site("SeriesRecorder");
+    private final WearManager mManager;
+    private final SeriesStore mStore;
+    private final List<CallbackBus.Subscription<?>> mSubscriptions;
+
+    public SeriesRecorder(final WearManager manager, final SeriesStore store) {
+        this.mManager = manager;
+        this.mStore = store;
+        this.mSubscriptions = new ArrayList<>();
+    }
+
+    public synchronized void start() {
+        if (!this.mSubscriptions.isEmpty()) {
+            return;
+        }
+        this.mSubscriptions.add(this.mManager.getCallbackBus(HeartRateMeasurementCallback.class).subscribe((device, heartRate, contactDetected, energyExpanded, rrIntervals) -> {
+            long stamp = System.currentTimeMillis();
+            record(device, address -> {
+                this.mStore.appendHeartRate(address, stamp, heartRate);
+                if (rrIntervals != null) {
+                    for (Integer interval : rrIntervals) {
+                        this.mStore.appendRRInterval(address, stamp, interval.intValue());
+                    }
+                }
+            });
+        }));
+        this.mSubscriptions.add(this.mManager.getCallbackBus(TemperatureCallback.class).subscribe((device, environment, wrist, body) -> record(device, address -> this.mStore.appendTemperature(address, System.currentTimeMillis(), environment, wrist, body))));
+        this.mSubscriptions.add(this.mManager.getCallbackBus(BloodOxygenCallback.class).subscribe((device, bSwitch, value, gesture, piValue, onWrist) -> record(device, address -> this.mStore.appendBloodOxygen(address, System.currentTimeMillis(), parse(value), piValue, gesture, onWrist, bSwitch))));
+        this.mSubscriptions.add(this.mManager.getCallbackBus(AccelerometerCallback.class).subscribe((device, x, y, z) -> record(device, address -> this.mStore.appendAccelerometer(address, System.currentTimeMillis(), x, y, z))));
+        this.mSubscriptions.add(this.mManager.getCallbackBus(Sensor6DRawDataCallback.class).subscribe((device, utc, sequence, gyroscopeX, gyroscopeY, gyroscopeZ, accelerometerX, accelerometerY, accelerometerZ) -> record(device, address -> this.mStore.appendSensor6D(address, utc, sequence, gyroscopeX, gyroscopeY, gyroscopeZ, accelerometerX, accelerometerY, accelerometerZ))));
+    }
+
+    public synchronized void stop() {
+        for (CallbackBus.Subscription<?> subscription : this.mSubscriptions) {
+            subscription.unsubscribe();
+        }
+        this.mSubscriptions.clear();
+        this.mStore.sync();
+    }
+
+    public synchronized boolean isRecording() {
+        return !this.mSubscriptions.isEmpty();
+    }
+
+    private void record(final BluetoothDevice device, final Action action) {
+        if (device == null) {
+            return;
+        }
+        try {
+            action.run(device.getAddress());
+        } catch (IOException e) {
+            LOG.e(e, "Failed to record sample for %s", device.getAddress());
+        }
+    }
+
+    private static int parse(final String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private interface Action {
+        void run(String address) throws IOException;
+    }
+}
@@ -0,0 +1,230 @@
+package com.android.chileaf.fitness.store;
+
+import com.android.chileaf.fitness.codec.SeriesDecoder;
+import com.android.chileaf.fitness.codec.SeriesEncoder;
+import com.android.chileaf.util.LogUtil;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+final class SeriesSegment {
+    static final int HEADER_SIZE = 64;
+    static final int MAGIC = 0x434C5353;
+    static final int VERSION = 2;
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final LogUtil.Site LOG = LogUtil.site("SeriesSegment");
+    private static final int OFFSET_COUNT = 16;
+    private static final int OFFSET_DURABLE = 24;
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_TYPE = 8;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_WIDTH = 12;
+    private final ByteBuffer mBuffer;
+    private final int mCapacity;
+    private int mCount;
+    private final File mFile;
+    private final ByteBuffer mReadBuffer;
+    private final int mStride;
+    private final int mWidth;
+    private final boolean isOrdered;
+
+    private SeriesSegment(final File file, final ByteBuffer buffer, final int width, final boolean ordered) {
+        this.mFile = file;
+        this.mBuffer = buffer;
+        this.mWidth = width;
+        this.isOrdered = ordered;
+        this.mStride = stride(width);
+        this.mCapacity = (buffer.capacity() - HEADER_SIZE) / this.mStride;
+        this.mReadBuffer = buffer.asReadOnlyBuffer();
+    }
+
+    static int stride(final int width) {
+        return 8 + width + 4;
+    }
+
+    static SeriesSegment open(final File file, final int type, final int width, final int capacity) throws IOException {
+        return open(file, type, width, capacity, true);
+    }
+
+    static SeriesSegment open(final File file, final int type, final int width, final int capacity, final boolean ordered) throws IOException {
+        MappedByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            boolean isNew = size < HEADER_SIZE;
+            if (isNew) {
+                size = HEADER_SIZE + ((long) capacity * stride(width));
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+            if (isNew) {
+                buffer.putInt(OFFSET_MAGIC, MAGIC);
+                buffer.putInt(OFFSET_VERSION, VERSION);
+                buffer.putInt(OFFSET_TYPE, type);
+                buffer.putInt(OFFSET_WIDTH, width);
+                buffer.putLong(OFFSET_COUNT, 0L);
+                buffer.putLong(OFFSET_DURABLE, 0L);
+            } else if (buffer.getInt(OFFSET_MAGIC) != MAGIC || buffer.getInt(OFFSET_TYPE) != type || buffer.getInt(OFFSET_WIDTH) != width) {
+                throw new IOException("Not a " + SeriesType.name(type) + " segment: " + file);
+            } else if (buffer.getInt(OFFSET_VERSION) != VERSION) {
+                throw new IOException("Unsupported segment version " + buffer.getInt(OFFSET_VERSION) + ": " + file);
+            }
+        }
+        SeriesSegment segment = new SeriesSegment(file, buffer, width, ordered);
+        segment.recover();
+        return segment;
+    }
+
+    static SeriesSegment unpack(final File file, final int type, final int width) throws IOException {
+        byte[] data;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            data = new byte[(int) raf.length()];
+            raf.readFully(data);
+        }
+        SeriesDecoder decoder;
+        try {
+            decoder = new SeriesDecoder(data);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Not a packed " + SeriesType.name(type) + " segment: " + file, e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (decoder.size() * stride(width)));
+        buffer.putInt(OFFSET_MAGIC, MAGIC);
+        buffer.putInt(OFFSET_VERSION, VERSION);
+        buffer.putInt(OFFSET_TYPE, type);
+        buffer.putInt(OFFSET_WIDTH, width);
+        SeriesSegment segment = new SeriesSegment(file, buffer, width, true);
+        ByteBuffer payload = ByteBuffer.allocate(width);
+        decoder.decode((stamp, value) -> segment.append(stamp, payload.putInt(0, value)));
+        return segment;
+    }
+
+    byte[] pack() {
+        SeriesEncoder encoder = new SeriesEncoder();
+        for (int i = 0; i < this.mCount; i++) {
+            encoder.add(stampAt(i), this.mBuffer.getInt(payloadOffset(i)));
+        }
+        return encoder.toByteArray();
+    }
+
+    private void recover() {
+        long committed = this.mBuffer.getLong(OFFSET_COUNT);
+        int count = (int) Math.max(0L, Math.min(this.mBuffer.getLong(OFFSET_DURABLE), this.mCapacity));
+        long previous = count > 0 ? stampAt(count - 1) : Long.MIN_VALUE;
+        while (count < this.mCapacity) {
+            long stamp = stampAt(count);
+            int offset = payloadOffset(count);
+            if (stamp == 0 || (this.isOrdered && stamp < previous) || this.mBuffer.getInt(offset + this.mWidth) != checksum(stamp, this.mBuffer, offset)) {
+                break;
+            }
+            previous = stamp;
+            count++;
+        }
+        if (count != committed) {
+            LOG.w("%s recovered %d records (header said %d)", this.mFile.getName(), Integer.valueOf(count), Long.valueOf(committed));
+            this.mBuffer.putLong(OFFSET_COUNT, count);
+        }
+        this.mCount = count;
+    }
+
+    boolean isFull() {
+        return this.mCount >= this.mCapacity;
+    }
+
+    int count() {
+        return this.mCount;
+    }
+
+    int capacity() {
+        return this.mCapacity;
+    }
+
+    long stampAt(final int index) {
+        return this.mBuffer.getLong(HEADER_SIZE + (index * this.mStride));
+    }
+
+    int payloadOffset(final int index) {
+        return HEADER_SIZE + (index * this.mStride) + 8;
+    }
+
+    ByteBuffer buffer() {
+        return this.mReadBuffer;
+    }
+
+    boolean contains(final long stamp, final ByteBuffer payload) {
+        for (int index = lowerBound(stamp); index < this.mCount && stampAt(index) == stamp; index++) {
+            if (matches(index, payload)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean matches(final int index, final ByteBuffer payload) {
+        int offset = payloadOffset(index);
+        int i = 0;
+        while (i < this.mWidth && this.mBuffer.get(offset + i) == payload.get(i)) {
+            i++;
+        }
+        return i == this.mWidth;
+    }
+
+    void append(final long stamp, final ByteBuffer payload) {
+        int offset = HEADER_SIZE + (this.mCount * this.mStride);
+        for (int i = 0; i < this.mWidth; i++) {
+            this.mBuffer.put(offset + 8 + i, payload.get(i));
+        }
+        this.mBuffer.putInt(offset + 8 + this.mWidth, checksum(stamp, payload, 0));
+        this.mBuffer.putLong(offset, stamp);
+        this.mCount++;
+        this.mBuffer.putLong(OFFSET_COUNT, this.mCount);
+    }
+
+    int lowerBound(final long stamp) {
+        int low = 0;
+        int high = this.mCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (stampAt(mid) < stamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    void clear() {
+        for (int i = 0; i < this.mCount; i++) {
+            this.mBuffer.putLong(HEADER_SIZE + (i * this.mStride), 0L);
+        }
+        this.mCount = 0;
+        this.mBuffer.putLong(OFFSET_COUNT, 0L);
+        force();
+    }
+
+    void force() {
+        if (!(this.mBuffer instanceof MappedByteBuffer)) {
+            return;
+        }
+        MappedByteBuffer buffer = (MappedByteBuffer) this.mBuffer;
+        buffer.force();
+        if (buffer.getLong(OFFSET_DURABLE) != this.mCount) {
+            buffer.putLong(OFFSET_DURABLE, this.mCount);
+            buffer.force();
+        }
+    }
+
+    private int checksum(final long stamp, final ByteBuffer payload, final int offset) {
+        int hash = FNV_OFFSET;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash ^ ((int) (stamp >>> (i * 8)) & 255)) * FNV_PRIME;
+        }
+        for (int i = 0; i < this.mWidth; i++) {
+            hash = (hash ^ (payload.get(offset + i) & 255)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
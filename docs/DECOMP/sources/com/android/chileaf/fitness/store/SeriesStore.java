@@ -0,0 +1,221 @@
+package com.android.chileaf.fitness.store;
+
+import android.content.Context;
+import com.android.chileaf.fitness.sync.HistoryStore;
+import com.android.chileaf.model.HistoryOfHeartRate;
+import com.android.chileaf.model.HistoryOfRespiratoryRate;
+import com.android.chileaf.model.HistoryOfSport;
+import com.android.chileaf.model.HistoryOfStep;
+import com.android.chileaf.model.HistorySleep;
+import com.android.chileaf.model.IntervalStep;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class SeriesStore implements HistoryStore {
+    public static final String DEFAULT_DIRECTORY = "series";
+    private static final int SESSION_SEGMENT_SIZE = 16 << 10;
+    private final File mRoot;
+    private final Map<String, TimeSeries> mSeries;
+    private final int mSegmentSize;
+
+    public SeriesStore(final File root) {
+        this(root, TimeSeries.DEFAULT_SEGMENT_SIZE);
+    }
+
+    public SeriesStore(final File root, final int segmentSize) {
+        this.mRoot = root;
+        this.mSegmentSize = segmentSize;
+        this.mSeries = new HashMap<>();
+    }
+
+    public static SeriesStore open(final Context context) {
+        return new SeriesStore(new File(context.getFilesDir(), DEFAULT_DIRECTORY));
+    }
+
+    public synchronized TimeSeries series(final String address, final int type) throws IOException {
+        return open(address, SeriesType.name(type), type, this.mSegmentSize);
+    }
+
+    private synchronized TimeSeries sessions(final String address, final int type) throws IOException {
+        return open(address, SeriesType.name(SeriesType.SESSION) + '_' + type, SeriesType.SESSION, SESSION_SEGMENT_SIZE);
+    }
+
+    private TimeSeries open(final String address, final String name, final int type, final int segmentSize) throws IOException {
+        String key = address + '/' + name;
+        TimeSeries series = this.mSeries.get(key);
+        if (series == null) {
+            File directory = new File(new File(this.mRoot, address.replace(":", "")), name);
+            series = TimeSeries.open(directory, type, segmentSize);
+            this.mSeries.put(key, series);
+        }
+        return series;
+    }
+
+    @Override // com.android.chileaf.fitness.sync.HistoryStore
+    public int mergeHeartRates(final String address, final List<HistoryOfHeartRate> heartRates) {
+        try {
+            int refused = 0;
+            TimeSeries series = series(address, SeriesType.HEART_RATE);
+            for (HistoryOfHeartRate heartRate : heartRates) {
+                if (!series.mergeInt(heartRate.stamp, heartRate.heartRate)) {
+                    refused++;
+                }
+            }
+            series.sync();
+            return refused;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override // com.android.chileaf.fitness.sync.HistoryStore
+    public int mergeRespiratoryRates(final String address, final List<HistoryOfRespiratoryRate> respiratoryRates) {
+        try {
+            int refused = 0;
+            TimeSeries series = series(address, SeriesType.RESPIRATORY_RATE);
+            for (HistoryOfRespiratoryRate respiratoryRate : respiratoryRates) {
+                if (!series.mergeInt(respiratoryRate.stamp, respiratoryRate.respiratoryRate)) {
+                    refused++;
+                }
+            }
+            series.sync();
+            return refused;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override // com.android.chileaf.fitness.sync.HistoryStore
+    public int mergeSteps(final String address, final List<HistoryOfStep> steps) {
+        try {
+            int refused = 0;
+            TimeSeries series = series(address, SeriesType.STEP);
+            for (HistoryOfStep step : steps) {
+                if (!series.mergeInt(step.stamp, step.steps)) {
+                    refused++;
+                }
+            }
+            series.sync();
+            return refused;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override // com.android.chileaf.fitness.sync.HistoryStore
+    public int mergeSports(final String address, final List<HistoryOfSport> sports) {
+        try {
+            int refused = 0;
+            TimeSeries series = series(address, SeriesType.SPORT);
+            for (HistoryOfSport sport : sports) {
+                if (!series.merge(sport.startTime, payload -> payload.putLong(0, sport.endTime).putLong(8, sport.step).putLong(16, sport.calorie))) {
+                    refused++;
+                }
+            }
+            series.sync();
+            return refused;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override // com.android.chileaf.fitness.sync.HistoryStore
+    public int mergeSleeps(final String address, final List<HistorySleep> sleeps) {
+        try {
+            int refused = 0;
+            TimeSeries series = series(address, SeriesType.SLEEP);
+            for (HistorySleep sleep : sleeps) {
+                int[] actions = sleep.actions != null ? sleep.actions : new int[0];
+                int count = Math.min(actions.length, SeriesType.SLEEP_STATES);
+                boolean isStored = series.merge(sleep.utc, payload -> {
+                    payload.put(0, (byte) count);
+                    for (int i = 0; i < count; i++) {
+                        payload.put(i + 1, (byte) actions[i]);
+                    }
+                });
+                if (!isStored) {
+                    refused++;
+                }
+            }
+            series.sync();
+            return refused;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override // com.android.chileaf.fitness.sync.HistoryStore
+    public int mergeIntervalSteps(final String address, final List<IntervalStep> steps) {
+        try {
+            int refused = 0;
+            TimeSeries series = series(address, SeriesType.INTERVAL_STEP);
+            for (IntervalStep step : steps) {
+                if (!series.mergeInt(step.stamp, step.steps)) {
+                    refused++;
+                }
+            }
+            series.sync();
+            return refused;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override // com.android.chileaf.fitness.sync.HistoryStore
+    public void sealRecord(final String address, final int type, final long recordStamp) {
+        try {
+            TimeSeries series = sessions(address, type);
+            series.mergeInt(recordStamp, type);
+            series.sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isSealed(final String address, final int type, final long recordStamp) throws IOException {
+        return sessions(address, type).scan(recordStamp, recordStamp, (stamp, buffer, offset) -> false) > 0;
+    }
+
+    public void appendHeartRate(final String address, final long stamp, final int heartRate) throws IOException {
+        series(address, SeriesType.LIVE_HEART_RATE).appendInt(stamp, heartRate);
+    }
+
+    public void appendRRInterval(final String address, final long stamp, final int interval) throws IOException {
+        series(address, SeriesType.RR_INTERVAL).appendInt(stamp, interval);
+    }
+
+    public void appendTemperature(final String address, final long stamp, final float environment, final float wrist, final float body) throws IOException {
+        series(address, SeriesType.TEMPERATURE).append(stamp, payload -> payload.putFloat(0, environment).putFloat(4, wrist).putFloat(8, body));
+    }
+
+    public void appendBloodOxygen(final String address, final long stamp, final int bloodOxygen, final int piValue, final int gesture, final int onWrist, final int bSwitch) throws IOException {
+        series(address, SeriesType.BLOOD_OXYGEN).append(stamp, payload -> payload.putInt(0, bloodOxygen).putInt(4, piValue).putInt(8, gesture).putInt(12, onWrist).putInt(16, bSwitch));
+    }
+
+    public void appendAccelerometer(final String address, final long stamp, final int x, final int y, final int z) throws IOException {
+        series(address, SeriesType.ACCELEROMETER).append(stamp, payload -> payload.putInt(0, x).putInt(4, y).putInt(8, z));
+    }
+
+    public void appendSensor6D(final String address, final long stamp, final int sequence, final int gyroscopeX, final int gyroscopeY, final int gyroscopeZ, final int accelerometerX, final int accelerometerY, final int accelerometerZ) throws IOException {
+        series(address, SeriesType.SENSOR_6D).append(stamp, payload -> payload.putInt(0, sequence)
+                .putShort(4, (short) gyroscopeX).putShort(6, (short) gyroscopeY).putShort(8, (short) gyroscopeZ)
+                .putShort(10, (short) accelerometerX).putShort(12, (short) accelerometerY).putShort(14, (short) accelerometerZ));
+    }
+
+    public synchronized void sync() {
+        for (TimeSeries series : this.mSeries.values()) {
+            series.sync();
+        }
+    }
+
+    public synchronized void close() {
+        for (TimeSeries series : this.mSeries.values()) {
+            series.close();
+        }
+        this.mSeries.clear();
+    }
+}
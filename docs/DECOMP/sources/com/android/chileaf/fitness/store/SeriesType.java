@@ -0,0 +1,80 @@
+package com.android.chileaf.fitness.store;
+
+public final class SeriesType {
+    public static final int HEART_RATE = 1;
+    public static final int RR_INTERVAL = 2;
+    public static final int RESPIRATORY_RATE = 3;
+    public static final int STEP = 4;
+    public static final int INTERVAL_STEP = 5;
+    public static final int SPORT = 6;
+    public static final int SLEEP = 7;
+    public static final int TEMPERATURE = 8;
+    public static final int BLOOD_OXYGEN = 9;
+    public static final int ACCELEROMETER = 10;
+    public static final int SENSOR_6D = 11;
+    public static final int LIVE_HEART_RATE = 12;
+    public static final int SESSION = 13;
+    public static final int SLEEP_STATES = 127;
+
+    private SeriesType() {
+    }
+
+    public static int width(final int type) {
+        switch (type) {
+            case HEART_RATE:
+            case LIVE_HEART_RATE:
+            case SESSION:
+            case RR_INTERVAL:
+            case RESPIRATORY_RATE:
+            case STEP:
+            case INTERVAL_STEP:
+                return 4;
+            case SPORT:
+                return 24;
+            case SLEEP:
+                return 1 + SLEEP_STATES;
+            case TEMPERATURE:
+            case ACCELEROMETER:
+                return 12;
+            case BLOOD_OXYGEN:
+                return 20;
+            case SENSOR_6D:
+                return 16;
+            default:
+                throw new IllegalArgumentException("Unknown series type: " + type);
+        }
+    }
+
+    public static String name(final int type) {
+        switch (type) {
+            case HEART_RATE:
+                return "heart_rate";
+            case RR_INTERVAL:
+                return "rr_interval";
+            case RESPIRATORY_RATE:
+                return "respiratory_rate";
+            case STEP:
+                return "step";
+            case INTERVAL_STEP:
+                return "interval_step";
+            case SPORT:
+                return "sport";
+            case SLEEP:
+                return "sleep";
+            case TEMPERATURE:
+                return "temperature";
+            case BLOOD_OXYGEN:
+                return "blood_oxygen";
+            case ACCELEROMETER:
+                return "accelerometer";
+            case SENSOR_6D:
+                return "sensor_6d";
+            case LIVE_HEART_RATE:
+                return "live_heart_rate";
+            case SESSION:
+                return "session";
+            default:
+                throw new IllegalArgumentException("Unknown series type: " + type);
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package com.android.chileaf.fitness.store;
+
+import com.android.chileaf.util.LogUtil;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public final class TimeSeries {
+    public static final int DEFAULT_SEGMENT_SIZE = 4 << 20;
+    public static final int MAX_SEGMENTS = 8192;
+    private static final String INDEX_FILE = "index";
+    private static final int INDEX_ENTRY = 24;
+    private static final int INDEX_HEADER = 16;
+    private static final int INDEX_MAGIC = 0x434C5349;
+    private static final int INDEX_VERSION = 2;
+    private static final LogUtil.Site LOG = LogUtil.site("TimeSeries");
+    private static final int MAX_OPEN_SEGMENTS = 8;
+    private static final int MAX_OVERFLOW = 16384;
+    private static final String OVERFLOW_FILE = "overflow.seg";
+    private final File mDirectory;
+    private final MappedByteBuffer mIndex;
+    private final Map<Integer, SeriesSegment> mOpen;
+    private SeriesSegment mOverflow;
+    private int[] mOverflowIndex;
+    private int mOverflowSize;
+    private long[] mOverflowStamps;
+    private final ByteBuffer mScratch;
+    private final int mSegmentCapacity;
+    private int mSegments;
+    private long mSize;
+    private long mMaxStamp;
+    private SeriesSegment mTail;
+    private final int mType;
+    private final int mWidth;
+    private boolean isOrdered;
+    private final boolean isPacked;
+
+    public interface Writer {
+        void write(ByteBuffer payload);
+    }
+
+    public interface Visitor {
+        boolean visit(long stamp, ByteBuffer buffer, int offset);
+    }
+
+    public interface IntVisitor {
+        void visit(long stamp, int value);
+    }
+
+    private TimeSeries(final File directory, final int type, final MappedByteBuffer index, final int segmentSize) {
+        this.mDirectory = directory;
+        this.mType = type;
+        this.mWidth = SeriesType.width(type);
+        this.isPacked = this.mWidth == 4;
+        this.mIndex = index;
+        this.mSegmentCapacity = Math.max(1, (segmentSize - SeriesSegment.HEADER_SIZE) / SeriesSegment.stride(this.mWidth));
+        this.mScratch = ByteBuffer.allocate(this.mWidth);
+        this.mOpen = new LinkedHashMap<Integer, SeriesSegment>(16, 0.75f, true) {
+            @Override // java.util.LinkedHashMap
+            protected boolean removeEldestEntry(final Map.Entry<Integer, SeriesSegment> eldest) {
+                return size() > MAX_OPEN_SEGMENTS;
+            }
+        };
+    }
+
+    public static TimeSeries open(final File directory, final int type) throws IOException {
+        return open(directory, type, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static TimeSeries open(final File directory, final int type, final int segmentSize) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        MappedByteBuffer index;
+        try (RandomAccessFile raf = new RandomAccessFile(new File(directory, INDEX_FILE), "rw")) {
+            index = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, INDEX_HEADER + ((long) MAX_SEGMENTS * INDEX_ENTRY));
+        }
+        TimeSeries series = new TimeSeries(directory, type, index, segmentSize);
+        series.recover();
+        return series;
+    }
+
+    private void recover() throws IOException {
+        int segments = 0;
+        while (segmentFile(segments).exists() || packedFile(segments).exists()) {
+            segments++;
+        }
+        boolean isValid = this.mIndex.getInt(0) == INDEX_MAGIC && this.mIndex.getInt(4) == this.mType && this.mIndex.getInt(8) == segments && this.mIndex.getInt(12) == INDEX_VERSION;
+        if (!isValid) {
+            if (segments > 0) {
+                LOG.w("%s index out of date, rebuilding from %d segments", this.mDirectory, Integer.valueOf(segments));
+            }
+            this.mIndex.putInt(0, INDEX_MAGIC);
+            this.mIndex.putInt(4, this.mType);
+            this.mIndex.putInt(12, INDEX_VERSION);
+        }
+        this.mSegments = segments;
+        for (int i = isValid ? Math.max(0, segments - 1) : 0; i < segments; i++) {
+            SeriesSegment segment = openSegment(i);
+            int count = segment.count();
+            setEntry(i, count > 0 ? segment.stampAt(0) : 0L, count > 0 ? segment.stampAt(count - 1) : 0L, count);
+            if (i == segments - 1) {
+                this.mTail = segment;
+            }
+        }
+        this.mIndex.putInt(8, segments);
+        this.isOrdered = true;
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < segments; i++) {
+            long count = count(i);
+            if (count == 0) {
+                continue;
+            }
+            if (firstStamp(i) < previous) {
+                this.isOrdered = false;
+            }
+            previous = Math.max(previous, lastStamp(i));
+            this.mSize += count;
+        }
+        this.mMaxStamp = this.mSize > 0 ? previous : 0L;
+        recoverOverflow();
+    }
+
+    private void recoverOverflow() throws IOException {
+        SeriesSegment overflow = SeriesSegment.open(new File(this.mDirectory, OVERFLOW_FILE), this.mType, this.mWidth, Math.min(this.mSegmentCapacity, MAX_OVERFLOW), false);
+        this.mOverflow = overflow;
+        this.mOverflowStamps = new long[overflow.capacity()];
+        this.mOverflowIndex = new int[overflow.capacity()];
+        this.mOverflowSize = 0;
+        ByteBuffer payload = ByteBuffer.allocate(this.mWidth);
+        for (int i = 0; i < overflow.count(); i++) {
+            long stamp = overflow.stampAt(i);
+            copy(overflow, i, payload);
+            if (!containsStored(stamp, payload)) {
+                index(stamp, i);
+            }
+        }
+        if (this.mOverflowSize == 0 && overflow.count() > 0) {
+            LOG.w("%s overflow was already compacted, clearing %d records", this.mDirectory, Integer.valueOf(overflow.count()));
+            overflow.clear();
+        }
+        if (this.mOverflowSize > 0) {
+            this.isOrdered = false;
+            this.mSize += this.mOverflowSize;
+        }
+    }
+
+    public int getType() {
+        return this.mType;
+    }
+
+    public synchronized long size() {
+        return this.mSize;
+    }
+
+    public synchronized long firstStamp() {
+        long first = 0L;
+        for (int i = 0; i < this.mSegments; i++) {
+            if (count(i) > 0 && (first == 0 || firstStamp(i) < first)) {
+                first = firstStamp(i);
+            }
+        }
+        if (this.mOverflowSize > 0 && (first == 0 || this.mOverflowStamps[0] < first)) {
+            first = this.mOverflowStamps[0];
+        }
+        return first;
+    }
+
+    public synchronized long lastStamp() {
+        return this.mMaxStamp;
+    }
+
+    public synchronized boolean isOrdered() {
+        return this.isOrdered;
+    }
+
+    public synchronized boolean append(final long stamp, final Writer writer) throws IOException {
+        return put(stamp, writer, false);
+    }
+
+    public synchronized boolean merge(final long stamp, final Writer writer) throws IOException {
+        return put(stamp, writer, true);
+    }
+
+    public boolean appendInt(final long stamp, final int value) throws IOException {
+        return append(stamp, payload -> payload.putInt(0, value));
+    }
+
+    public boolean mergeInt(final long stamp, final int value) throws IOException {
+        return merge(stamp, payload -> payload.putInt(0, value));
+    }
+
+    private boolean put(final long stamp, final Writer writer, final boolean isMerge) throws IOException {
+        if (stamp == 0) {
+            return false;
+        }
+        ByteBuffer scratch = this.mScratch;
+        for (int i = 0; i < this.mWidth; i++) {
+            scratch.put(i, (byte) 0);
+        }
+        writer.write(scratch);
+        if (isMerge && this.mSize > 0 && stamp <= this.mMaxStamp && contains(stamp, scratch)) {
+            return true;
+        }
+        if (isLate(stamp) && this.mOverflow.isFull()) {
+            compact();
+        }
+        if (isLate(stamp)) {
+            int index = this.mOverflow.count();
+            this.mOverflow.append(stamp, scratch);
+            index(stamp, index);
+        } else {
+            SeriesSegment tail = this.mTail;
+            if (tail == null || tail.isFull()) {
+                roll();
+                tail = this.mTail;
+            }
+            int id = this.mSegments - 1;
+            if (tail.count() == 0) {
+                setEntry(id, stamp, stamp, 0);
+            }
+            tail.append(stamp, scratch);
+            this.mIndex.putLong(entryOffset(id) + 8, stamp);
+            this.mIndex.putLong(entryOffset(id) + 16, tail.count());
+        }
+        if (this.mSize > 0 && stamp < this.mMaxStamp) {
+            this.isOrdered = false;
+        }
+        if (this.mSize == 0 || stamp > this.mMaxStamp) {
+            this.mMaxStamp = stamp;
+        }
+        this.mSize++;
+        return true;
+    }
+
+    private boolean isLate(final long stamp) {
+        SeriesSegment tail = this.mTail;
+        return tail != null && tail.count() > 0 && stamp < tail.stampAt(tail.count() - 1);
+    }
+
+    private boolean contains(final long stamp, final ByteBuffer payload) throws IOException {
+        for (int i = lowerBound(this.mOverflowStamps, this.mOverflowSize, stamp); i < this.mOverflowSize && this.mOverflowStamps[i] == stamp; i++) {
+            if (this.mOverflow.matches(this.mOverflowIndex[i], payload)) {
+                return true;
+            }
+        }
+        return containsStored(stamp, payload);
+    }
+
+    private boolean containsStored(final long stamp, final ByteBuffer payload) throws IOException {
+        for (int i = 0; i < this.mSegments; i++) {
+            if (count(i) > 0 && firstStamp(i) <= stamp && stamp <= lastStamp(i) && segment(i).contains(stamp, payload)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void roll() throws IOException {
+        if (this.mSegments >= MAX_SEGMENTS) {
+            throw new IOException(this.mDirectory + " reached " + MAX_SEGMENTS + " segments");
+        }
+        int id = this.mSegments;
+        if (this.mTail != null) {
+            this.mTail.force();
+            if (this.isPacked && !packedFile(id - 1).exists()) {
+                pack(id - 1, this.mTail);
+            } else {
+                this.mOpen.put(Integer.valueOf(id - 1), this.mTail);
+            }
+        }
+        this.mTail = openSegment(id);
+        this.mSegments = id + 1;
+        setEntry(id, 0L, 0L, 0);
+        this.mIndex.putInt(8, this.mSegments);
+    }
+
+    private void pack(final int id, final SeriesSegment segment) throws IOException {
+        byte[] data = segment.pack();
+        File packed = packedFile(id);
+        File temp = new File(this.mDirectory, packed.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(data);
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(packed)) {
+            throw new IOException("Cannot rename " + temp + " to " + packed);
+        }
+        if (!segmentFile(id).delete()) {
+            LOG.w("%s could not delete packed segment %d", this.mDirectory, Integer.valueOf(id));
+        }
+        LOG.d("%s packed segment %d: %d records in %d bytes", this.mDirectory, Integer.valueOf(id), Integer.valueOf(segment.count()), Integer.valueOf(data.length));
+    }
+
+    private void compact() throws IOException {
+        roll();
+        SeriesSegment tail = this.mTail;
+        ByteBuffer payload = ByteBuffer.allocate(this.mWidth);
+        for (int i = 0; i < this.mOverflowSize; i++) {
+            copy(this.mOverflow, this.mOverflowIndex[i], payload);
+            tail.append(this.mOverflowStamps[i], payload);
+        }
+        if (this.mOverflowSize > 0) {
+            setEntry(this.mSegments - 1, this.mOverflowStamps[0], this.mOverflowStamps[this.mOverflowSize - 1], tail.count());
+        }
+        tail.force();
+        this.mIndex.force();
+        LOG.d("%s compacted %d late records into segment %d", this.mDirectory, Integer.valueOf(this.mOverflowSize), Integer.valueOf(this.mSegments - 1));
+        this.mOverflow.clear();
+        this.mOverflowSize = 0;
+    }
+
+    private void index(final long stamp, final int index) {
+        int position = lowerBound(this.mOverflowStamps, this.mOverflowSize, stamp + 1);
+        int moved = this.mOverflowSize - position;
+        System.arraycopy(this.mOverflowStamps, position, this.mOverflowStamps, position + 1, moved);
+        System.arraycopy(this.mOverflowIndex, position, this.mOverflowIndex, position + 1, moved);
+        this.mOverflowStamps[position] = stamp;
+        this.mOverflowIndex[position] = index;
+        this.mOverflowSize++;
+    }
+
+    private void copy(final SeriesSegment segment, final int index, final ByteBuffer payload) {
+        ByteBuffer buffer = segment.buffer();
+        int offset = segment.payloadOffset(index);
+        for (int i = 0; i < this.mWidth; i++) {
+            payload.put(i, buffer.get(offset + i));
+        }
+    }
+
+    public synchronized long scan(final long from, final long to, final Visitor visitor) throws IOException {
+        if (!this.isOrdered) {
+            return scanMerged(from, to, visitor);
+        }
+        long visited = 0;
+        for (int i = firstSegment(from); i < this.mSegments; i++) {
+            if (firstStamp(i) > to) {
+                break;
+            }
+            SeriesSegment segment = segment(i);
+            ByteBuffer buffer = segment.buffer();
+            int count = segment.count();
+            for (int j = segment.lowerBound(from); j < count; j++) {
+                long stamp = segment.stampAt(j);
+                if (stamp > to) {
+                    return visited;
+                }
+                visited++;
+                if (!visitor.visit(stamp, buffer, segment.payloadOffset(j))) {
+                    return visited;
+                }
+            }
+        }
+        return visited;
+    }
+
+    private long scanMerged(final long from, final long to, final Visitor visitor) throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < this.mSegments; i++) {
+            if (count(i) > 0 && firstStamp(i) <= to && lastStamp(i) >= from) {
+                ids.add(Integer.valueOf(i));
+            }
+        }
+        ids.sort((a, b) -> Long.compare(firstStamp(a.intValue()), firstStamp(b.intValue())));
+        SeriesSegment[] segments = new SeriesSegment[ids.size()];
+        int[] positions = new int[segments.length];
+        int opened = 0;
+        int late = lowerBound(this.mOverflowStamps, this.mOverflowSize, from);
+        long visited = 0;
+        while (true) {
+            int next = -1;
+            long stamp = 0L;
+            for (int i = 0; i < opened; i++) {
+                SeriesSegment segment = segments[i];
+                if (segment == null) {
+                    continue;
+                }
+                long candidate = positions[i] < segment.count() ? segment.stampAt(positions[i]) : 0L;
+                if (positions[i] >= segment.count() || candidate > to) {
+                    segments[i] = null;
+                } else if (next < 0 || candidate < stamp) {
+                    next = i;
+                    stamp = candidate;
+                }
+            }
+            if (late < this.mOverflowSize && this.mOverflowStamps[late] <= to && (next < 0 || this.mOverflowStamps[late] < stamp)) {
+                next = segments.length;
+                stamp = this.mOverflowStamps[late];
+            }
+            if (opened < segments.length && (next < 0 || firstStamp(ids.get(opened).intValue()) <= stamp)) {
+                segments[opened] = segment(ids.get(opened).intValue());
+                positions[opened] = segments[opened].lowerBound(from);
+                opened++;
+                continue;
+            }
+            if (next < 0) {
+                return visited;
+            }
+            visited++;
+            if (next == segments.length) {
+                int index = this.mOverflowIndex[late++];
+                if (!visitor.visit(stamp, this.mOverflow.buffer(), this.mOverflow.payloadOffset(index))) {
+                    return visited;
+                }
+            } else {
+                SeriesSegment segment = segments[next];
+                int position = positions[next]++;
+                if (!visitor.visit(stamp, segment.buffer(), segment.payloadOffset(position))) {
+                    return visited;
+                }
+            }
+        }
+    }
+
+    public long scanInts(final long from, final long to, final IntVisitor visitor) throws IOException {
+        return scan(from, to, (stamp, buffer, offset) -> {
+            visitor.visit(stamp, buffer.getInt(offset));
+            return true;
+        });
+    }
+
+    public synchronized void sync() {
+        if (this.mTail != null) {
+            this.mTail.force();
+        }
+        this.mOverflow.force();
+        this.mIndex.force();
+    }
+
+    public synchronized void close() {
+        sync();
+        this.mOpen.clear();
+    }
+
+    private int firstSegment(final long from) {
+        int low = 0;
+        int high = this.mSegments;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mid == this.mSegments - 1 || lastStamp(mid) >= from) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private SeriesSegment segment(final int id) throws IOException {
+        if (id == this.mSegments - 1) {
+            return this.mTail;
+        }
+        Integer key = Integer.valueOf(id);
+        SeriesSegment segment = this.mOpen.get(key);
+        if (segment == null) {
+            segment = openSegment(id);
+            this.mOpen.put(key, segment);
+        }
+        return segment;
+    }
+
+    private SeriesSegment openSegment(final int id) throws IOException {
+        File packed = packedFile(id);
+        if (packed.exists()) {
+            File file = segmentFile(id);
+            if (file.exists() && !file.delete()) {
+                LOG.w("%s could not delete packed segment %d", this.mDirectory, Integer.valueOf(id));
+            }
+            return SeriesSegment.unpack(packed, this.mType, this.mWidth);
+        }
+        return SeriesSegment.open(segmentFile(id), this.mType, this.mWidth, this.mSegmentCapacity);
+    }
+
+    private File segmentFile(final int id) {
+        return new File(this.mDirectory, String.format(Locale.US, "%08d.seg", Integer.valueOf(id)));
+    }
+
+    private File packedFile(final int id) {
+        return new File(this.mDirectory, String.format(Locale.US, "%08d.cseg", Integer.valueOf(id)));
+    }
+
+    private long firstStamp(final int id) {
+        return this.mIndex.getLong(entryOffset(id));
+    }
+
+    private long lastStamp(final int id) {
+        return this.mIndex.getLong(entryOffset(id) + 8);
+    }
+
+    private long count(final int id) {
+        return this.mIndex.getLong(entryOffset(id) + 16);
+    }
+
+    private void setEntry(final int id, final long first, final long last, final long count) {
+        this.mIndex.putLong(entryOffset(id), first);
+        this.mIndex.putLong(entryOffset(id) + 8, last);
+        this.mIndex.putLong(entryOffset(id) + 16, count);
+    }
+
+    private static int lowerBound(final long[] stamps, final int size, final long stamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (stamps[mid] < stamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int entryOffset(final int id) {
+        return INDEX_HEADER + (id * INDEX_ENTRY);
+    }
+
+    public String toString() {
+        return "TimeSeries{type=" + SeriesType.name(this.mType) + ", segments=" + this.mSegments + ", size=" + size() + '}';
+    }
+}
@@ -0,0 +1,196 @@
+package com.android.chileaf.fitness.stream;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class StreamChannel {
+    private static final String TAG = "StreamChannel";
+    private final AtomicLong mBlocked;
+    private final AtomicLong mDelivered;
+    private volatile Thread mConsumerThread;
+    private final Runnable mDrainTask;
+    private final AtomicLong mDropped;
+    private final Executor mExecutor;
+    private int mHead;
+    private final Object mLock;
+    private int mMaxDepth;
+    private final String mName;
+    private final StreamPolicy mPolicy;
+    private final Runnable[] mQueue;
+    private int mSize;
+    private boolean isScheduled;
+
+    public StreamChannel(final String name, final StreamPolicy policy) {
+        this(name, policy, (Handler) null);
+    }
+
+    public StreamChannel(final String name, final StreamPolicy policy, final Handler handler) {
+        this(name, policy, handler != null ? handler : new Handler(Looper.getMainLooper()), null);
+    }
+
+    public StreamChannel(final String name, final StreamPolicy policy, final Executor executor) {
+        this(name, policy, null, executor);
+    }
+
+    private StreamChannel(final String name, final StreamPolicy policy, final Handler handler, final Executor executor) {
+        this.mName = name;
+        this.mPolicy = policy;
+        if (handler != null) {
+            this.mExecutor = handler::post;
+            this.mConsumerThread = handler.getLooper().getThread();
+        } else {
+            this.mExecutor = executor;
+        }
+        this.mQueue = new Runnable[Math.max(1, policy.getCapacity())];
+        this.mLock = new Object();
+        this.mDelivered = new AtomicLong();
+        this.mDropped = new AtomicLong();
+        this.mBlocked = new AtomicLong();
+        this.mDrainTask = this::drain;
+    }
+
+    public boolean isDirect() {
+        return this.mPolicy.getMode() == StreamPolicy.MODE_DIRECT;
+    }
+
+    public void dispatch(final Runnable event) {
+        int mode = this.mPolicy.getMode();
+        if (mode == StreamPolicy.MODE_DIRECT) {
+            this.mDelivered.incrementAndGet();
+            event.run();
+            return;
+        }
+        if (mode == StreamPolicy.MODE_BLOCKING && this.mConsumerThread == Thread.currentThread()) {
+            drain();
+            deliver(event);
+            return;
+        }
+        boolean schedule = false;
+        synchronized (this.mLock) {
+            int capacity = this.mQueue.length;
+            if (this.mSize == capacity) {
+                if (mode == StreamPolicy.MODE_BLOCKING) {
+                    this.mBlocked.incrementAndGet();
+                    while (this.mSize == capacity) {
+                        try {
+                            this.mLock.wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                }
+                if (this.mSize == capacity) {
+                    this.mQueue[this.mHead] = null;
+                    this.mHead = (this.mHead + 1) % capacity;
+                    this.mSize--;
+                    this.mDropped.incrementAndGet();
+                }
+            }
+            this.mQueue[(this.mHead + this.mSize) % capacity] = event;
+            this.mSize++;
+            if (this.mSize > this.mMaxDepth) {
+                this.mMaxDepth = this.mSize;
+            }
+            if (!this.isScheduled) {
+                this.isScheduled = true;
+                schedule = true;
+            }
+        }
+        if (schedule) {
+            this.mExecutor.execute(this.mDrainTask);
+        }
+    }
+
+    private void drain() {
+        Thread consumer = this.mConsumerThread;
+        this.mConsumerThread = Thread.currentThread();
+        try {
+            while (true) {
+                Runnable event = poll();
+                if (event == null) {
+                    return;
+                }
+                deliver(event);
+            }
+        } finally {
+            this.mConsumerThread = consumer;
+        }
+    }
+
+    private Runnable poll() {
+        synchronized (this.mLock) {
+            if (this.mSize == 0) {
+                this.isScheduled = false;
+                return null;
+            }
+            Runnable event = this.mQueue[this.mHead];
+            this.mQueue[this.mHead] = null;
+            this.mHead = (this.mHead + 1) % this.mQueue.length;
+            this.mSize--;
+            this.mLock.notifyAll();
+            return event;
+        }
+    }
+
+    private void deliver(final Runnable event) {
+        this.mDelivered.incrementAndGet();
+        try {
+            event.run();
+        } catch (Throwable t) {
+            Log.e(TAG, "Exception in " + this.mName + " stream consumer", t);
+        }
+    }
+
+    public String getName() {
+        return this.mName;
+    }
+
+    public StreamPolicy getPolicy() {
+        return this.mPolicy;
+    }
+
+    public int getDepth() {
+        int i;
+        synchronized (this.mLock) {
+            i = this.mSize;
+        }
+        return i;
+    }
+
+    public int getMaxDepth() {
+        int i;
+        synchronized (this.mLock) {
+            i = this.mMaxDepth;
+        }
+        return i;
+    }
+
+    public long getDelivered() {
+        return this.mDelivered.get();
+    }
+
+    public long getDropped() {
+        return this.mDropped.get();
+    }
+
+    public long getBlocked() {
+        return this.mBlocked.get();
+    }
+
+    public void resetStats() {
+        this.mDelivered.set(0L);
+        this.mDropped.set(0L);
+        this.mBlocked.set(0L);
+        synchronized (this.mLock) {
+            this.mMaxDepth = this.mSize;
+        }
+    }
+
+    public String toString() {
+        return "StreamChannel{name=" + this.mName + ", policy=" + this.mPolicy + ", delivered=" + getDelivered() + ", dropped=" + getDropped() + ", blocked=" + getBlocked() + ", maxDepth=" + getMaxDepth() + '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.android.chileaf.fitness.stream;
+
+public final class StreamPolicy {
+    public static final int MODE_DIRECT = 0;
+    public static final int MODE_LATEST = 1;
+    public static final int MODE_DROP_OLDEST = 2;
+    public static final int MODE_BLOCKING = 3;
+    private static final StreamPolicy DIRECT = new StreamPolicy(MODE_DIRECT, 0);
+    private static final StreamPolicy LATEST = new StreamPolicy(MODE_LATEST, 1);
+    private final int mCapacity;
+    private final int mMode;
+
+    private StreamPolicy(final int mode, final int capacity) {
+        this.mMode = mode;
+        this.mCapacity = capacity;
+    }
+
+    public static StreamPolicy direct() {
+        return DIRECT;
+    }
+
+    public static StreamPolicy latest() {
+        return LATEST;
+    }
+
+    public static StreamPolicy dropOldest(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        return new StreamPolicy(MODE_DROP_OLDEST, capacity);
+    }
+
+    public static StreamPolicy blocking(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        return new StreamPolicy(MODE_BLOCKING, capacity);
+    }
+
+    public int getMode() {
+        return this.mMode;
+    }
+
+    public int getCapacity() {
+        return this.mCapacity;
+    }
+
+    public String toString() {
+        switch (this.mMode) {
+            case MODE_LATEST:
+                return "StreamPolicy{latest}";
+            case MODE_DROP_OLDEST:
+                return "StreamPolicy{dropOldest, capacity=" + this.mCapacity + '}';
+            case MODE_BLOCKING:
+                return "StreamPolicy{blocking, capacity=" + this.mCapacity + '}';
+            default:
+                return "StreamPolicy{direct}";
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.android.chileaf.fitness.sync;
+
+import com.android.chileaf.model.HistoryOfHeartRate;
+import com.android.chileaf.model.HistoryOfRespiratoryRate;
+import com.android.chileaf.model.HistoryOfSport;
+import com.android.chileaf.model.HistoryOfStep;
+import com.android.chileaf.model.HistorySleep;
+import com.android.chileaf.model.IntervalStep;
+import java.util.List;
+
+public interface HistoryStore {
+    int mergeHeartRates(String address, List<HistoryOfHeartRate> heartRates);
+
+    int mergeRespiratoryRates(String address, List<HistoryOfRespiratoryRate> respiratoryRates);
+
+    int mergeSteps(String address, List<HistoryOfStep> steps);
+
+    int mergeSports(String address, List<HistoryOfSport> sports);
+
+    int mergeSleeps(String address, List<HistorySleep> sleeps);
+
+    int mergeIntervalSteps(String address, List<IntervalStep> steps);
+
+    void sealRecord(String address, int type, long recordStamp);
+}
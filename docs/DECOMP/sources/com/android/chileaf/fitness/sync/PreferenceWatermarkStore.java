@@ -0,0 +1,58 @@
+package com.android.chileaf.fitness.sync;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PreferenceWatermarkStore implements WatermarkStore {
+    public static final String DEFAULT_NAME = "chileaf_sync_watermarks";
+    private static final String KEY_HASH = "/hash";
+    private static final String KEY_RECORD = "/record";
+    private static final String KEY_SAMPLE = "/sample";
+    private final SharedPreferences mPreferences;
+
+    public PreferenceWatermarkStore(final Context context) {
+        this(context, DEFAULT_NAME);
+    }
+
+    public PreferenceWatermarkStore(final Context context, final String name) {
+        this.mPreferences = context.getApplicationContext().getSharedPreferences(name, Context.MODE_PRIVATE);
+    }
+
+    @Override // com.android.chileaf.fitness.sync.WatermarkStore
+    public SyncWatermark load(final String address, final int type) {
+        String prefix = key(address, type);
+        return new SyncWatermark(type, this.mPreferences.getLong(prefix + KEY_RECORD, 0L), this.mPreferences.getLong(prefix + KEY_SAMPLE, 0L), this.mPreferences.getLong(prefix + KEY_HASH, 0L));
+    }
+
+    @Override // com.android.chileaf.fitness.sync.WatermarkStore
+    public void save(final String address, final SyncWatermark watermark) {
+        String prefix = key(address, watermark.type);
+        this.mPreferences.edit()
+                .putLong(prefix + KEY_RECORD, watermark.recordStamp)
+                .putLong(prefix + KEY_SAMPLE, watermark.sampleStamp)
+                .putLong(prefix + KEY_HASH, watermark.contentHash)
+                .apply();
+    }
+
+    @Override // com.android.chileaf.fitness.sync.WatermarkStore
+    public void clear(final String address) {
+        String prefix = address + '/';
+        List<String> keys = new ArrayList<>();
+        for (String key : this.mPreferences.getAll().keySet()) {
+            if (key.startsWith(prefix)) {
+                keys.add(key);
+            }
+        }
+        SharedPreferences.Editor editor = this.mPreferences.edit();
+        for (String key : keys) {
+            editor.remove(key);
+        }
+        editor.apply();
+    }
+
+    private static String key(final String address, final int type) {
+        return address + '/' + type;
+    }
+}
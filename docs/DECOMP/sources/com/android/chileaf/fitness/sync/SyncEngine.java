@@ -0,0 +1,378 @@
+package com.android.chileaf.fitness.sync;
+
+import android.bluetooth.BluetoothDevice;
+import com.android.chileaf.WearManager;
+import com.android.chileaf.fitness.callback.WearReceivedDataCallback;
+import com.android.chileaf.model.HistoryOfHeartRate;
+import com.android.chileaf.model.HistoryOfRecord;
+import com.android.chileaf.model.HistoryOfRespiratoryRate;
+import com.android.chileaf.model.HistoryOfSport;
+import com.android.chileaf.model.HistoryOfStep;
+import com.android.chileaf.model.HistorySleep;
+import com.android.chileaf.model.IntervalStep;
+import com.android.chileaf.util.LogUtil;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToLongFunction;
+
+public final class SyncEngine {
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final long DEFAULT_RECONNECT_TIMEOUT = 30000;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final LogUtil.Site LOG = LogUtil.site("SyncEngine");
+    private final WearManager mManager;
+    private volatile int mMaxAttempts;
+    private volatile long mReconnectTimeout;
+    private final HistoryStore mStore;
+    private CompletableFuture<?> mTail;
+    private final WatermarkStore mWatermarks;
+    private volatile boolean isCheckpointing;
+
+    public SyncEngine(final WearManager manager, final WatermarkStore watermarks, final HistoryStore store) {
+        this.mManager = manager;
+        this.mWatermarks = watermarks;
+        this.mStore = store;
+        this.mTail = CompletableFuture.completedFuture(null);
+        this.mMaxAttempts = DEFAULT_MAX_ATTEMPTS;
+        this.mReconnectTimeout = DEFAULT_RECONNECT_TIMEOUT;
+        this.isCheckpointing = true;
+    }
+
+    public void setMaxAttempts(final int attempts) {
+        this.mMaxAttempts = Math.max(1, attempts);
+    }
+
+    public void setReconnectTimeout(final long timeout) {
+        this.mReconnectTimeout = timeout;
+    }
+
+    public void setCheckpointing(final boolean checkpointing) {
+        this.isCheckpointing = checkpointing;
+    }
+
+    public boolean isCheckpointing() {
+        return this.isCheckpointing;
+    }
+
+    public CompletableFuture<List<SyncResult>> sync() {
+        List<SyncResult> results = Collections.synchronizedList(new ArrayList<>());
+        return enqueue(() -> heartRate()
+                .thenCompose(result -> collect(results, result, this::respiratoryRate))
+                .thenCompose(result -> collect(results, result, this::steps))
+                .thenCompose(result -> collect(results, result, this::sport))
+                .thenCompose(result -> collect(results, result, this::sleep))
+                .thenCompose(result -> collect(results, result, this::intervalSteps))
+                .thenApply(result -> {
+                    results.add(result);
+                    return results;
+                }));
+    }
+
+    public CompletableFuture<SyncResult> syncHeartRate() {
+        return enqueue(this::heartRate);
+    }
+
+    public CompletableFuture<SyncResult> syncRespiratoryRate() {
+        return enqueue(this::respiratoryRate);
+    }
+
+    public CompletableFuture<SyncResult> syncSteps() {
+        return enqueue(this::steps);
+    }
+
+    public CompletableFuture<SyncResult> syncSport() {
+        return enqueue(this::sport);
+    }
+
+    public CompletableFuture<SyncResult> syncSleep() {
+        return enqueue(this::sleep);
+    }
+
+    public CompletableFuture<SyncResult> syncIntervalSteps() {
+        return enqueue(this::intervalSteps);
+    }
+
+    public void reset(final String address) {
+        this.mWatermarks.clear(address);
+    }
+
+    private CompletableFuture<SyncResult> heartRate() {
+        return syncRecords(WearReceivedDataCallback.TYPE_HEARTS, this.mManager::requestHistoryOfHRRecord, this.mManager::requestHistoryOfHRData, sample -> sample.stamp, this.mStore::mergeHeartRates);
+    }
+
+    private CompletableFuture<SyncResult> respiratoryRate() {
+        return syncRecords(WearReceivedDataCallback.TYPE_HEART_RRS, this.mManager::requestHistoryOfRRRecord, this.mManager::requestHistoryOfRRData, sample -> sample.stamp, this.mStore::mergeRespiratoryRates);
+    }
+
+    private CompletableFuture<SyncResult> steps() {
+        return syncRecords(WearReceivedDataCallback.TYPE_STEPS, this.mManager::requestHistoryOfStepRecord, this.mManager::requestHistoryOfStepData, sample -> sample.stamp, this.mStore::mergeSteps);
+    }
+
+    private CompletableFuture<SyncResult> sport() {
+        return syncList(WearReceivedDataCallback.TYPE_SPORT, this.mManager::requestHistoryOfSport, sport -> sport.startTime, (hash, sport) -> mix(mix(mix(mix(hash, sport.startTime), sport.endTime), sport.step), sport.calorie), this.mStore::mergeSports);
+    }
+
+    private CompletableFuture<SyncResult> sleep() {
+        return syncList(WearReceivedDataCallback.TYPE_SLEEP, this.mManager::requestHistoryOfSleep, sleep -> sleep.utc, (hash, sleep) -> {
+            long next = mix(hash, sleep.utc);
+            if (sleep.actions != null) {
+                for (int action : sleep.actions) {
+                    next = mix(next, action);
+                }
+            }
+            return next;
+        }, this.mStore::mergeSleeps);
+    }
+
+    private CompletableFuture<SyncResult> intervalSteps() {
+        return syncList(WearReceivedDataCallback.TYPE_INTERVAL, this.mManager::requestIntervalSteps, step -> step.stamp, (hash, step) -> mix(mix(hash, step.stamp), step.steps), this.mStore::mergeIntervalSteps);
+    }
+
+    private <T> CompletableFuture<SyncResult> syncRecords(final int type, final Supplier<CompletableFuture<List<HistoryOfRecord>>> records, final Fetcher<T> fetcher, final ToLongFunction<T> stampOf, final ToIntBiFunction<String, List<T>> merge) {
+        String address = address();
+        if (address == null) {
+            return notConnected(type);
+        }
+        return recover(type, address, () -> records.get().thenCompose(list -> {
+            List<HistoryOfRecord> sorted = new ArrayList<>(list);
+            sorted.sort((a, b) -> Long.compare(a.stamp, b.stamp));
+            SyncWatermark watermark = this.mWatermarks.load(address, type);
+            SyncResult result = new SyncResult(address, type);
+            if (!watermark.isEmpty() && !contains(sorted, watermark.recordStamp)) {
+                LOG.w("%s type:%d watermark record %d is gone, resyncing", address, Integer.valueOf(type), Long.valueOf(watermark.recordStamp));
+                watermark = new SyncWatermark(type);
+                result.isReset = true;
+            }
+            Transfer<T> transfer = new Transfer<>(address, watermark, result, fetcher, stampOf, merge);
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            long newest = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1).stamp;
+            for (HistoryOfRecord record : sorted) {
+                if (record.stamp < watermark.recordStamp) {
+                    result.skipped++;
+                } else {
+                    chain = chain.thenCompose(v -> fetchRecord(transfer, record, 1));
+                }
+                if (record.stamp != newest) {
+                    chain = chain.thenRun(() -> transfer.seal(record));
+                }
+            }
+            return chain.handle((v, error) -> {
+                if (error != null) {
+                    fail(result, error);
+                }
+                return result;
+            });
+        }));
+    }
+
+    private <T> CompletableFuture<Void> fetchRecord(final Transfer<T> transfer, final HistoryOfRecord record, final int attempt) {
+        if (transfer.isResuming(record)) {
+            transfer.result.resumed++;
+            LOG.d("%s type:%d resuming record %d after %d", transfer.address, Integer.valueOf(transfer.watermark.type), Long.valueOf(record.stamp), Long.valueOf(transfer.watermark.sampleStamp));
+        }
+        Consumer<List<T>> progress = this.isCheckpointing ? samples -> transfer.commit(record, samples) : null;
+        return transfer.fetcher.fetch(record.stamp, WearManager.HISTORY_TIMEOUT, progress)
+                .thenAccept(samples -> {
+                    transfer.commit(record, samples);
+                    transfer.result.fetched++;
+                })
+                .handle((v, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    if (attempt >= this.mMaxAttempts || transfer.result.rejected > 0) {
+                        CompletableFuture<Void> failed = new CompletableFuture<>();
+                        failed.completeExceptionally(error);
+                        return failed;
+                    }
+                    LOG.w("%s type:%d record %d interrupted (attempt %d): %s", transfer.address, Integer.valueOf(transfer.watermark.type), Long.valueOf(record.stamp), Integer.valueOf(attempt), error);
+                    return this.mManager.awaitReady(this.mReconnectTimeout).thenCompose(ready -> fetchRecord(transfer, record, attempt + 1));
+                })
+                .thenCompose(next -> next);
+    }
+
+    private <T> CompletableFuture<SyncResult> syncList(final int type, final Supplier<CompletableFuture<List<T>>> request, final ToLongFunction<T> stampOf, final Hasher<T> hasher, final ToIntBiFunction<String, List<T>> merge) {
+        String address = address();
+        if (address == null) {
+            return notConnected(type);
+        }
+        return recover(type, address, () -> request.get().thenApply(list -> {
+            SyncWatermark watermark = this.mWatermarks.load(address, type);
+            SyncResult result = new SyncResult(address, type);
+            long hash = FNV_OFFSET;
+            for (T item : list) {
+                hash = hasher.mix(hash, item);
+            }
+            if (!watermark.isEmpty() && hash == watermark.contentHash) {
+                result.skipped = list.size();
+                return result;
+            }
+            List<T> fresh = new ArrayList<>(list.size());
+            long sampleStamp = watermark.sampleStamp;
+            for (T item : list) {
+                long stamp = stampOf.applyAsLong(item);
+                if (stamp >= watermark.sampleStamp) {
+                    fresh.add(item);
+                    sampleStamp = Math.max(sampleStamp, stamp);
+                } else {
+                    result.skipped++;
+                }
+            }
+            int refused = fresh.isEmpty() ? 0 : merge.applyAsInt(address, fresh);
+            result.fetched = list.size();
+            result.merged = fresh.size() - refused;
+            if (refused > 0) {
+                result.rejected = refused;
+                fail(result, new IllegalStateException("Store refused " + refused + " samples"));
+                return result;
+            }
+            watermark.sampleStamp = sampleStamp;
+            watermark.contentHash = hash;
+            this.mWatermarks.save(address, watermark);
+            return result;
+        }));
+    }
+
+    private static CompletableFuture<SyncResult> recover(final int type, final String address, final Supplier<CompletableFuture<SyncResult>> task) {
+        CompletableFuture<SyncResult> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        return future.handle((result, error) -> {
+            if (error == null) {
+                return result;
+            }
+            SyncResult failed = new SyncResult(address, type);
+            fail(failed, error);
+            return failed;
+        });
+    }
+
+    private static void fail(final SyncResult result, final Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        result.error = cause;
+        LOG.w("%s type:%d sync failed: %s", result.address, Integer.valueOf(result.type), cause);
+    }
+
+    private <T> CompletableFuture<T> enqueue(final Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> future;
+        synchronized (this) {
+            future = this.mTail.handle((v, t) -> (Void) null).thenCompose(v -> task.get());
+            this.mTail = future;
+        }
+        return future;
+    }
+
+    private static CompletableFuture<SyncResult> collect(final List<SyncResult> results, final SyncResult result, final Supplier<CompletableFuture<SyncResult>> next) {
+        results.add(result);
+        return next.get();
+    }
+
+    private String address() {
+        BluetoothDevice device = this.mManager.getBluetoothDevice();
+        if (device == null) {
+            return null;
+        }
+        return device.getAddress();
+    }
+
+    private static CompletableFuture<SyncResult> notConnected(final int type) {
+        SyncResult result = new SyncResult(null, type);
+        fail(result, new IllegalStateException("Device not connected"));
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private static boolean contains(final List<HistoryOfRecord> records, final long stamp) {
+        for (HistoryOfRecord record : records) {
+            if (record.stamp == stamp) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long mix(final long hash, final long value) {
+        long next = hash;
+        for (int i = 0; i < 8; i++) {
+            next = (next ^ ((value >>> (i * 8)) & 255)) * FNV_PRIME;
+        }
+        return next;
+    }
+
+    private interface Hasher<T> {
+        long mix(long hash, T item);
+    }
+
+    private interface Fetcher<T> {
+        CompletableFuture<List<T>> fetch(long stamp, long timeout, Consumer<List<T>> progress);
+    }
+
+    private final class Transfer<T> {
+        final String address;
+        final Fetcher<T> fetcher;
+        final ToIntBiFunction<String, List<T>> merge;
+        final SyncResult result;
+        final ToLongFunction<T> stampOf;
+        final SyncWatermark watermark;
+
+        Transfer(final String address, final SyncWatermark watermark, final SyncResult result, final Fetcher<T> fetcher, final ToLongFunction<T> stampOf, final ToIntBiFunction<String, List<T>> merge) {
+            this.address = address;
+            this.watermark = watermark;
+            this.result = result;
+            this.fetcher = fetcher;
+            this.stampOf = stampOf;
+            this.merge = merge;
+        }
+
+        boolean isResuming(final HistoryOfRecord record) {
+            SyncWatermark watermark = this.watermark;
+            synchronized (watermark) {
+                return watermark.recordStamp == record.stamp && watermark.sampleStamp >= record.record;
+            }
+        }
+
+        void commit(final HistoryOfRecord record, final List<T> samples) {
+            SyncWatermark watermark = this.watermark;
+            synchronized (watermark) {
+                List<T> fresh = new ArrayList<>(samples.size());
+                long sampleStamp = watermark.sampleStamp;
+                for (T sample : samples) {
+                    long stamp = this.stampOf.applyAsLong(sample);
+                    if (stamp > watermark.sampleStamp) {
+                        fresh.add(sample);
+                        sampleStamp = Math.max(sampleStamp, stamp);
+                    }
+                }
+                if (!fresh.isEmpty()) {
+                    int refused = this.merge.applyAsInt(this.address, fresh);
+                    if (refused > 0) {
+                        this.result.rejected = refused;
+                        throw new IllegalStateException("Store refused " + refused + " samples of record " + record.stamp);
+                    }
+                    this.result.merged += fresh.size();
+                }
+                watermark.recordStamp = record.stamp;
+                watermark.sampleStamp = sampleStamp;
+                SyncEngine.this.mWatermarks.save(this.address, watermark);
+            }
+        }
+
+        void seal(final HistoryOfRecord record) {
+            SyncEngine.this.mStore.sealRecord(this.address, this.watermark.type, record.stamp);
+            this.result.sealed++;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.android.chileaf.fitness.sync;
+
+public final class SyncResult {
+    public final String address;
+    public final int type;
+    public int fetched;
+    public int merged;
+    public int rejected;
+    public int resumed;
+    public int sealed;
+    public int skipped;
+    public Throwable error;
+    public boolean isReset;
+
+    public SyncResult(final String address, final int type) {
+        this.address = address;
+        this.type = type;
+    }
+
+    public boolean isFailed() {
+        return this.error != null;
+    }
+
+    public String toString() {
+        return "SyncResult{address=" + this.address + ", type=" + this.type + ", fetched=" + this.fetched + ", skipped=" + this.skipped + ", merged=" + this.merged + ", rejected=" + this.rejected + ", resumed=" + this.resumed + ", sealed=" + this.sealed + ", reset=" + this.isReset + ", error=" + this.error + '}';
+    }
+}
@@ -0,0 +1,27 @@
+package com.android.chileaf.fitness.sync;
+
+public final class SyncWatermark {
+    public final int type;
+    public long contentHash;
+    public long recordStamp;
+    public long sampleStamp;
+
+    public SyncWatermark(final int type) {
+        this.type = type;
+    }
+
+    public SyncWatermark(final int type, final long recordStamp, final long sampleStamp, final long contentHash) {
+        this.type = type;
+        this.recordStamp = recordStamp;
+        this.sampleStamp = sampleStamp;
+        this.contentHash = contentHash;
+    }
+
+    public boolean isEmpty() {
+        return this.recordStamp == 0 && this.sampleStamp == 0 && this.contentHash == 0;
+    }
+
+    public String toString() {
+        return "SyncWatermark{type=" + this.type + ", recordStamp=" + this.recordStamp + ", sampleStamp=" + this.sampleStamp + ", contentHash=" + Long.toHexString(this.contentHash) + '}';
+    }
+}
@@ -0,0 +1,9 @@
+package com.android.chileaf.fitness.sync;
+
+public interface WatermarkStore {
+    SyncWatermark load(String address, int type);
+
+    void save(String address, SyncWatermark watermark);
+
+    void clear(String address);
+}
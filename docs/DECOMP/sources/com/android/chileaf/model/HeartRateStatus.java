@@ -0,0 +1,49 @@
+package com.android.chileaf.model;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+public class HeartRateStatus implements Parcelable {
+    public static final Parcelable.Creator<HeartRateStatus> CREATOR = new Parcelable.Creator<HeartRateStatus>() { // from class: com.android.chileaf.model.HeartRateStatus.1
+        @Override // android.os.Parcelable.Creator
+        public HeartRateStatus createFromParcel(Parcel in) {
+            return new HeartRateStatus(in);
+        }
+
+        @Override // android.os.Parcelable.Creator
+        public HeartRateStatus[] newArray(int size) {
+            return new HeartRateStatus[size];
+        }
+    };
+    public int goal;
+    public int max;
+    public int min;
+
+    public HeartRateStatus(int min, int max, int goal) {
+        this.min = min;
+        this.max = max;
+        this.goal = goal;
+    }
+
+    public String toString() {
+        return "HeartRateStatus{min=" + this.min + ", max=" + this.max + ", goal=" + this.goal + '}';
+    }
+
+    protected HeartRateStatus(Parcel in) {
+        this.min = in.readInt();
+        this.max = in.readInt();
+        this.goal = in.readInt();
+    }
+
+    @Override // android.os.Parcelable
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeInt(this.min);
+        dest.writeInt(this.max);
+        dest.writeInt(this.goal);
+    }
+
+    @Override // android.os.Parcelable
+    public int describeContents() {
+        return 0;
+    }
+}
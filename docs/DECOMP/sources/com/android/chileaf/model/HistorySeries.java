@@ -0,0 +1,172 @@
+package com.android.chileaf.model;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import com.android.chileaf.util.DateUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class HistorySeries implements Parcelable {
+    public static final Parcelable.Creator<HistorySeries> CREATOR = new Parcelable.Creator<HistorySeries>() {
+        @Override // android.os.Parcelable.Creator
+        public HistorySeries createFromParcel(Parcel in) {
+            return new HistorySeries(in);
+        }
+
+        @Override // android.os.Parcelable.Creator
+        public HistorySeries[] newArray(int size) {
+            return new HistorySeries[size];
+        }
+    };
+    private static final int DEFAULT_CAPACITY = 256;
+    private long mBaseStamp;
+    private int mInterval;
+    private int mSize;
+    private final int mType;
+    private int[] mValues;
+
+    public interface Visitor {
+        void visit(long stamp, int value);
+    }
+
+    public HistorySeries(int type) {
+        this(type, DEFAULT_CAPACITY);
+    }
+
+    public HistorySeries(int type, int capacity) {
+        this.mType = type;
+        this.mInterval = 1;
+        this.mValues = new int[Math.max(1, capacity)];
+    }
+
+    protected HistorySeries(Parcel in) {
+        this.mType = in.readInt();
+        this.mBaseStamp = in.readLong();
+        this.mInterval = in.readInt();
+        this.mSize = in.readInt();
+        this.mValues = new int[Math.max(1, this.mSize)];
+        for (int i = 0; i < this.mSize; i++) {
+            this.mValues[i] = in.readInt();
+        }
+    }
+
+    public int getType() {
+        return this.mType;
+    }
+
+    public long getBaseStamp() {
+        return this.mBaseStamp;
+    }
+
+    public void setBaseStamp(long stamp) {
+        this.mBaseStamp = stamp;
+    }
+
+    public int getInterval() {
+        return this.mInterval;
+    }
+
+    public void setInterval(int interval) {
+        this.mInterval = interval;
+    }
+
+    public int size() {
+        return this.mSize;
+    }
+
+    public boolean isEmpty() {
+        return this.mSize == 0;
+    }
+
+    public int getValue(int index) {
+        checkIndex(index);
+        return this.mValues[index];
+    }
+
+    public long getStamp(int index) {
+        checkIndex(index);
+        return DateUtil.restoreZoneUTC(this.mBaseStamp + ((long) index * this.mInterval));
+    }
+
+    public int[] values() {
+        return this.mValues;
+    }
+
+    public void append(int value) {
+        if (this.mSize == this.mValues.length) {
+            this.mValues = Arrays.copyOf(this.mValues, this.mSize << 1);
+        }
+        this.mValues[this.mSize++] = value;
+    }
+
+    public void clear() {
+        this.mBaseStamp = 0L;
+        this.mSize = 0;
+    }
+
+    public void forEach(final Visitor visitor) {
+        for (int i = 0; i < this.mSize; i++) {
+            visitor.visit(DateUtil.restoreZoneUTC(this.mBaseStamp + ((long) i * this.mInterval)), this.mValues[i]);
+        }
+    }
+
+    public HistorySeries copy() {
+        HistorySeries series = new HistorySeries(this.mType, this.mSize);
+        series.mBaseStamp = this.mBaseStamp;
+        series.mInterval = this.mInterval;
+        series.mSize = this.mSize;
+        System.arraycopy(this.mValues, 0, series.mValues, 0, this.mSize);
+        return series;
+    }
+
+    public List<HistoryOfHeartRate> toHeartRates() {
+        List<HistoryOfHeartRate> list = new ArrayList<>(this.mSize);
+        for (int i = 0; i < this.mSize; i++) {
+            list.add(new HistoryOfHeartRate(getStamp(i), this.mValues[i]));
+        }
+        return list;
+    }
+
+    public List<HistoryOfRespiratoryRate> toRespiratoryRates() {
+        List<HistoryOfRespiratoryRate> list = new ArrayList<>(this.mSize);
+        for (int i = 0; i < this.mSize; i++) {
+            list.add(new HistoryOfRespiratoryRate(getStamp(i), this.mValues[i]));
+        }
+        return list;
+    }
+
+    public List<HistoryOfStep> toSteps() {
+        List<HistoryOfStep> list = new ArrayList<>(this.mSize);
+        for (int i = 0; i < this.mSize; i++) {
+            list.add(new HistoryOfStep(getStamp(i), this.mValues[i]));
+        }
+        return list;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.mSize) {
+            throw new IndexOutOfBoundsException("index:" + index + " size:" + this.mSize);
+        }
+    }
+
+    public String toString() {
+        return "HistorySeries{type=" + this.mType + ", baseStamp=" + this.mBaseStamp + ", interval=" + this.mInterval + ", size=" + this.mSize + '}';
+    }
+
+    @Override // android.os.Parcelable
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeInt(this.mType);
+        dest.writeLong(this.mBaseStamp);
+        dest.writeInt(this.mInterval);
+        dest.writeInt(this.mSize);
+        for (int i = 0; i < this.mSize; i++) {
+            dest.writeInt(this.mValues[i]);
+        }
+    }
+
+    @Override // android.os.Parcelable
+    public int describeContents() {
+        return 0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.android.chileaf.model;
+
+import java.util.Arrays;
+
+public class Sensor3DBatch {
+    private static final int DEFAULT_CAPACITY = 32;
+    private int mCount;
+    private short[] mValues;
+
+    public Sensor3DBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Sensor3DBatch(int capacity) {
+        this.mValues = new short[Math.max(1, capacity) * 3];
+    }
+
+    public void reset(int count) {
+        if (count * 3 > this.mValues.length) {
+            this.mValues = Arrays.copyOf(this.mValues, Math.max(count * 3, this.mValues.length << 1));
+        }
+        this.mCount = count;
+    }
+
+    public void set(int index, int x, int y, int z) {
+        int offset = index * 3;
+        this.mValues[offset] = (short) x;
+        this.mValues[offset + 1] = (short) y;
+        this.mValues[offset + 2] = (short) z;
+    }
+
+    public int size() {
+        return this.mCount;
+    }
+
+    public int getX(int index) {
+        return this.mValues[index * 3];
+    }
+
+    public int getY(int index) {
+        return this.mValues[(index * 3) + 1];
+    }
+
+    public int getZ(int index) {
+        return this.mValues[(index * 3) + 2];
+    }
+
+    public short[] values() {
+        return this.mValues;
+    }
+
+    public Sensor3DBatch copy() {
+        Sensor3DBatch batch = new Sensor3DBatch(this.mCount);
+        batch.mCount = this.mCount;
+        System.arraycopy(this.mValues, 0, batch.mValues, 0, this.mCount * 3);
+        return batch;
+    }
+
+    public String toString() {
+        return "Sensor3DBatch{count=" + this.mCount + '}';
+    }
+}
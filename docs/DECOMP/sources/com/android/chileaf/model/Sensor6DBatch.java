@@ -0,0 +1,106 @@
+package com.android.chileaf.model;
+
+import java.util.Arrays;
+
+public class Sensor6DBatch {
+    private static final int DEFAULT_CAPACITY = 32;
+    private short[] mAccelerometerX;
+    private short[] mAccelerometerY;
+    private short[] mAccelerometerZ;
+    private int mCount;
+    private short[] mGyroscopeX;
+    private short[] mGyroscopeY;
+    private short[] mGyroscopeZ;
+    private int mSequence;
+    private long mUtc;
+
+    public Sensor6DBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Sensor6DBatch(int capacity) {
+        int size = Math.max(1, capacity);
+        this.mGyroscopeX = new short[size];
+        this.mGyroscopeY = new short[size];
+        this.mGyroscopeZ = new short[size];
+        this.mAccelerometerX = new short[size];
+        this.mAccelerometerY = new short[size];
+        this.mAccelerometerZ = new short[size];
+    }
+
+    public void reset(long utc, int sequence, int count) {
+        if (count > this.mGyroscopeX.length) {
+            int size = Math.max(count, this.mGyroscopeX.length << 1);
+            this.mGyroscopeX = Arrays.copyOf(this.mGyroscopeX, size);
+            this.mGyroscopeY = Arrays.copyOf(this.mGyroscopeY, size);
+            this.mGyroscopeZ = Arrays.copyOf(this.mGyroscopeZ, size);
+            this.mAccelerometerX = Arrays.copyOf(this.mAccelerometerX, size);
+            this.mAccelerometerY = Arrays.copyOf(this.mAccelerometerY, size);
+            this.mAccelerometerZ = Arrays.copyOf(this.mAccelerometerZ, size);
+        }
+        this.mUtc = utc;
+        this.mSequence = sequence;
+        this.mCount = count;
+    }
+
+    public void set(int index, int gyroscopeX, int gyroscopeY, int gyroscopeZ, int accelerometerX, int accelerometerY, int accelerometerZ) {
+        this.mGyroscopeX[index] = (short) gyroscopeX;
+        this.mGyroscopeY[index] = (short) gyroscopeY;
+        this.mGyroscopeZ[index] = (short) gyroscopeZ;
+        this.mAccelerometerX[index] = (short) accelerometerX;
+        this.mAccelerometerY[index] = (short) accelerometerY;
+        this.mAccelerometerZ[index] = (short) accelerometerZ;
+    }
+
+    public long getUtc() {
+        return this.mUtc;
+    }
+
+    public int getSequence() {
+        return this.mSequence;
+    }
+
+    public int size() {
+        return this.mCount;
+    }
+
+    public short[] getGyroscopeX() {
+        return this.mGyroscopeX;
+    }
+
+    public short[] getGyroscopeY() {
+        return this.mGyroscopeY;
+    }
+
+    public short[] getGyroscopeZ() {
+        return this.mGyroscopeZ;
+    }
+
+    public short[] getAccelerometerX() {
+        return this.mAccelerometerX;
+    }
+
+    public short[] getAccelerometerY() {
+        return this.mAccelerometerY;
+    }
+
+    public short[] getAccelerometerZ() {
+        return this.mAccelerometerZ;
+    }
+
+    public Sensor6DBatch copy() {
+        Sensor6DBatch batch = new Sensor6DBatch(this.mCount);
+        batch.reset(this.mUtc, this.mSequence, this.mCount);
+        System.arraycopy(this.mGyroscopeX, 0, batch.mGyroscopeX, 0, this.mCount);
+        System.arraycopy(this.mGyroscopeY, 0, batch.mGyroscopeY, 0, this.mCount);
+        System.arraycopy(this.mGyroscopeZ, 0, batch.mGyroscopeZ, 0, this.mCount);
+        System.arraycopy(this.mAccelerometerX, 0, batch.mAccelerometerX, 0, this.mCount);
+        System.arraycopy(this.mAccelerometerY, 0, batch.mAccelerometerY, 0, this.mCount);
+        System.arraycopy(this.mAccelerometerZ, 0, batch.mAccelerometerZ, 0, this.mCount);
+        return batch;
+    }
+
+    public String toString() {
+        return "Sensor6DBatch{utc=" + this.mUtc + ", sequence=" + this.mSequence + ", count=" + this.mCount + '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.android.chileaf.model;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+public class UserInfo implements Parcelable {
+    public static final Parcelable.Creator<UserInfo> CREATOR = new Parcelable.Creator<UserInfo>() { // from class: com.android.chileaf.model.UserInfo.1
+        @Override // android.os.Parcelable.Creator
+        public UserInfo createFromParcel(Parcel in) {
+            return new UserInfo(in);
+        }
+
+        @Override // android.os.Parcelable.Creator
+        public UserInfo[] newArray(int size) {
+            return new UserInfo[size];
+        }
+    };
+    public int age;
+    public int height;
+    public int sex;
+    public long userId;
+    public int weight;
+
+    public UserInfo(int age, int sex, int weight, int height, long userId) {
+        this.age = age;
+        this.sex = sex;
+        this.weight = weight;
+        this.height = height;
+        this.userId = userId;
+    }
+
+    public String toString() {
+        return "UserInfo{age=" + this.age + ", sex=" + this.sex + ", weight=" + this.weight + ", height=" + this.height + ", userId=" + this.userId + '}';
+    }
+
+    protected UserInfo(Parcel in) {
+        this.age = in.readInt();
+        this.sex = in.readInt();
+        this.weight = in.readInt();
+        this.height = in.readInt();
+        this.userId = in.readLong();
+    }
+
+    @Override // android.os.Parcelable
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeInt(this.age);
+        dest.writeInt(this.sex);
+        dest.writeInt(this.weight);
+        dest.writeInt(this.height);
+        dest.writeLong(this.userId);
+    }
+
+    @Override // android.os.Parcelable
+    public int describeContents() {
+        return 0;
+    }
+}
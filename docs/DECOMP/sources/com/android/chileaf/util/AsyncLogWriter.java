@@ -0,0 +1,264 @@
+package com.android.chileaf.util;
+
+import android.util.Log;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+public final class AsyncLogWriter {
+    private static final long IDLE_PARK_NANOS = 5000000L;
+    private final Object[][] mArgs;
+    private final int mCapacity;
+    private final AtomicLong mDropped;
+    private final String[] mFormats;
+    private final int mMask;
+    private final int[] mPriorities;
+    private long mReadIndex;
+    private volatile boolean isRunning;
+    private final AtomicLongArray mSequences;
+    private final Sink mSink;
+    private final String[] mTags;
+    private Thread mThread;
+    private final Throwable[] mThrowables;
+    private final long[] mTimes;
+    private final AtomicLong mWriteIndex;
+
+    public interface Sink {
+        void write(long time, int priority, String tag, String message);
+
+        void flush();
+    }
+
+    public AsyncLogWriter(final int capacity, final Sink sink) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mCapacity = size;
+        this.mMask = size - 1;
+        this.mSink = sink;
+        this.mSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.mSequences.set(i, i);
+        }
+        this.mPriorities = new int[size];
+        this.mTimes = new long[size];
+        this.mTags = new String[size];
+        this.mFormats = new String[size];
+        this.mArgs = new Object[size][];
+        this.mThrowables = new Throwable[size];
+        this.mWriteIndex = new AtomicLong();
+        this.mDropped = new AtomicLong();
+    }
+
+    public static Sink logcat() {
+        return new Sink() {
+            @Override // com.android.chileaf.util.AsyncLogWriter.Sink
+            public void write(long time, int priority, String tag, String message) {
+                Log.println(priority, tag, message);
+            }
+
+            @Override // com.android.chileaf.util.AsyncLogWriter.Sink
+            public void flush() {
+            }
+        };
+    }
+
+    public static Sink rollingFile(final File file, final long maxBytes, final int maxFiles) {
+        return new RollingFileSink(file, maxBytes, maxFiles);
+    }
+
+    public synchronized void start() {
+        if (this.isRunning) {
+            return;
+        }
+        this.isRunning = true;
+        this.mThread = new Thread(this::drainLoop, "LogUtil-writer");
+        this.mThread.setDaemon(true);
+        this.mThread.start();
+    }
+
+    public synchronized void shutdown() {
+        this.isRunning = false;
+        Thread thread = this.mThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.mThread = null;
+        }
+    }
+
+    public boolean offer(final int priority, final String tag, final Throwable t, final String format, final Object[] args) {
+        long index;
+        int slot;
+        while (true) {
+            index = this.mWriteIndex.get();
+            slot = (int) (index & this.mMask);
+            long sequence = this.mSequences.get(slot);
+            if (sequence == index) {
+                if (this.mWriteIndex.compareAndSet(index, 1 + index)) {
+                    break;
+                }
+            } else if (sequence < index) {
+                this.mDropped.incrementAndGet();
+                return false;
+            }
+        }
+        Object[] values = null;
+        if (args != null && args.length > 0) {
+            values = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                values[i] = snapshot(args[i]);
+            }
+        }
+        this.mPriorities[slot] = priority;
+        this.mTimes[slot] = System.currentTimeMillis();
+        this.mTags[slot] = tag;
+        this.mFormats[slot] = format;
+        this.mArgs[slot] = values;
+        this.mThrowables[slot] = t;
+        this.mSequences.lazySet(slot, 1 + index);
+        return true;
+    }
+
+    public long getDropped() {
+        return this.mDropped.get();
+    }
+
+    public int capacity() {
+        return this.mCapacity;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            int drained = drain();
+            if (drained == 0) {
+                if (!this.isRunning) {
+                    this.mSink.flush();
+                    return;
+                }
+                this.mSink.flush();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drain() {
+        int count = 0;
+        while (true) {
+            long index = this.mReadIndex;
+            int slot = (int) (index & this.mMask);
+            if (this.mSequences.get(slot) != 1 + index) {
+                return count;
+            }
+            int priority = this.mPriorities[slot];
+            long time = this.mTimes[slot];
+            String tag = this.mTags[slot];
+            String format = this.mFormats[slot];
+            Object[] args = this.mArgs[slot];
+            Throwable t = this.mThrowables[slot];
+            this.mTags[slot] = null;
+            this.mFormats[slot] = null;
+            this.mArgs[slot] = null;
+            this.mThrowables[slot] = null;
+            this.mReadIndex = 1 + index;
+            this.mSequences.lazySet(slot, this.mCapacity + index);
+            try {
+                this.mSink.write(time, priority, tag, format(format, args, t));
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            count++;
+        }
+    }
+
+    private static Object snapshot(final Object arg) {
+        if (arg == null || (arg instanceof String) || (arg instanceof Number) || (arg instanceof Boolean) || (arg instanceof Character) || (arg instanceof Enum)) {
+            return arg;
+        }
+        return String.valueOf(arg);
+    }
+
+    private static String format(final String format, final Object[] args, final Throwable t) {
+        String message = format;
+        if (message != null && args != null && args.length > 0) {
+            message = String.format(message, args);
+        }
+        if (t == null) {
+            return message;
+        }
+        StringWriter sw = new StringWriter(256);
+        PrintWriter pw = new PrintWriter((Writer) sw, false);
+        t.printStackTrace(pw);
+        pw.flush();
+        return message != null ? message + "\n" + sw : sw.toString();
+    }
+
+    private static final class RollingFileSink implements Sink {
+        private static final char[] PRIORITIES = {'?', '?', 'V', 'D', 'I', 'W', 'E', 'A'};
+        private final SimpleDateFormat mDateFormat = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
+        private final File mFile;
+        private final int mMaxFiles;
+        private final long mMaxBytes;
+        private long mSize;
+        private Writer mWriter;
+
+        RollingFileSink(final File file, final long maxBytes, final int maxFiles) {
+            this.mFile = file;
+            this.mMaxBytes = maxBytes;
+            this.mMaxFiles = Math.max(1, maxFiles);
+        }
+
+        @Override // com.android.chileaf.util.AsyncLogWriter.Sink
+        public void write(long time, int priority, String tag, String message) {
+            String line = this.mDateFormat.format(new Date(time)) + " " + PRIORITIES[priority & 7] + "/" + tag + ": " + message + "\n";
+            try {
+                if (this.mWriter == null || this.mSize + line.length() > this.mMaxBytes) {
+                    roll();
+                }
+                this.mWriter.write(line);
+                this.mSize += line.length();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        @Override // com.android.chileaf.util.AsyncLogWriter.Sink
+        public void flush() {
+            if (this.mWriter != null) {
+                try {
+                    this.mWriter.flush();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void roll() throws IOException {
+            if (this.mWriter != null) {
+                this.mWriter.close();
+                this.mWriter = null;
+                for (int i = this.mMaxFiles - 1; i > 0; i--) {
+                    File from = i == 1 ? this.mFile : new File(this.mFile.getPath() + "." + (i - 1));
+                    if (from.exists()) {
+                        from.renameTo(new File(this.mFile.getPath() + "." + i));
+                    }
+                }
+            }
+            boolean append = this.mFile.exists() && this.mFile.length() < this.mMaxBytes;
+            this.mSize = append ? this.mFile.length() : 0L;
+            this.mWriter = new BufferedWriter(new FileWriter(this.mFile, append));
+        }
+    }
+}
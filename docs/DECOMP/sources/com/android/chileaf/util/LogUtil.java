@@ -10,7 +10,35 @@ import java.util.regex.Pattern;
 
 /* loaded from: C:\Users\UserDemo\Downloads\New folder\CHILEAF\classes.dex */
 public final class LogUtil {
+    private static final String DEFAULT_TAG = "LogUtil";
     private static final Tree DEBUG_TREE = new DebugTree();
+    private static volatile AsyncLogWriter sWriter;
+
+    public interface Message {
+        String get();
+    }
+
+    public static boolean isDebug() {
+        return DEBUG_TREE.isDebug;
+    }
+
+    public static void v(Message message) {
+        if (DEBUG_TREE.isDebug) {
+            DEBUG_TREE.log(5, 2, message.get(), new Object[0]);
+        }
+    }
+
+    public static void d(Message message) {
+        if (DEBUG_TREE.isDebug) {
+            DEBUG_TREE.log(5, 3, message.get(), new Object[0]);
+        }
+    }
+
+    public static void i(Message message) {
+        if (DEBUG_TREE.isDebug) {
+            DEBUG_TREE.log(5, 4, message.get(), new Object[0]);
+        }
+    }
 
     public static void v(String message, Object... args) {
         DEBUG_TREE.v(message, args);
@@ -110,13 +138,64 @@ public final class LogUtil {
         DEBUG_TREE.setDebug(debug);
     }
 
+    public static void setAsyncWriter(AsyncLogWriter writer) {
+        AsyncLogWriter previous = sWriter;
+        sWriter = writer;
+        if (writer != null) {
+            writer.start();
+        }
+        if (previous != null && previous != writer) {
+            previous.shutdown();
+        }
+    }
+
+    public static AsyncLogWriter getAsyncWriter() {
+        return sWriter;
+    }
+
+    public static Site site(String tag) {
+        return new Site(tag);
+    }
+
+    public static final class Site {
+        private final String tag;
+
+        Site(String tag) {
+            this.tag = tag;
+        }
+
+        public void v(String message, Object... args) {
+            DEBUG_TREE.logSite(this.tag, 2, null, message, args);
+        }
+
+        public void d(String message, Object... args) {
+            DEBUG_TREE.logSite(this.tag, 3, null, message, args);
+        }
+
+        public void i(String message, Object... args) {
+            DEBUG_TREE.logSite(this.tag, 4, null, message, args);
+        }
+
+        public void w(String message, Object... args) {
+            DEBUG_TREE.logSite(this.tag, 5, null, message, args);
+        }
+
+        public void e(Throwable t, String message, Object... args) {
+            DEBUG_TREE.logSite(this.tag, 6, t, message, args);
+        }
+
+        public void log(int priority, String message) {
+            DEBUG_TREE.logSite(this.tag, priority, null, message, null);
+        }
+    }
+
     private LogUtil() {
         throw new AssertionError("No instances.");
     }
 
     public static abstract class Tree {
         private final ThreadLocal<String> explicitTag = new ThreadLocal<>();
-        private boolean isDebug;
+        private volatile boolean isDebug;
 
         protected abstract void log(int priority, String tag, String message, Throwable t);
 
@@ -220,10 +299,48 @@ public final class LogUtil {
             this.isDebug = debug;
         }
 
+        public boolean isDebug() {
+            return this.isDebug;
+        }
+
+        void logSite(String tag, int priority, Throwable t, String message, Object[] args) {
+            if (!this.isDebug) {
+                return;
+            }
+            AsyncLogWriter writer = sWriter;
+            if (writer != null) {
+                writer.offer(priority, tag, t, message, args);
+                return;
+            }
+            if (message == null) {
+                if (t == null) {
+                    return;
+                }
+                message = getStackTraceString(t);
+            } else {
+                if (args != null && args.length > 0) {
+                    message = formatMessage(message, args);
+                }
+                if (t != null) {
+                    message = message + "\n" + getStackTraceString(t);
+                }
+            }
+            log(priority, tag, message, t);
+        }
+
         private void prepareLog(int invoke, int priority, Throwable t, String message, Object... args) {
             if (!this.isDebug) {
                 return;
             }
+            AsyncLogWriter writer = sWriter;
+            if (writer != null) {
+                String tag = this.explicitTag.get();
+                if (tag != null) {
+                    this.explicitTag.remove();
+                }
+                writer.offer(priority, tag != null ? tag : DEFAULT_TAG, t, message, args);
+                return;
+            }
             if (message != null && message.length() == 0) {
                 message = null;
             }
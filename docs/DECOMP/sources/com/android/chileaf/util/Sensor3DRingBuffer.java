@@ -0,0 +1,79 @@
+package com.android.chileaf.util;
+
+import android.bluetooth.BluetoothDevice;
+import com.android.chileaf.fitness.callback.AccelerometerBatchCallback;
+import com.android.chileaf.fitness.callback.HistoryOf3DBatchCallback;
+import com.android.chileaf.model.Sensor3DBatch;
+
+public class Sensor3DRingBuffer implements AccelerometerBatchCallback, HistoryOf3DBatchCallback {
+    private final short[] mBuffer;
+    private final int mCapacity;
+    private volatile long mDropped;
+    private final int mMask;
+    private volatile long mReadIndex;
+    private volatile long mWriteIndex;
+
+    public Sensor3DRingBuffer(final int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mCapacity = size;
+        this.mMask = size - 1;
+        this.mBuffer = new short[size * 3];
+    }
+
+    @Override // com.android.chileaf.fitness.callback.AccelerometerBatchCallback
+    public void onAccelerometerBatchReceived(final BluetoothDevice device, final Sensor3DBatch batch) {
+        offer(batch);
+    }
+
+    @Override // com.android.chileaf.fitness.callback.HistoryOf3DBatchCallback
+    public void onHistoryOf3DBatchReceived(final BluetoothDevice device, final Sensor3DBatch batch, final boolean finish) {
+        offer(batch);
+    }
+
+    public int offer(final Sensor3DBatch batch) {
+        long write = this.mWriteIndex;
+        int free = this.mCapacity - ((int) (write - this.mReadIndex));
+        int count = Math.min(batch.size(), free);
+        short[] values = batch.values();
+        for (int i = 0; i < count; i++) {
+            int offset = ((int) ((write + i) & this.mMask)) * 3;
+            this.mBuffer[offset] = values[i * 3];
+            this.mBuffer[offset + 1] = values[(i * 3) + 1];
+            this.mBuffer[offset + 2] = values[(i * 3) + 2];
+        }
+        if (count < batch.size()) {
+            this.mDropped += batch.size() - count;
+        }
+        this.mWriteIndex = write + count;
+        return count;
+    }
+
+    public int read(final short[] destination, final int maxSamples) {
+        long read = this.mReadIndex;
+        int count = Math.min(Math.min(maxSamples, destination.length / 3), (int) (this.mWriteIndex - read));
+        for (int i = 0; i < count; i++) {
+            int offset = ((int) ((read + i) & this.mMask)) * 3;
+            destination[i * 3] = this.mBuffer[offset];
+            destination[(i * 3) + 1] = this.mBuffer[offset + 1];
+            destination[(i * 3) + 2] = this.mBuffer[offset + 2];
+        }
+        this.mReadIndex = read + count;
+        return count;
+    }
+
+    public int available() {
+        return (int) (this.mWriteIndex - this.mReadIndex);
+    }
+
+    public int capacity() {
+        return this.mCapacity;
+    }
+
+    public long getDropped() {
+        return this.mDropped;
+    }
+
+    public void clear() {
+        this.mReadIndex = this.mWriteIndex;
+    }
+}
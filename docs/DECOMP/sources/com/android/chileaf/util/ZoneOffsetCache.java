@@ -0,0 +1,91 @@
+package com.android.chileaf.util;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class ZoneOffsetCache {
+    private static final AtomicBoolean sRegistered = new AtomicBoolean();
+    private static volatile Window sWindow;
+
+    private static final class Window {
+        final long end;
+        final int offset;
+        final ZoneRules rules;
+        final long start;
+        final TimeZone timeZone;
+
+        Window(TimeZone timeZone, ZoneRules rules, long start, long end, int offset) {
+            this.timeZone = timeZone;
+            this.rules = rules;
+            this.start = start;
+            this.end = end;
+            this.offset = offset;
+        }
+    }
+
+    private ZoneOffsetCache() {
+    }
+
+    public static long toUTC(final long millis) {
+        return millis - getOffset(millis);
+    }
+
+    public static long toLocal(final long millis) {
+        return millis + getOffset(millis);
+    }
+
+    public static int getOffset(final long millis) {
+        Window window = sWindow;
+        if (window != null && millis >= window.start && millis < window.end) {
+            return window.offset;
+        }
+        return load(window, millis).offset;
+    }
+
+    public static void invalidate() {
+        sWindow = null;
+    }
+
+    public static void register(final Context context) {
+        if (sRegistered.compareAndSet(false, true)) {
+            context.getApplicationContext().registerReceiver(new BroadcastReceiver() {
+                @Override // android.content.BroadcastReceiver
+                public void onReceive(Context context2, Intent intent) {
+                    ZoneOffsetCache.invalidate();
+                }
+            }, new IntentFilter("android.intent.action.TIMEZONE_CHANGED"));
+        }
+    }
+
+    private static Window load(final Window previous, final long millis) {
+        TimeZone timeZone = TimeZone.getDefault();
+        ZoneRules rules = null;
+        if (previous != null && previous.timeZone.getID().equals(timeZone.getID())) {
+            timeZone = previous.timeZone;
+            rules = previous.rules;
+        } else if (Build.VERSION.SDK_INT >= 26) {
+            rules = timeZone.toZoneId().getRules();
+        }
+        Window window;
+        if (rules != null) {
+            Instant instant = Instant.ofEpochMilli(millis);
+            ZoneOffsetTransition previousTransition = rules.previousTransition(instant.plusMillis(1L));
+            ZoneOffsetTransition nextTransition = rules.nextTransition(instant);
+            long start = previousTransition != null ? previousTransition.toEpochSecond() * 1000 : Long.MIN_VALUE;
+            long end = nextTransition != null ? nextTransition.toEpochSecond() * 1000 : Long.MAX_VALUE;
+            window = new Window(timeZone, rules, start, end, rules.getOffset(instant).getTotalSeconds() * 1000);
+        } else {
+            window = new Window(timeZone, null, millis, millis + 1, timeZone.getOffset(millis));
+        }
+        sWindow = window;
+        return window;
+    }
+}
@@ -1,12 +1,33 @@
 package com.chileaf.cl831.sample;
 
 import android.app.Application;
+import android.content.Context;
 import android.os.Build;
+import com.android.chileaf.fitness.store.SeriesStore;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import no.nordicsemi.android.dfu.DfuServiceInitiator;
 import timber.log.Timber;
 
 /* loaded from: C:\Users\UserDemo\Downloads\New folder\CHILEAF\classes5.dex */
 public class App extends Application {
+    private static SeriesStore sSeriesStore;
+    private static ExecutorService sStoreExecutor;
+
+    public static synchronized SeriesStore getSeriesStore(Context context) {
+        if (sSeriesStore == null) {
+            sSeriesStore = SeriesStore.open(context);
+        }
+        return sSeriesStore;
+    }
+
+    public static synchronized ExecutorService getStoreExecutor() {
+        if (sStoreExecutor == null) {
+            sStoreExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "SeriesStore"));
+        }
+        return sStoreExecutor;
+    }
+
     @Override // android.app.Application
     public void onCreate() {
         super.onCreate();
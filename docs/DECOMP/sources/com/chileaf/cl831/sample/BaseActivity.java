@@ -71,9 +71,15 @@ public abstract class BaseActivity extends AppCompatActivity {
     }
 
     protected void launchDetail(int type, long stamp) {
+        launchDetail(type, stamp, 0L, 0L);
+    }
+
+    protected void launchDetail(int type, long stamp, long start, long end) {
         Intent history = new Intent(this, (Class<?>) HistoryDetailActivity.class);
         history.putExtra(HistoryDetailActivity.EXTRA_TYPE, type);
         history.putExtra(HistoryDetailActivity.EXTRA_STAMP, stamp);
+        history.putExtra(HistoryDetailActivity.EXTRA_START, start);
+        history.putExtra(HistoryDetailActivity.EXTRA_END, end);
         startActivity(history);
     }
 
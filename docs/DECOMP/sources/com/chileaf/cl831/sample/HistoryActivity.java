@@ -184,7 +184,7 @@ public class HistoryActivity extends BaseActivity {
 
     public /* synthetic */ void lambda$initData$2$HistoryActivity(BaseQuickAdapter adapter1, View view, int position) {
         HistoryOfRecord history = (HistoryOfRecord) adapter1.getData().get(position);
-        launchDetail(3, history.stamp);
+        launchDetail(3, history.stamp, history.record, sessionEnd(adapter1.getData(), history));
     }
 
     public /* synthetic */ void lambda$initData$4$HistoryActivity(final HistoryRecordAdapter adapter, BluetoothDevice device, final List records) {
@@ -203,7 +203,7 @@ public class HistoryActivity extends BaseActivity {
 
     public /* synthetic */ void lambda$initData$5$HistoryActivity(BaseQuickAdapter adapter1, View view, int position) {
         HistoryOfRecord history = (HistoryOfRecord) adapter1.getData().get(position);
-        launchDetail(5, history.stamp);
+        launchDetail(5, history.stamp, history.record, sessionEnd(adapter1.getData(), history));
     }
 
     public /* synthetic */ void lambda$initData$7$HistoryActivity(final HistoryRecordAdapter adapter, BluetoothDevice device, final List records) {
@@ -222,7 +222,7 @@ public class HistoryActivity extends BaseActivity {
 
     public /* synthetic */ void lambda$initData$8$HistoryActivity(BaseQuickAdapter adapter1, View view, int position) {
         HistoryOfRecord history = (HistoryOfRecord) adapter1.getData().get(position);
-        launchDetail(7, history.stamp);
+        launchDetail(7, history.stamp, history.record, sessionEnd(adapter1.getData(), history));
     }
 
     public /* synthetic */ void lambda$initData$10$HistoryActivity(final HistoryRecordAdapter adapter, BluetoothDevice device, final List records) {
@@ -267,6 +267,17 @@ public class HistoryActivity extends BaseActivity {
         hideLoading();
     }
 
+    private long sessionEnd(List records, HistoryOfRecord history) {
+        long end = 0L;
+        for (Object item : records) {
+            HistoryOfRecord record = (HistoryOfRecord) item;
+            if (record.record > history.record && (end == 0 || record.record < end)) {
+                end = record.record;
+            }
+        }
+        return end;
+    }
+
     public /* synthetic */ void lambda$initData$16$HistoryActivity(final History3DAdapter adapter, BluetoothDevice device, final HistoryOf3D history, final boolean finish) {
         runOnUiThread(new Runnable() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryActivity$BLfUDKR7uzpKGaT_eyOV7Ssq6us
             @Override // java.lang.Runnable
@@ -7,6 +7,10 @@ import androidx.core.internal.view.SupportMenu;
 import com.android.chileaf.fitness.callback.HistoryOfHRDataCallback;
 import com.android.chileaf.fitness.callback.HistoryOfRRDataCallback;
 import com.android.chileaf.fitness.callback.HistoryOfStepDataCallback;
+import com.android.chileaf.fitness.callback.WearReceivedDataCallback;
+import com.android.chileaf.fitness.store.SeriesStore;
+import com.android.chileaf.fitness.store.SeriesType;
+import com.android.chileaf.fitness.store.TimeSeries;
 import com.android.chileaf.model.HistoryOfHeartRate;
 import com.android.chileaf.model.HistoryOfRespiratoryRate;
 import com.android.chileaf.model.HistoryOfStep;
@@ -16,22 +20,29 @@ import com.github.mikephil.charting.data.Entry;
 import com.github.mikephil.charting.data.LineData;
 import com.github.mikephil.charting.data.LineDataSet;
 import com.github.mikephil.charting.formatter.ValueFormatter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Consumer;
 import timber.log.Timber;
 
 /* loaded from: C:\Users\UserDemo\Downloads\New folder\CHILEAF\classes5.dex */
 public class HistoryDetailActivity extends BaseActivity {
+    public static final String EXTRA_END = "extra_end";
     public static final String EXTRA_STAMP = "extra_stamp";
+    public static final String EXTRA_START = "extra_start";
     public static final String EXTRA_TYPE = "extra_type";
     public static final int TYPE_HR = 3;
     public static final int TYPE_RR = 5;
     public static final int TYPE_STEP = 7;
     private LineChart mChart;
     private SimpleDateFormat mDateFormat;
+    private long mEnd;
+    private long mStamp;
     private AppCompatTextView mTvHistory;
 
     @Override // com.chileaf.cl831.sample.BaseActivity
@@ -51,38 +62,61 @@ public class HistoryDetailActivity extends BaseActivity {
         showLoadingAutoDismiss(2000L);
         int type = getIntent().getIntExtra(EXTRA_TYPE, 0);
         long stamp = getIntent().getLongExtra(EXTRA_STAMP, 0L);
+        long start = getIntent().getLongExtra(EXTRA_START, 0L);
+        long end = getIntent().getLongExtra(EXTRA_END, 0L);
+        this.mStamp = stamp;
+        this.mEnd = end;
         this.mDateFormat = new SimpleDateFormat("MM-dd HH:mm:ss", Locale.getDefault());
         if (type == 3) {
             setTitle("HR history detail");
-            this.mManager.addHistoryOfHRDataCallback(new HistoryOfHRDataCallback() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryDetailActivity$jPoknXpNgG3uiDKfaf_OmKOHUic
-                @Override // com.android.chileaf.fitness.callback.HistoryOfHRDataCallback
-                public final void onHistoryOfHRDataReceived(BluetoothDevice bluetoothDevice, List list) {
-                    this.f$0.lambda$initData$1$HistoryDetailActivity(bluetoothDevice, list);
-                }
+            showStored(SeriesType.HEART_RATE, WearReceivedDataCallback.TYPE_HEARTS, stamp, start, end, HistoryOfHeartRate::new, this::updateHeartRates, () -> {
+                this.mManager.addHistoryOfHRDataCallback(new HistoryOfHRDataCallback() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryDetailActivity$jPoknXpNgG3uiDKfaf_OmKOHUic
+                    @Override // com.android.chileaf.fitness.callback.HistoryOfHRDataCallback
+                    public final void onHistoryOfHRDataReceived(BluetoothDevice bluetoothDevice, List list) {
+                        this.f$0.lambda$initData$1$HistoryDetailActivity(bluetoothDevice, list);
+                    }
+                });
+                this.mManager.getHistoryOfHRData(stamp);
             });
-            this.mManager.getHistoryOfHRData(stamp);
         } else if (type == 5) {
             setTitle("RR history detail");
-            this.mManager.addHistoryOfRRDataCallback(new HistoryOfRRDataCallback() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryDetailActivity$2MHn-kx1Onf2tzO6Uit7UZK2KXo
-                @Override // com.android.chileaf.fitness.callback.HistoryOfRRDataCallback
-                public final void onHistoryOfRRDataReceived(BluetoothDevice bluetoothDevice, List list) {
-                    this.f$0.lambda$initData$3$HistoryDetailActivity(bluetoothDevice, list);
-                }
+            showStored(SeriesType.RESPIRATORY_RATE, WearReceivedDataCallback.TYPE_HEART_RRS, stamp, start, end, HistoryOfRespiratoryRate::new, this::updateRespiratoryRates, () -> {
+                this.mManager.addHistoryOfRRDataCallback(new HistoryOfRRDataCallback() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryDetailActivity$2MHn-kx1Onf2tzO6Uit7UZK2KXo
+                    @Override // com.android.chileaf.fitness.callback.HistoryOfRRDataCallback
+                    public final void onHistoryOfRRDataReceived(BluetoothDevice bluetoothDevice, List list) {
+                        this.f$0.lambda$initData$3$HistoryDetailActivity(bluetoothDevice, list);
+                    }
+                });
+                this.mManager.getHistoryOfRRData(stamp);
             });
-            this.mManager.getHistoryOfRRData(stamp);
         } else if (type == 7) {
             setTitle("Step history detail");
-            this.mManager.addHistoryOfStepDataCallback(new HistoryOfStepDataCallback() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryDetailActivity$txPu055GZrPzGXxu58vHA0d53xQ
-                @Override // com.android.chileaf.fitness.callback.HistoryOfStepDataCallback
-                public final void onHistoryOfStepDataReceived(BluetoothDevice bluetoothDevice, List list) {
-                    this.f$0.lambda$initData$5$HistoryDetailActivity(bluetoothDevice, list);
-                }
+            showStored(SeriesType.STEP, WearReceivedDataCallback.TYPE_STEPS, stamp, start, end, HistoryOfStep::new, this::updateSteps, () -> {
+                this.mManager.addHistoryOfStepDataCallback(new HistoryOfStepDataCallback() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryDetailActivity$txPu055GZrPzGXxu58vHA0d53xQ
+                    @Override // com.android.chileaf.fitness.callback.HistoryOfStepDataCallback
+                    public final void onHistoryOfStepDataReceived(BluetoothDevice bluetoothDevice, List list) {
+                        this.f$0.lambda$initData$5$HistoryDetailActivity(bluetoothDevice, list);
+                    }
+                });
+                this.mManager.getHistoryOfStepData(stamp);
             });
-            this.mManager.getHistoryOfStepData(stamp);
         }
     }
 
-    public /* synthetic */ void lambda$initData$1$HistoryDetailActivity(BluetoothDevice device, final List heartRates) {
+    public /* synthetic */ void lambda$initData$1$HistoryDetailActivity(BluetoothDevice device, List received) {
+        final List heartRates = new ArrayList(received);
+        App.getStoreExecutor().execute(() -> {
+            try {
+                int refused = App.getSeriesStore(this).mergeHeartRates(device.getAddress(), heartRates);
+                if (refused > 0) {
+                    Timber.w("store refused %d heart rates", Integer.valueOf(refused));
+                } else {
+                    seal(device, WearReceivedDataCallback.TYPE_HEARTS);
+                }
+            } catch (UncheckedIOException e) {
+                Timber.e(e, "store heart rates");
+            }
+        });
         runOnUiThread(new Runnable() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryDetailActivity$cx_CGuXefg4p0GlzhUycDY8GMLo
             @Override // java.lang.Runnable
             public final void run() {
@@ -97,7 +131,20 @@ public class HistoryDetailActivity extends BaseActivity {
         hideLoading();
     }
 
-    public /* synthetic */ void lambda$initData$3$HistoryDetailActivity(BluetoothDevice device, final List respiratoryRates) {
+    public /* synthetic */ void lambda$initData$3$HistoryDetailActivity(BluetoothDevice device, List received) {
+        final List respiratoryRates = new ArrayList(received);
+        App.getStoreExecutor().execute(() -> {
+            try {
+                int refused = App.getSeriesStore(this).mergeRespiratoryRates(device.getAddress(), respiratoryRates);
+                if (refused > 0) {
+                    Timber.w("store refused %d respiratory rates", Integer.valueOf(refused));
+                } else {
+                    seal(device, WearReceivedDataCallback.TYPE_HEART_RRS);
+                }
+            } catch (UncheckedIOException e) {
+                Timber.e(e, "store respiratory rates");
+            }
+        });
         runOnUiThread(new Runnable() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryDetailActivity$AXBc_uRKjsy0P3aXu26jAbOkBt0
             @Override // java.lang.Runnable
             public final void run() {
@@ -112,7 +159,20 @@ public class HistoryDetailActivity extends BaseActivity {
         hideLoading();
     }
 
-    public /* synthetic */ void lambda$initData$5$HistoryDetailActivity(BluetoothDevice device, final List steps) {
+    public /* synthetic */ void lambda$initData$5$HistoryDetailActivity(BluetoothDevice device, List received) {
+        final List steps = new ArrayList(received);
+        App.getStoreExecutor().execute(() -> {
+            try {
+                int refused = App.getSeriesStore(this).mergeSteps(device.getAddress(), steps);
+                if (refused > 0) {
+                    Timber.w("store refused %d steps", Integer.valueOf(refused));
+                } else {
+                    seal(device, WearReceivedDataCallback.TYPE_STEPS);
+                }
+            } catch (UncheckedIOException e) {
+                Timber.e(e, "store steps");
+            }
+        });
         runOnUiThread(new Runnable() { // from class: com.chileaf.cl831.sample.-$$Lambda$HistoryDetailActivity$1XHFO40tJI3lUv24zQZkKzaN7TY
             @Override // java.lang.Runnable
             public final void run() {
@@ -127,6 +187,54 @@ public class HistoryDetailActivity extends BaseActivity {
         hideLoading();
     }
 
+    private void seal(BluetoothDevice device, int syncType) {
+        if (this.mEnd != 0) {
+            App.getSeriesStore(this).sealRecord(device.getAddress(), syncType, this.mStamp);
+        }
+    }
+
+    private <T> void showStored(int type, int syncType, long stamp, long start, long end, Sample<T> sample, Consumer<List<T>> show, Runnable request) {
+        App.getStoreExecutor().execute(() -> {
+            List<T> samples = loadStored(type, syncType, stamp, start, end, sample);
+            runOnUiThread(() -> {
+                if (samples == null) {
+                    request.run();
+                    return;
+                }
+                show.accept(samples);
+                hideLoading();
+            });
+        });
+    }
+
+    private <T> List<T> loadStored(int type, int syncType, long stamp, long start, long end, Sample<T> sample) {
+        BluetoothDevice device = this.mManager.getBluetoothDevice();
+        if (device == null || start == 0 || end == 0) {
+            return null;
+        }
+        try {
+            SeriesStore store = App.getSeriesStore(this);
+            if (!store.isSealed(device.getAddress(), syncType, stamp)) {
+                return null;
+            }
+            TimeSeries series = store.series(device.getAddress(), type);
+            List<T> samples = new ArrayList<>();
+            series.scanInts(start, end - 1, (sampleStamp, value) -> samples.add(sample.create(sampleStamp, value)));
+            if (samples.isEmpty()) {
+                return null;
+            }
+            Timber.d("loaded %d stored samples of %s", Integer.valueOf(samples.size()), SeriesType.name(type));
+            return samples;
+        } catch (IOException e) {
+            Timber.e(e, "load stored %s", SeriesType.name(type));
+            return null;
+        }
+    }
+
+    private interface Sample<T> {
+        T create(long stamp, int value);
+    }
+
     private void initChart() {
         this.mChart.setNoDataText("");
         this.mChart.setTouchEnabled(true);
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicReference;
 import no.nordicsemi.android.ble.BleManagerHandler;
 import no.nordicsemi.android.ble.Request;
 import no.nordicsemi.android.ble.callback.ConnectionParametersUpdatedCallback;
@@ -97,6 +98,7 @@ public abstract class BleManagerHandler extends RequestHandler {
     @Deprecated
     private int batteryValue = -1;
     private final HashMap<Object, ValueChangedCallback> valueChangedCallbacks = new HashMap<>();
+    private final AtomicReference<NotificationRoute[]> notificationRoutes = new AtomicReference<>(new NotificationRoute[0]);
     private final HashMap<Object, DataProvider> dataProviders = new HashMap<>();
     private final BroadcastReceiver bluetoothStateBroadcastReceiver = new AnonymousClass1();
     private final BroadcastReceiver mBondingBroadcastReceiver = new AnonymousClass2();
@@ -1811,6 +1813,7 @@ public abstract class BleManagerHandler extends RequestHandler {
             callback = new ValueChangedCallback(this);
             if (attribute != null) {
                 this.valueChangedCallbacks.put(attribute, callback);
+                invalidateNotificationRoutes();
             }
         } else if (this.bluetoothDevice != null) {
             callback.notifyClosed();
@@ -1821,10 +1824,33 @@ public abstract class BleManagerHandler extends RequestHandler {
     void removeValueChangedCallback(Object attribute) {
         ValueChangedCallback callback = this.valueChangedCallbacks.remove(attribute);
         if (callback != null) {
+            invalidateNotificationRoutes();
             callback.notifyClosed();
         }
     }
 
+    NotificationRoute getNotificationRoute(BluetoothGattCharacteristic characteristic) {
+        NotificationRoute[] routes = this.notificationRoutes.get();
+        for (NotificationRoute route : routes) {
+            if (route.characteristic == characteristic) {
+                return route;
+            }
+        }
+        BluetoothGattDescriptor cccd = characteristic.getDescriptor(BleManager.CLIENT_CHARACTERISTIC_CONFIG_DESCRIPTOR_UUID);
+        byte[] cccdValue = cccd != null ? cccd.getValue() : null;
+        boolean indication = cccdValue != null && cccdValue.length == 2 && cccdValue[0] != 1;
+        NotificationRoute route2 = new NotificationRoute(characteristic, this.valueChangedCallbacks.get(characteristic), indication, isBatteryLevelCharacteristic(characteristic), isServiceChangedCharacteristic(characteristic));
+        NotificationRoute[] routes2 = new NotificationRoute[routes.length + 1];
+        System.arraycopy(routes, 0, routes2, 0, routes.length);
+        routes2[routes.length] = route2;
+        this.notificationRoutes.compareAndSet(routes, routes2);
+        return route2;
+    }
+
+    void invalidateNotificationRoutes() {
+        this.notificationRoutes.set(new NotificationRoute[0]);
+    }
+
     void setCharacteristicValue(BluetoothGattCharacteristic serverCharacteristic, DataProvider dataProvider) {
         if (serverCharacteristic == null) {
             return;
@@ -2284,6 +2310,7 @@ public abstract class BleManagerHandler extends RequestHandler {
             callback.notifyClosed();
         }
         this.valueChangedCallbacks.clear();
+        invalidateNotificationRoutes();
         this.dataProviders.clear();
         this.batteryLevelNotificationCallback = null;
         this.batteryValue = -1;
@@ -3004,6 +3031,7 @@ public abstract class BleManagerHandler extends RequestHandler {
                         }
                     });
                 } else if (BleManagerHandler.this.isCCCD(descriptor)) {
+                    BleManagerHandler.this.invalidateNotificationRoutes();
                     if (data != null && data.length == 2 && data[1] == 0) {
                         switch (data[0]) {
                             case 0:
@@ -3113,7 +3141,8 @@ public abstract class BleManagerHandler extends RequestHandler {
 
         @Override // android.bluetooth.BluetoothGattCallback
         public void onCharacteristicChanged(BluetoothGatt gatt, final BluetoothGattCharacteristic characteristic, final byte[] data) {
-            if (BleManagerHandler.this.isServiceChangedCharacteristic(characteristic)) {
+            NotificationRoute route = BleManagerHandler.this.getNotificationRoute(characteristic);
+            if (route.serviceChanged) {
                 if (Build.VERSION.SDK_INT <= 30) {
                     BleManagerHandler.this.log(4, new Loggable() { // from class: no.nordicsemi.android.ble.-$$Lambda$BleManagerHandler$3$wtKQVgrsV3M_giAs-AYVyIIY-1I
                         @Override // no.nordicsemi.android.ble.BleManagerHandler.Loggable
@@ -3144,9 +3173,7 @@ public abstract class BleManagerHandler extends RequestHandler {
                 }
                 return;
             }
-            BluetoothGattDescriptor cccd = characteristic.getDescriptor(BleManager.CLIENT_CHARACTERISTIC_CONFIG_DESCRIPTOR_UUID);
-            boolean notifications = cccd == null || cccd.getValue() == null || cccd.getValue().length != 2 || cccd.getValue()[0] == 1;
-            if (notifications) {
+            if (!route.indication) {
                 BleManagerHandler.this.log(4, new Loggable() { // from class: no.nordicsemi.android.ble.-$$Lambda$BleManagerHandler$3$MYJxqAsXRw18IC6-ldwM5WIJ-cM
                     @Override // no.nordicsemi.android.ble.BleManagerHandler.Loggable
                     public final String log() {
@@ -3163,10 +3190,10 @@ public abstract class BleManagerHandler extends RequestHandler {
                 });
                 BleManagerHandler.this.onCharacteristicIndicated(gatt, characteristic);
             }
-            if (BleManagerHandler.this.batteryLevelNotificationCallback != null && BleManagerHandler.this.isBatteryLevelCharacteristic(characteristic)) {
+            if (route.batteryLevel && BleManagerHandler.this.batteryLevelNotificationCallback != null) {
                 BleManagerHandler.this.batteryLevelNotificationCallback.notifyValueChanged(gatt.getDevice(), data);
             }
-            ValueChangedCallback request = (ValueChangedCallback) BleManagerHandler.this.valueChangedCallbacks.get(characteristic);
+            ValueChangedCallback request = route.callback;
             if (request != null && request.matches(data)) {
                 request.notifyValueChanged(gatt.getDevice(), data);
             }
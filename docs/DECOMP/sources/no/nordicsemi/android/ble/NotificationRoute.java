@@ -0,0 +1,19 @@
+package no.nordicsemi.android.ble;
+
+import android.bluetooth.BluetoothGattCharacteristic;
+
+final class NotificationRoute {
+    final boolean batteryLevel;
+    final ValueChangedCallback callback;
+    final BluetoothGattCharacteristic characteristic;
+    final boolean indication;
+    final boolean serviceChanged;
+
+    NotificationRoute(BluetoothGattCharacteristic characteristic, ValueChangedCallback callback, boolean indication, boolean batteryLevel, boolean serviceChanged) {
+        this.characteristic = characteristic;
+        this.callback = callback;
+        this.indication = indication;
+        this.batteryLevel = batteryLevel;
+        this.serviceChanged = serviceChanged;
+    }
+}
@@ -3,6 +3,7 @@ package no.nordicsemi.android.ble;
 import android.bluetooth.BluetoothDevice;
 import android.os.Handler;
 import android.util.Log;
+import java.util.concurrent.atomic.AtomicReference;
 import no.nordicsemi.android.ble.callback.ClosedCallback;
 import no.nordicsemi.android.ble.callback.DataReceivedCallback;
 import no.nordicsemi.android.ble.callback.ReadProgressCallback;
@@ -10,11 +11,14 @@ import no.nordicsemi.android.ble.data.Data;
 import no.nordicsemi.android.ble.data.DataFilter;
 import no.nordicsemi.android.ble.data.DataMerger;
 import no.nordicsemi.android.ble.data.DataStream;
+import no.nordicsemi.android.ble.data.MutableData;
 import no.nordicsemi.android.ble.data.PacketFilter;
 
 /* loaded from: C:\Users\UserDemo\Downloads\New folder\CHILEAF\classes.dex */
 public class ValueChangedCallback {
     private static final String TAG = ValueChangedCallback.class.getSimpleName();
+    private static final int TASK_VALUE = 0;
+    private static final int TASK_PROGRESS = 1;
     private DataStream buffer;
     private ClosedCallback closedCallback;
     private int count = 0;
@@ -24,6 +28,8 @@ public class ValueChangedCallback {
     private PacketFilter packetFilter;
     private ReadProgressCallback progressCallback;
     private DataReceivedCallback valueCallback;
+    private final AtomicReference<DispatchTask> freeTasks = new AtomicReference<>();
+    private volatile boolean reuseData;
 
     ValueChangedCallback(CallbackHandler handler) {
         this.handler = handler;
@@ -89,28 +95,25 @@ public class ValueChangedCallback {
         return dataFilter == null || dataFilter.filter(packet);
     }
 
+    public ValueChangedCallback reuseData() {
+        this.reuseData = true;
+        return this;
+    }
+
     void notifyValueChanged(final BluetoothDevice device, final byte[] value) {
         PacketFilter packetFilter;
-        final DataReceivedCallback valueCallback = this.valueCallback;
+        DataReceivedCallback valueCallback = this.valueCallback;
         if (valueCallback == null) {
             return;
         }
         if (this.dataMerger == null && ((packetFilter = this.packetFilter) == null || packetFilter.filter(value))) {
-            final Data data = new Data(value);
-            this.handler.post(new Runnable() { // from class: no.nordicsemi.android.ble.-$$Lambda$ValueChangedCallback$iDFr3-6QE87cWLUeUNPFplE0TFc
-                @Override // java.lang.Runnable
-                public final void run() {
-                    ValueChangedCallback.lambda$notifyValueChanged$0(valueCallback, device, data);
-                }
-            });
+            this.handler.post(obtainTask(TASK_VALUE, device, valueCallback, value, 0));
             return;
         }
-        this.handler.post(new Runnable() { // from class: no.nordicsemi.android.ble.-$$Lambda$ValueChangedCallback$Abubs2xbLMwzeCQ7J-xJaz-uYeE
-            @Override // java.lang.Runnable
-            public final void run() {
-                this.f$0.lambda$notifyValueChanged$1$ValueChangedCallback(device, value);
-            }
-        });
+        ReadProgressCallback progressCallback = this.progressCallback;
+        if (progressCallback != null) {
+            this.handler.post(obtainTask(TASK_PROGRESS, device, null, value, this.count));
+        }
         if (this.buffer == null) {
             this.buffer = new DataStream();
         }
@@ -122,43 +125,89 @@ public class ValueChangedCallback {
             byte[] merged = this.buffer.toByteArray();
             PacketFilter packetFilter2 = this.packetFilter;
             if (packetFilter2 == null || packetFilter2.filter(merged)) {
-                final Data data2 = new Data(merged);
-                this.handler.post(new Runnable() { // from class: no.nordicsemi.android.ble.-$$Lambda$ValueChangedCallback$gxJaWMxOh-utzyqwoNcb6TgXgHE
-                    @Override // java.lang.Runnable
-                    public final void run() {
-                        ValueChangedCallback.lambda$notifyValueChanged$2(valueCallback, device, data2);
-                    }
-                });
+                this.handler.post(obtainTask(TASK_VALUE, device, valueCallback, merged, 0));
             }
             this.buffer = null;
             this.count = 0;
         }
     }
 
-    static /* synthetic */ void lambda$notifyValueChanged$0(DataReceivedCallback valueCallback, BluetoothDevice device, Data data) {
-        try {
-            valueCallback.onDataReceived(device, data);
-        } catch (Throwable t) {
-            Log.e(TAG, "Exception in Value callback", t);
-        }
+    private DispatchTask obtainTask(final int type, final BluetoothDevice device, final DataReceivedCallback callback, final byte[] value, final int index) {
+        DispatchTask task;
+        do {
+            task = this.freeTasks.get();
+            if (task == null) {
+                task = new DispatchTask();
+                break;
+            }
+        } while (!this.freeTasks.compareAndSet(task, task.next));
+        task.next = null;
+        task.type = type;
+        task.device = device;
+        task.callback = callback;
+        task.value = value;
+        task.index = index;
+        return task;
     }
 
-    public /* synthetic */ void lambda$notifyValueChanged$1$ValueChangedCallback(BluetoothDevice device, byte[] value) {
-        ReadProgressCallback readProgressCallback = this.progressCallback;
-        if (readProgressCallback != null) {
-            try {
-                readProgressCallback.onPacketReceived(device, value, this.count);
-            } catch (Throwable t) {
-                Log.e(TAG, "Exception in Progress callback", t);
-            }
+    void releaseTask(final DispatchTask task) {
+        task.device = null;
+        task.callback = null;
+        task.value = null;
+        if (task.data != null) {
+            task.data.setValue(null);
         }
+        DispatchTask head;
+        do {
+            head = this.freeTasks.get();
+            task.next = head;
+        } while (!this.freeTasks.compareAndSet(head, task));
     }
 
-    static /* synthetic */ void lambda$notifyValueChanged$2(DataReceivedCallback valueCallback, BluetoothDevice device, Data data) {
-        try {
-            valueCallback.onDataReceived(device, data);
-        } catch (Throwable t) {
-            Log.e(TAG, "Exception in Value callback", t);
+    final class DispatchTask implements Runnable {
+        DataReceivedCallback callback;
+        MutableData data;
+        BluetoothDevice device;
+        int index;
+        DispatchTask next;
+        int type;
+        byte[] value;
+
+        DispatchTask() {
+        }
+
+        @Override // java.lang.Runnable
+        public void run() {
+            try {
+                if (this.type == TASK_PROGRESS) {
+                    ReadProgressCallback readProgressCallback = ValueChangedCallback.this.progressCallback;
+                    if (readProgressCallback != null) {
+                        try {
+                            readProgressCallback.onPacketReceived(this.device, this.value, this.index);
+                        } catch (Throwable t) {
+                            Log.e(ValueChangedCallback.TAG, "Exception in Progress callback", t);
+                        }
+                    }
+                } else {
+                    Data data;
+                    if (ValueChangedCallback.this.reuseData) {
+                        if (this.data == null) {
+                            this.data = new MutableData();
+                        }
+                        this.data.setValue(this.value);
+                        data = this.data;
+                    } else {
+                        data = new Data(this.value);
+                    }
+                    try {
+                        this.callback.onDataReceived(this.device, data);
+                    } catch (Throwable t2) {
+                        Log.e(ValueChangedCallback.TAG, "Exception in Value callback", t2);
+                    }
+                }
+            } finally {
+                ValueChangedCallback.this.releaseTask(this);
+            }
         }
     }
 
@@ -181,6 +230,7 @@ public class ValueChangedCallback {
         this.progressCallback = null;
         this.filter = null;
         this.packetFilter = null;
+        this.reuseData = false;
         this.buffer = null;
         this.count = 0;
     }
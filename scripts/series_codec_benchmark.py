@@ -0,0 +1,249 @@
+"""
+HR/Step Series Codec Benchmark
+Reference implementation of the SDK series codec (fitness/codec) used to
+measure compression ratio, decode throughput and header-only aggregates on
+the HR history CSV fixtures in this folder.
+
+Stream layout (big endian):
+  stream header: magic 'CLSC' (u32), version (u32)
+  per block (44 byte header, then bit-packed payload):
+    count u16, value_bits u8, reserved u8,
+    first_stamp i64, last_stamp i64, first_value i32,
+    min i32, max i32, sum i64, payload_bytes u32
+  per sample after the first:
+    stamp delta-of-delta: '0' | '10'+7 | '110'+12 | '1110'+20 | '1111'+64 bits (zigzag)
+    value delta: zigzag, packed with the block's value_bits
+
+Usage:
+    python series_codec_benchmark.py [csv ...]
+"""
+import csv
+import glob
+import os
+import struct
+import sys
+import time
+from datetime import datetime
+
+MAGIC = 0x434C5343
+VERSION = 1
+BLOCK_HEADER = struct.Struct(">HBBqqiiiqI")
+STREAM_HEADER = struct.Struct(">II")
+DEFAULT_BLOCK_SIZE = 512
+
+
+def zigzag(value):
+    return (value << 1) ^ (value >> 63)
+
+
+def unzigzag(value):
+    return (value >> 1) ^ -(value & 1)
+
+
+class BitWriter:
+    """MSB-first bit writer"""
+
+    def __init__(self):
+        self.buffer = bytearray()
+        self.accumulator = 0
+        self.pending = 0
+
+    def write(self, value, bits):
+        self.accumulator = (self.accumulator << bits) | (value & ((1 << bits) - 1))
+        self.pending += bits
+        while self.pending >= 8:
+            self.pending -= 8
+            self.buffer.append((self.accumulator >> self.pending) & 0xFF)
+        self.accumulator &= (1 << self.pending) - 1
+
+    def align(self):
+        if self.pending:
+            self.buffer.append((self.accumulator << (8 - self.pending)) & 0xFF)
+            self.accumulator = 0
+            self.pending = 0
+
+
+class BitReader:
+    """MSB-first bit reader"""
+
+    def __init__(self, data, position):
+        self.data = data
+        self.position = position
+        self.accumulator = 0
+        self.available = 0
+
+    def read(self, bits):
+        while self.available < bits:
+            self.accumulator = ((self.accumulator << 8) | self.data[self.position]) & ((1 << 128) - 1)
+            self.position += 1
+            self.available += 8
+        self.available -= bits
+        return (self.accumulator >> self.available) & ((1 << bits) - 1)
+
+
+def write_stamp(writer, dod):
+    if dod == 0:
+        writer.write(0, 1)
+        return
+    z = zigzag(dod)
+    if z < 128:
+        writer.write(0b10, 2)
+        writer.write(z, 7)
+    elif z < 4096:
+        writer.write(0b110, 3)
+        writer.write(z, 12)
+    elif z < 1048576:
+        writer.write(0b1110, 4)
+        writer.write(z, 20)
+    else:
+        writer.write(0b1111, 4)
+        writer.write(z, 64)
+
+
+def read_stamp(reader):
+    if not reader.read(1):
+        return 0
+    if not reader.read(1):
+        return unzigzag(reader.read(7))
+    if not reader.read(1):
+        return unzigzag(reader.read(12))
+    if not reader.read(1):
+        return unzigzag(reader.read(20))
+    return unzigzag(reader.read(64))
+
+
+def encode_block(out, stamps, values):
+    count = len(stamps)
+    widest = 0
+    for previous, value in zip(values, values[1:]):
+        widest |= zigzag(value - previous)
+    value_bits = widest.bit_length()
+    writer = BitWriter()
+    delta = 0
+    for i in range(1, count):
+        step = stamps[i] - stamps[i - 1]
+        write_stamp(writer, step - delta)
+        delta = step
+        writer.write(zigzag(values[i] - values[i - 1]), value_bits)
+    writer.align()
+    out += BLOCK_HEADER.pack(count, value_bits, 0, stamps[0], stamps[-1], values[0],
+                             min(values), max(values), sum(values), len(writer.buffer))
+    out += writer.buffer
+
+
+def encode(samples, block_size=DEFAULT_BLOCK_SIZE):
+    """Encode (stamp_ms, value) pairs; a decreasing stamp starts a new block"""
+    out = bytearray(STREAM_HEADER.pack(MAGIC, VERSION))
+    stamps, values = [], []
+    for stamp, value in samples:
+        if stamps and (stamp < stamps[-1] or len(stamps) == block_size):
+            encode_block(out, stamps, values)
+            stamps, values = [], []
+        stamps.append(stamp)
+        values.append(value)
+    if stamps:
+        encode_block(out, stamps, values)
+    return bytes(out)
+
+
+def blocks(data):
+    magic, version = STREAM_HEADER.unpack_from(data, 0)
+    if magic != MAGIC or version != VERSION:
+        raise ValueError("Not an encoded series")
+    position = STREAM_HEADER.size
+    while position < len(data):
+        header = BLOCK_HEADER.unpack_from(data, position)
+        yield position, header
+        position += BLOCK_HEADER.size + header[-1]
+
+
+def decode(data):
+    samples = []
+    for position, header in blocks(data):
+        count, value_bits, _, stamp, _, value = header[:6]
+        samples.append((stamp, value))
+        reader = BitReader(data, position + BLOCK_HEADER.size)
+        delta = 0
+        for _ in range(1, count):
+            delta += read_stamp(reader)
+            stamp += delta
+            value += unzigzag(reader.read(value_bits))
+            samples.append((stamp, value))
+    return samples
+
+
+def summarize(data, start, end):
+    """Aggregate count/min/max/sum, decoding only blocks that straddle the range"""
+    count, low, high, total, decoded = 0, None, None, 0, 0
+    straddling = bytearray(STREAM_HEADER.pack(MAGIC, VERSION))
+    for position, header in blocks(data):
+        n, _, _, first, last, _, block_min, block_max, block_sum, length = header
+        if last < start or first > end:
+            continue
+        if first >= start and last <= end:
+            count += n
+            total += block_sum
+            low = block_min if low is None else min(low, block_min)
+            high = block_max if high is None else max(high, block_max)
+        else:
+            straddling += data[position:position + BLOCK_HEADER.size + length]
+    for stamp, value in decode(bytes(straddling)):
+        if start <= stamp <= end:
+            decoded += 1
+            count += 1
+            total += value
+            low = value if low is None else min(low, value)
+            high = value if high is None else max(high, value)
+    return count, low, high, total, decoded
+
+
+def load_csv(path):
+    samples = []
+    with open(path, newline="") as f:
+        for row in csv.DictReader(f):
+            stamp = int(datetime.strptime(row["datetime"], "%Y-%m-%d %H:%M:%S").timestamp() * 1000)
+            samples.append((stamp, int(row["hr_bpm"])))
+    return samples
+
+
+def benchmark(path, block_size):
+    samples = load_csv(path)
+    raw = len(samples) * 12  # long stamp + int value per sample
+    csv_bytes = os.path.getsize(path)
+
+    started = time.perf_counter()
+    data = encode(samples, block_size)
+    encode_s = time.perf_counter() - started
+
+    started = time.perf_counter()
+    decoded = decode(data)
+    decode_s = time.perf_counter() - started
+    if decoded != samples:
+        raise AssertionError(f"{path}: round trip mismatch")
+
+    ordered = sorted(stamp for stamp, _ in samples)
+    start, end = ordered[len(ordered) // 3], ordered[2 * len(ordered) // 3]
+    expected = [value for stamp, value in samples if start <= stamp <= end]
+    count, low, high, total, touched = summarize(data, start, end)
+    if (count, low, high, total) != (len(expected), min(expected), max(expected), sum(expected)):
+        raise AssertionError(f"{path}: aggregate mismatch")
+
+    print(f"{os.path.basename(path)} block={block_size}")
+    print(f"  samples:      {len(samples)}")
+    print(f"  encoded:      {len(data)} bytes ({len(data) * 8 / len(samples):.2f} bits/sample)")
+    print(f"  vs raw:       {raw / len(data):.1f}x  ({raw} bytes as long+int)")
+    print(f"  vs csv:       {csv_bytes / len(data):.1f}x  ({csv_bytes} bytes)")
+    print(f"  encode:       {len(samples) / encode_s / 1e3:.0f} k samples/s (python)")
+    print(f"  decode:       {len(samples) / decode_s / 1e3:.0f} k samples/s (python)")
+    print(f"  aggregate:    {count} samples, decoded {touched} from straddling blocks")
+
+
+def main():
+    paths = sys.argv[1:] or sorted(glob.glob(os.path.join(os.path.dirname(os.path.abspath(__file__)), "hr_history_*.csv")))
+    for path in paths:
+        for block_size in (128, DEFAULT_BLOCK_SIZE, 4096):
+            benchmark(path, block_size)
+
+
+if __name__ == "__main__":
+    main()